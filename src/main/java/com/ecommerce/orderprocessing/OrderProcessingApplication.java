@@ -2,6 +2,7 @@ package com.ecommerce.orderprocessing;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
@@ -11,7 +12,14 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 @EnableScheduling
 public class OrderProcessingApplication {
     
+    /**
+     * Startup steps kept for the startup report and the actuator startup endpoint
+     */
+    private static final int STARTUP_STEP_CAPACITY = 10000;
+    
     public static void main(String[] args) {
-        SpringApplication.run(OrderProcessingApplication.class, args);
+        SpringApplication application = new SpringApplication(OrderProcessingApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+        application.run(args);
     }
 }
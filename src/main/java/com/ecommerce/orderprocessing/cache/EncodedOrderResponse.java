@@ -0,0 +1,34 @@
+package com.ecommerce.orderprocessing.cache;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pre-encoded JSON representation of an order, with an optional gzipped variant
+ * and a CBOR variant encoded on first request
+ */
+@Getter
+@RequiredArgsConstructor
+public class EncodedOrderResponse {
+    
+    private final Long orderId;
+    private final OrderStatus status;
+    private final LocalDateTime updatedAt;
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private volatile byte[] cbor;
+    
+    /**
+     * Check if a gzipped variant was encoded for this order
+     */
+    public boolean hasGzippedJson() {
+        return gzippedJson != null;
+    }
+    
+    void setCbor(byte[] cbor) {
+        this.cbor = cbor;
+    }
+}
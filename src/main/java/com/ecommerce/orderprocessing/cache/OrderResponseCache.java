@@ -0,0 +1,140 @@
+package com.ecommerce.orderprocessing.cache;
+
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Bounded cache of serialized order responses keyed by order ID.
+ * Entries are validated against the order's updatedAt timestamp by the caller,
+ * so a changed order is simply re-encoded on its next read.
+ */
+@Component
+@Slf4j
+public class OrderResponseCache {
+    
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int gzipMinBytes;
+    private final ConcurrentMap<Long, EncodedOrderResponse> entries = new ConcurrentHashMap<>();
+    
+    public OrderResponseCache(ObjectMapper objectMapper,
+                              MappingJackson2CborHttpMessageConverter cborConverter,
+                              @Value("${orders.response-cache.enabled:true}") boolean enabled,
+                              @Value("${orders.response-cache.max-entries:10000}") int maxEntries,
+                              @Value("${orders.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.gzipMinBytes = gzipMinBytes;
+    }
+    
+    /**
+     * Get the cached encoding of an order, or null if none is cached
+     */
+    public EncodedOrderResponse get(Long orderId) {
+        return enabled ? entries.get(orderId) : null;
+    }
+    
+    /**
+     * Get the cached encoding of an order if it is still current for the given updatedAt
+     */
+    public EncodedOrderResponse getIfCurrent(Long orderId, LocalDateTime updatedAt) {
+        EncodedOrderResponse cached = get(orderId);
+        if (cached != null && cached.getUpdatedAt() != null && cached.getUpdatedAt().equals(updatedAt)) {
+            return cached;
+        }
+        return null;
+    }
+    
+    /**
+     * Encode a response and store it, replacing any older encoding of the same order
+     */
+    public EncodedOrderResponse put(OrderResponse response) {
+        EncodedOrderResponse encoded = encode(response);
+        if (enabled) {
+            if (entries.size() >= maxEntries && !entries.containsKey(response.getId())) {
+                evictOne();
+            }
+            entries.put(response.getId(), encoded);
+        }
+        return encoded;
+    }
+    
+    /**
+     * Remove the cached encoding of an order
+     */
+    public void evict(Long orderId) {
+        entries.remove(orderId);
+    }
+    
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Serialize a response to JSON bytes, adding a gzipped variant for large payloads
+     */
+    public EncodedOrderResponse encode(OrderResponse response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response);
+            byte[] gzipped = json.length >= gzipMinBytes ? gzip(json) : null;
+            return new EncodedOrderResponse(response.getId(), response.getStatus(),
+                    response.getUpdatedAt(), json, gzipped);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode order " + response.getId(), e);
+        }
+    }
+    
+    /**
+     * Get the CBOR encoding of an entry, converting it from the JSON on first use
+     */
+    public byte[] toCbor(EncodedOrderResponse encoded) {
+        byte[] cbor = encoded.getCbor();
+        if (cbor == null) {
+            try {
+                // Through OrderResponse rather than token by token, so amounts keep their exact decimal value
+                cbor = cborMapper.writeValueAsBytes(objectMapper.readValue(encoded.getJson(), OrderResponse.class));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to encode order " + encoded.getOrderId(), e);
+            }
+            encoded.setCbor(cbor);
+        }
+        return cbor;
+    }
+    
+    private void evictOne() {
+        Iterator<Long> iterator = entries.keySet().iterator();
+        if (iterator.hasNext()) {
+            Long evicted = iterator.next();
+            iterator.remove();
+            log.debug("Evicted order {} from response cache", evicted);
+        }
+    }
+    
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.orderprocessing.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR (application/cbor) next to JSON for internal clients that send it as Content-Type or ask
+ * for it with Accept. JSON stays the default for requests without a preference. The mapper is
+ * built from Spring Boot's Jackson builder so dates and modules match the JSON output.
+ */
+@Configuration(proxyBeanMethods = false)
+public class CborConfig {
+    
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
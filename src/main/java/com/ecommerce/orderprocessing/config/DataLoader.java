@@ -1,12 +1,16 @@
 package com.ecommerce.orderprocessing.config;
 
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
 import com.ecommerce.orderprocessing.model.Order;
 import com.ecommerce.orderprocessing.model.OrderItem;
 import com.ecommerce.orderprocessing.model.OrderStatus;
 import com.ecommerce.orderprocessing.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -15,17 +19,58 @@ import java.math.BigDecimal;
 
 /**
  * Configuration class to load sample data for testing
- * Only active in 'dev' profile
+ * The three sample orders are only loaded in the 'dev' profile; setting orders.datagen.orders
+ * bulk-loads that many synthetic orders in any profile before the sample loader runs.
+ * Both run once the singletons exist but before the web server opens its port, because requests
+ * inserting orders meanwhile would race for the ids the generator assigns, and so that the sales
+ * rollup rebuilt after them includes their orders.
  */
 @Configuration
 @RequiredArgsConstructor
 @Slf4j
 public class DataLoader {
     
+    @Bean
+    @ConditionalOnProperty(name = "orders.datagen.orders")
+    public SmartInitializingSingleton generateData(
+            SyntheticDataGenerator generator,
+            OrderRepository orderRepository,
+            @Value("${orders.datagen.orders}") int orders,
+            @Value("${orders.datagen.seed:42}") long seed,
+            @Value("${orders.datagen.customers:50000}") int customers,
+            @Value("${orders.datagen.skew:1.0}") double skew,
+            @Value("${orders.datagen.status-mix:" + GenerationSpec.DEFAULT_STATUS_MIX + "}") String statusMix,
+            @Value("${orders.datagen.items-per-order:" + GenerationSpec.DEFAULT_ITEMS_PER_ORDER + "}") String itemsPerOrder,
+            @Value("${orders.datagen.days:365}") int days,
+            @Value("${orders.datagen.batch-size:5000}") int batchSize,
+            @Value("${orders.datagen.only-if-empty:true}") boolean onlyIfEmpty) {
+        return () -> {
+            if (onlyIfEmpty && orderRepository.count() > 0) {
+                log.info("Database already contains orders, skipping synthetic data generation");
+                return;
+            }
+            generator.generate(GenerationSpec.builder()
+                    .orders(orders)
+                    .seed(seed)
+                    .customers(customers)
+                    .skew(skew)
+                    .statusMix(GenerationSpec.parseStatusMix(statusMix))
+                    .itemsPerOrder(GenerationSpec.parseItemsPerOrder(itemsPerOrder))
+                    .days(days)
+                    .batchSize(batchSize)
+                    .build());
+        };
+    }
+    
     @Bean
     @Profile("dev")
-    public CommandLineRunner loadData(OrderRepository orderRepository) {
-        return args -> {
+    public SmartInitializingSingleton loadData(OrderRepository orderRepository) {
+        return () -> {
+            // The dev database is file-backed, so only seed it once
+            if (orderRepository.count() > 0) {
+                log.info("Database already contains orders, skipping sample data");
+                return;
+            }
             log.info("Loading sample data...");
             
             // Sample Order 1
@@ -0,0 +1,20 @@
+package com.ecommerce.orderprocessing.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Beans that stay eager when spring.main.lazy-initialization is on.
+ * The entity manager factory bootstraps Hibernate and creates the schema; deferring it
+ * would only move that cost onto the first request.
+ */
+@Configuration(proxyBeanMethods = false)
+public class LazyInitializationConfig {
+    
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistenceFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(EntityManagerFactory.class);
+    }
+}
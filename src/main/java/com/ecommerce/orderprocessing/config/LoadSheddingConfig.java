@@ -0,0 +1,68 @@
+package com.ecommerce.orderprocessing.config;
+
+import com.ecommerce.orderprocessing.ratelimit.AdaptiveConcurrencyLimiter;
+import com.ecommerce.orderprocessing.ratelimit.ClientRateLimiter;
+import com.ecommerce.orderprocessing.ratelimit.EndpointClass;
+import com.ecommerce.orderprocessing.ratelimit.LoadSheddingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+
+/**
+ * Per-client rate limits and adaptive concurrency limiting for the API.
+ * Each can be switched off on its own; with both off the filter is not registered.
+ */
+@Configuration
+public class LoadSheddingConfig {
+    
+    /**
+     * A bean of its own so that its idle buckets are swept on the scheduler
+     */
+    @Bean
+    @ConditionalOnProperty(name = "orders.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public ClientRateLimiter clientRateLimiter(
+            @Value("${orders.rate-limit.create.per-second:50}") double createRate,
+            @Value("${orders.rate-limit.create.burst:100}") int createBurst,
+            @Value("${orders.rate-limit.list.per-second:20}") double listRate,
+            @Value("${orders.rate-limit.list.burst:40}") int listBurst,
+            @Value("${orders.rate-limit.default.per-second:200}") double defaultRate,
+            @Value("${orders.rate-limit.default.burst:400}") int defaultBurst,
+            @Value("${orders.rate-limit.max-clients:100000}") int maxClients) {
+        return new ClientRateLimiter(Map.of(
+                EndpointClass.CREATE, new ClientRateLimiter.Limit(createRate, createBurst),
+                EndpointClass.LIST, new ClientRateLimiter.Limit(listRate, listBurst),
+                EndpointClass.DEFAULT, new ClientRateLimiter.Limit(defaultRate, defaultBurst)),
+                maxClients * EndpointClass.values().length);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            ObjectProvider<ClientRateLimiter> rateLimiterProvider,
+            @Value("${orders.concurrency-limit.enabled:true}") boolean concurrencyLimitEnabled,
+            @Value("${orders.concurrency-limit.initial:20}") int initialLimit,
+            @Value("${orders.concurrency-limit.min:4}") int minLimit,
+            @Value("${orders.concurrency-limit.max:200}") int maxLimit) {
+        ClientRateLimiter rateLimiter = rateLimiterProvider.getIfAvailable();
+        AdaptiveConcurrencyLimiter concurrencyLimiter = concurrencyLimitEnabled
+                ? new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit)
+                : null;
+        
+        FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(
+                new LoadSheddingFilter(rateLimiter, concurrencyLimiter, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // Reject before any other work is done for the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        registration.setEnabled(rateLimiter != null || concurrencyLimiter != null);
+        return registration;
+    }
+}
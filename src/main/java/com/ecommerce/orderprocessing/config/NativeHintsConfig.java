@@ -0,0 +1,40 @@
+package com.ecommerce.orderprocessing.config;
+
+import com.ecommerce.orderprocessing.dto.OrderItemResponse;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.OrderSearchResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesBucketResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesResponse;
+import com.ecommerce.orderprocessing.exception.ErrorResponse;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection and resource hints for the native image.
+ * Controller signatures and JPA entities are covered by Spring AOT; the DTOs are listed
+ * because OrderResponseCache and the exception handler serialize them outside a controller
+ * return type, and Lombok builders leave Jackson to find accessors reflectively.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.ResourceHints.class)
+@RegisterReflectionForBinding({
+        OrderResponse.class,
+        OrderItemResponse.class,
+        OrderSearchResponse.class,
+        ProductSalesResponse.class,
+        ProductSalesBucketResponse.class,
+        ErrorResponse.class
+})
+public class NativeHintsConfig {
+    
+    static class ResourceHints implements RuntimeHintsRegistrar {
+        
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.resources().registerPattern("application-*.properties");
+        }
+    }
+}
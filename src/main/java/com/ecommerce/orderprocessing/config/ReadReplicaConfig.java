@@ -0,0 +1,69 @@
+package com.ecommerce.orderprocessing.config;
+
+import com.ecommerce.orderprocessing.datasource.ClientContextFilter;
+import com.ecommerce.orderprocessing.datasource.ReadYourWritesTracker;
+import com.ecommerce.orderprocessing.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Routes read-only transactions to a replica database.
+ * Only active when orders.datasource.replica.url is set; spring.datasource stays the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.datasource.replica.url")
+public class ReadReplicaConfig {
+    
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+    
+    @Bean
+    @ConfigurationProperties("orders.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${orders.datasource.replica.url}") String url,
+            @Value("${orders.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${orders.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+    
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${orders.datasource.replica.freshness-window-ms:2000}") long freshnessWindowMillis) {
+        return new ReadYourWritesTracker(freshnessWindowMillis);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, readYourWritesTracker));
+    }
+    
+    @Bean
+    public ClientContextFilter clientContextFilter() {
+        return new ClientContextFilter();
+    }
+}
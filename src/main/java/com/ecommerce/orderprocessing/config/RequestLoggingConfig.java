@@ -0,0 +1,29 @@
+package com.ecommerce.orderprocessing.config;
+
+import com.ecommerce.orderprocessing.logging.RequestLoggingInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the sampled per-request log line for the API endpoints
+ */
+@Configuration
+public class RequestLoggingConfig implements WebMvcConfigurer {
+    
+    private final int sampleRate;
+    private final long slowRequestMs;
+    
+    public RequestLoggingConfig(@Value("${orders.logging.request-sample-rate:100}") int sampleRate,
+                                @Value("${orders.logging.slow-request-ms:500}") long slowRequestMs) {
+        this.sampleRate = sampleRate;
+        this.slowRequestMs = slowRequestMs;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestLoggingInterceptor(sampleRate, slowRequestMs))
+                .addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.orderprocessing.config;
+
+import jakarta.persistence.CacheStoreMode;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache backed by Ehcache through JCache.
+ * Sessions read from the cache but do not store loaded or inserted orders by default;
+ * it is filled by OrderRepository#findCacheableById and refreshed by entity updates.
+ * Reads only keep delivered and cancelled orders: the cache is local to each node, so it must
+ * not hold an order whose status another node can still change. Entries can idle for a long time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "orders.cache.second-level.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+    
+    /**
+     * One cache manager per application context; the JCache provider would otherwise share
+     * (and close) a single manager for every context that uses the same URI.
+     * Configured in code: loading an ehcache.xml pulls in JAXB, which cost seconds at startup.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${orders.cache.second-level.max-orders:20000}") long maxOrders,
+            @Value("${orders.cache.second-level.time-to-idle:PT6H}") Duration timeToIdle) {
+        org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+                .withCache("orders", region(maxOrders, timeToIdle))
+                .withCache("orders.items", region(maxOrders, timeToIdle))
+                .withCache("order-items", region(maxOrders * 5, timeToIdle))
+                .build();
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(
+                EhcacheCachingProvider.class.getName());
+        return provider.getCacheManager(URI.create("urn:orders:second-level-cache:" + UUID.randomUUID()),
+                configuration);
+    }
+    
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Must be the enum, Hibernate does not parse this setting from a string
+            properties.put(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        };
+    }
+    
+    private static CacheConfigurationBuilder<Object, Object> region(long entries, Duration timeToIdle) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                        ResourcePoolsBuilder.heap(entries))
+                .withExpiry(ExpiryPolicyBuilder.timeToIdleExpiration(timeToIdle));
+    }
+}
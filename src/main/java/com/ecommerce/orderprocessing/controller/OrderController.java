@@ -1,9 +1,17 @@
 package com.ecommerce.orderprocessing.controller;
 
+import com.ecommerce.orderprocessing.cache.EncodedOrderResponse;
+import com.ecommerce.orderprocessing.dto.BulkStatusUpdateResponse;
+import com.ecommerce.orderprocessing.dto.OrderFilter;
+import com.ecommerce.orderprocessing.dto.OrderFilterResponse;
 import com.ecommerce.orderprocessing.dto.OrderRequest;
 import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.OrderSearchResponse;
+import com.ecommerce.orderprocessing.dto.OrderStatusUpdateRequest;
 import com.ecommerce.orderprocessing.model.OrderStatus;
 import com.ecommerce.orderprocessing.service.OrderService;
+import com.ecommerce.orderprocessing.service.OrderStatusUpdateCoalescer;
+import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,11 +21,19 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * REST Controller for order management
@@ -29,6 +45,7 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final ObjectProvider<OrderStatusUpdateCoalescer> statusUpdateCoalescer;
     
     /**
      * Create a new order
@@ -55,41 +72,137 @@ public class OrderController {
     /**
      * Get order by ID
      * GET /api/orders/{id}
+     * The body is written from pre-encoded JSON bytes, gzipped when the client accepts it
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieves order details by order ID")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Order found",
-                    content = @Content(schema = @Schema(implementation = OrderResponse.class))),
+            @ApiResponse(responseCode = "200", description = "Order found", content = {
+                    @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = OrderResponse.class)),
+                    @Content(mediaType = MediaType.APPLICATION_CBOR_VALUE,
+                            schema = @Schema(implementation = OrderResponse.class))}),
             @ApiResponse(responseCode = "404", description = "Order not found", content = @Content)
     })
-    public ResponseEntity<OrderResponse> getOrderById(
+    public ResponseEntity<byte[]> getOrderById(
             @Parameter(description = "Order ID", required = true, example = "1")
-            @PathVariable Long id) {
-        OrderResponse response = orderService.getOrderById(id);
-        return ResponseEntity.ok(response);
+            @PathVariable Long id,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EncodedOrderResponse response = orderService.getEncodedOrderById(id);
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (response.hasGzippedJson() && acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(response.getGzippedJson());
+        }
+        return builder.body(response.getJson());
+    }
+    
+    /**
+     * Get order by ID as CBOR, for clients that send Accept: application/cbor
+     * The body is written from the cached CBOR bytes
+     */
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    @Hidden  // Documented as a media type of getOrderById
+    public ResponseEntity<byte[]> getOrderByIdAsCbor(@PathVariable Long id) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_CBOR)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .body(orderService.getCborOrderById(id));
     }
     
     /**
      * Get all orders, optionally filtered by status
-     * GET /api/orders?status=PENDING
+     * GET /api/orders?status=PENDING&fields=id,status,totalAmount
      */
     @GetMapping
-    @Operation(summary = "Get all orders", description = "Retrieves all orders, optionally filtered by status")
+    @Operation(summary = "Get all orders", description = "Retrieves all orders, optionally filtered by status and limited to selected fields")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
-                    content = @Content(schema = @Schema(implementation = OrderResponse.class)))
+                    content = @Content(schema = @Schema(implementation = OrderResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field", content = @Content)
     })
     public ResponseEntity<List<OrderResponse>> getAllOrders(
             @Parameter(description = "Filter by order status (optional)", example = "PENDING")
-            @RequestParam(required = false) OrderStatus status) {
-        List<OrderResponse> orders = orderService.getAllOrders(status);
+            @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Comma-separated fields to return (optional, default all)",
+                    example = "id,status,totalAmount")
+            @RequestParam(required = false) String fields) {
+        List<OrderResponse> orders = orderService.getAllOrders(status, fields);
         return ResponseEntity.ok(orders);
     }
     
+    /**
+     * Filter orders by status, creation time and amount, oldest first, with keyset pagination
+     * GET /api/orders/filter?status=PENDING&status=PROCESSING&createdFrom=2025-10-01T00:00:00&minAmount=100
+     */
+    @GetMapping("/filter")
+    @Operation(summary = "Filter orders",
+            description = "Finds orders in any of the given statuses, created in [createdFrom, createdTo) "
+                    + "and with a total of at least minAmount. Pass nextCursor back as cursor for the next page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OrderFilterResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid criteria, cursor or size", content = @Content)
+    })
+    public ResponseEntity<OrderFilterResponse> filterOrders(
+            @Parameter(description = "Statuses to include (optional, repeatable)", example = "PENDING")
+            @RequestParam(name = "status", required = false) Set<OrderStatus> statuses,
+            @Parameter(description = "Created at or after (optional)", example = "2025-10-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime createdFrom,
+            @Parameter(description = "Created before (optional)", example = "2025-11-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime createdTo,
+            @Parameter(description = "Minimum total amount (optional)", example = "100.00")
+            @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "nextCursor of the previous page (optional)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Comma-separated fields to return (optional, default all)",
+                    example = "id,status,totalAmount")
+            @RequestParam(required = false) String fields) {
+        OrderFilter filter = OrderFilter.builder()
+                .statuses(statuses)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .minAmount(minAmount)
+                .build();
+        OrderFilterResponse response = orderService.filterOrders(filter, cursor, size, fields);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Search orders by customer name, email or product name
+     * GET /api/orders/search?q=alice lap&page=0&size=20
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Search orders",
+            description = "Finds orders whose customer name, email or product names contain words starting with every word of the query")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search results retrieved successfully",
+                    content = @Content(schema = @Schema(implementation = OrderSearchResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid page or size", content = @Content)
+    })
+    public ResponseEntity<OrderSearchResponse> searchOrders(
+            @Parameter(description = "Search words, matched as prefixes", required = true, example = "alice lap")
+            @RequestParam("q") String query,
+            @Parameter(description = "Zero-based page number", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        OrderSearchResponse response = orderService.searchOrders(query, page, size);
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Update order status
      * PUT /api/orders/{id}/status
+     * Goes through OrderStatusUpdateCoalescer when status coalescing is enabled
      */
     @PutMapping("/{id}/status")
     @Operation(summary = "Update order status", description = "Updates the status of an existing order")
@@ -104,7 +217,29 @@ public class OrderController {
             @PathVariable Long id,
             @Parameter(description = "New order status", required = true, example = "PROCESSING")
             @RequestParam OrderStatus status) {
-        OrderResponse response = orderService.updateOrderStatus(id, status);
+        OrderStatusUpdateCoalescer coalescer = statusUpdateCoalescer.getIfAvailable();
+        OrderResponse response = coalescer != null
+                ? coalescer.updateOrderStatus(id, status)
+                : orderService.updateOrderStatus(id, status);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Update the status of many orders at once
+     * PUT /api/orders/status
+     */
+    @PutMapping("/status")
+    @Operation(summary = "Bulk update order status",
+            description = "Applies a list of {id, status} entries and reports the outcome per order. "
+                    + "Entries that fail validation do not stop the others.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Entries processed, see the outcome of each",
+                    content = @Content(schema = @Schema(implementation = BulkStatusUpdateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or too large request", content = @Content)
+    })
+    public ResponseEntity<BulkStatusUpdateResponse> updateOrderStatuses(
+            @RequestBody List<OrderStatusUpdateRequest> updates) {
+        BulkStatusUpdateResponse response = orderService.updateOrderStatuses(updates);
         return ResponseEntity.ok(response);
     }
     
@@ -126,4 +261,59 @@ public class OrderController {
         OrderResponse response = orderService.cancelOrder(id);
         return ResponseEntity.ok(response);
     }
+    
+    /**
+     * Cancel many orders at once
+     * POST /api/orders/cancel
+     */
+    @PostMapping("/cancel")
+    @Operation(summary = "Bulk cancel orders",
+            description = "Cancels every listed order that is still PENDING and reports the orders "
+                    + "that were not found or had already moved past PENDING.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Orders processed, see the outcome of each",
+                    content = @Content(schema = @Schema(implementation = BulkStatusUpdateResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Empty or too large request", content = @Content)
+    })
+    public ResponseEntity<BulkStatusUpdateResponse> cancelOrders(@RequestBody List<Long> orderIds) {
+        BulkStatusUpdateResponse response = orderService.cancelOrders(orderIds);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Whether an Accept-Encoding header allows gzip: an explicit gzip (or x-gzip) entry decides by its
+     * q-value, otherwise a * entry does. q=0 means "not acceptable".
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzipQuality = null;
+        Double wildcardQuality = null;
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzipQuality = quality(parts);
+            } else if (coding.equals("*")) {
+                wildcardQuality = quality(parts);
+            }
+        }
+        Double quality = gzipQuality != null ? gzipQuality : wildcardQuality;
+        return quality != null && quality > 0;
+    }
+    
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
 }
@@ -0,0 +1,88 @@
+package com.ecommerce.orderprocessing.controller;
+
+import com.ecommerce.orderprocessing.dto.ProductSalesBucketResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.model.SalesBucket;
+import com.ecommerce.orderprocessing.model.SalesRanking;
+import com.ecommerce.orderprocessing.service.ProductSalesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for product sales analytics
+ */
+@RestController
+@RequestMapping("/api/analytics/products")
+@RequiredArgsConstructor
+@Tag(name = "Sales Analytics", description = "APIs for product-level sales aggregation")
+public class ProductSalesController {
+    
+    private final ProductSalesService productSalesService;
+    
+    /**
+     * Get the best-selling products
+     * GET /api/analytics/products/top?from=2025-10-01T00:00:00&to=2025-11-01T00:00:00&limit=10
+     */
+    @GetMapping("/top")
+    @Operation(summary = "Top products", description = "Ranks products by revenue or units sold for orders created in [from, to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Top products retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductSalesResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid time range or limit", content = @Content)
+    })
+    public ResponseEntity<List<ProductSalesResponse>> getTopProducts(
+            @Parameter(description = "Start of the range (inclusive)", required = true, example = "2025-10-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range (exclusive)", required = true, example = "2025-11-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only count orders in these statuses (optional); filtered queries skip the daily rollup", example = "DELIVERED")
+            @RequestParam(required = false) List<OrderStatus> status,
+            @Parameter(description = "Ranking measure", example = "REVENUE")
+            @RequestParam(defaultValue = "REVENUE") SalesRanking rankBy,
+            @Parameter(description = "Number of products to return (1-1000)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSalesService.getTopProducts(from, to, status, rankBy, limit));
+    }
+    
+    /**
+     * Get product sales per time bucket
+     * GET /api/analytics/products/sales?from=2025-10-01T00:00:00&to=2025-11-01T00:00:00&bucket=DAY
+     */
+    @GetMapping("/sales")
+    @Operation(summary = "Product sales over time", description = "Aggregates units and revenue per product and time bucket for orders created in [from, to)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sales retrieved successfully",
+                    content = @Content(array = @ArraySchema(schema = @Schema(implementation = ProductSalesBucketResponse.class)))),
+            @ApiResponse(responseCode = "400", description = "Invalid time range", content = @Content)
+    })
+    public ResponseEntity<List<ProductSalesBucketResponse>> getSalesByBucket(
+            @Parameter(description = "Start of the range (inclusive)", required = true, example = "2025-10-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "End of the range (exclusive)", required = true, example = "2025-11-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only count orders in these statuses (optional); filtered queries skip the daily rollup", example = "DELIVERED")
+            @RequestParam(required = false) List<OrderStatus> status,
+            @Parameter(description = "Time bucket size", example = "DAY")
+            @RequestParam(defaultValue = "DAY") SalesBucket bucket,
+            @Parameter(description = "Restrict to one product (optional)", example = "Laptop")
+            @RequestParam(required = false) String product) {
+        return ResponseEntity.ok(productSalesService.getSalesByBucket(from, to, status, bucket, product));
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.orderprocessing.datagen;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+/**
+ * Rows written by one generator run
+ */
+@Value
+public class GenerationResult {
+    
+    long orders;
+    long items;
+    Duration elapsed;
+    
+    public double rowsPerMinute() {
+        double minutes = Math.max(elapsed.toNanos(), 1) / 60e9;
+        return (orders + items) / minutes;
+    }
+}
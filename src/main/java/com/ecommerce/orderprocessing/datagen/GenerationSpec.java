@@ -0,0 +1,69 @@
+package com.ecommerce.orderprocessing.datagen;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * What the synthetic data generator should produce.
+ * The same spec (including seed and end time) always generates the same rows.
+ */
+@Value
+@Builder
+public class GenerationSpec {
+    
+    public static final String DEFAULT_STATUS_MIX = "PENDING:10,PROCESSING:10,SHIPPED:20,DELIVERED:55,CANCELLED:5";
+    public static final String DEFAULT_ITEMS_PER_ORDER = "1:45,2:25,3:15,4:10,5:5";
+    
+    /** Number of orders to insert */
+    int orders;
+    
+    @Builder.Default
+    long seed = 42;
+    
+    /** Number of distinct customers; order counts per customer follow a Zipf distribution */
+    @Builder.Default
+    int customers = 50_000;
+    
+    /** Zipf exponent for customers and products: 0 is uniform, around 1 is a typical long tail */
+    @Builder.Default
+    double skew = 1.0;
+    
+    @Builder.Default
+    Map<OrderStatus, Integer> statusMix = parseStatusMix(DEFAULT_STATUS_MIX);
+    
+    /** Weights of the number of items per order */
+    @Builder.Default
+    Map<Integer, Integer> itemsPerOrder = parseItemsPerOrder(DEFAULT_ITEMS_PER_ORDER);
+    
+    /** Orders are created uniformly over this many days before the end time */
+    @Builder.Default
+    int days = 365;
+    
+    /** Latest creation time; defaults to the start of today so runs on the same day match */
+    @Builder.Default
+    LocalDateTime endTime = LocalDate.now().atTime(LocalTime.MIDNIGHT);
+    
+    /** Orders per JDBC batch and transaction */
+    @Builder.Default
+    int batchSize = 5_000;
+    
+    /**
+     * Parse a status mix such as "PENDING:10,DELIVERED:90"
+     */
+    public static Map<OrderStatus, Integer> parseStatusMix(String spec) {
+        return WeightedChoice.parseWeights(spec, OrderStatus::valueOf);
+    }
+    
+    /**
+     * Parse item count weights such as "1:60,2:30,3:10"
+     */
+    public static Map<Integer, Integer> parseItemsPerOrder(String spec) {
+        return WeightedChoice.parseWeights(spec, Integer::valueOf);
+    }
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.orderprocessing.datagen;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Bulk-loads deterministic synthetic orders through batched JDBC inserts.
+ * Rows get explicit ids after the current maximum. Every batch is committed together with a
+ * restart of the identity columns past it, so a run that fails halfway leaves the ids of the
+ * committed batches reserved and the application keeps generating ids as usual.
+ * Must not run while the application accepts requests, whose inserts would race for the same ids.
+ */
+@Component
+@Slf4j
+public class SyntheticDataGenerator {
+    
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carol", "David", "Erin", "Frank", "Grace",
+            "Heidi", "Ivan", "Judy", "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil", "Trent", "Victor",
+            "Walter", "Yvonne"};
+    private static final String[] LAST_NAMES = {"Johnson", "Smith", "White", "Brown", "Garcia", "Miller", "Davis",
+            "Wilson", "Moore", "Taylor", "Anderson", "Thomas", "Jackson", "Martin", "Lee", "Thompson", "Clark",
+            "Lewis", "Walker", "Young", "Allen", "King", "Wright", "Scott", "Green"};
+    private static final String[] PRODUCTS = {"Laptop", "Wireless Mouse", "Smartphone", "Headphones", "Monitor",
+            "Keyboard", "Webcam", "Desk Lamp", "Laptop Stand", "USB Hub", "Charger", "Tablet", "Speaker",
+            "External SSD", "Microphone", "Router", "Smartwatch", "Printer", "Office Chair", "HDMI Cable"};
+    private static final BigDecimal[] PRICES = {new BigDecimal("1299.99"), new BigDecimal("29.99"),
+            new BigDecimal("899.99"), new BigDecimal("199.99"), new BigDecimal("349.99"), new BigDecimal("89.99"),
+            new BigDecimal("59.99"), new BigDecimal("34.99"), new BigDecimal("49.99"), new BigDecimal("24.99"),
+            new BigDecimal("19.99"), new BigDecimal("499.99"), new BigDecimal("129.99"), new BigDecimal("149.99"),
+            new BigDecimal("99.99"), new BigDecimal("179.99"), new BigDecimal("299.99"), new BigDecimal("249.99"),
+            new BigDecimal("399.99"), new BigDecimal("14.99")};
+    private static final int MAX_QUANTITY = 3;
+    
+    private final DataSource dataSource;
+    
+    public SyntheticDataGenerator(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+    
+    public GenerationResult generate(GenerationSpec spec) {
+        if (spec.getOrders() < 0 || spec.getCustomers() < 1 || spec.getDays() < 1 || spec.getBatchSize() < 1) {
+            throw new IllegalArgumentException("Invalid generation spec: " + spec);
+        }
+        log.info("Generating {} synthetic orders (seed {}, {} customers, skew {})",
+                spec.getOrders(), spec.getSeed(), spec.getCustomers(), spec.getSkew());
+        long start = System.nanoTime();
+        
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                GenerationResult result = insertOrders(connection, spec, start);
+                connection.setAutoCommit(autoCommit);
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                connection.setAutoCommit(autoCommit);
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Synthetic data generation failed: " + e.getMessage(), e);
+        }
+    }
+    
+    private GenerationResult insertOrders(Connection connection, GenerationSpec spec, long start) throws SQLException {
+        SplittableRandom random = new SplittableRandom(spec.getSeed());
+        ZipfDistribution customers = new ZipfDistribution(spec.getCustomers(), spec.getSkew());
+        ZipfDistribution products = new ZipfDistribution(PRODUCTS.length, spec.getSkew());
+        WeightedChoice<OrderStatus> statuses = new WeightedChoice<>(spec.getStatusMix());
+        WeightedChoice<Integer> itemCounts = new WeightedChoice<>(spec.getItemsPerOrder());
+        long spanSeconds = Duration.ofDays(spec.getDays()).toSeconds();
+        
+        long orderId = nextId(connection, "orders");
+        long itemId = nextId(connection, "order_items");
+        long items = 0;
+        
+        try (PreparedStatement insertOrder = connection.prepareStatement(
+                "insert into orders (id, customer_name, customer_email, status, total_amount, created_at, updated_at) " +
+                "values (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertItem = connection.prepareStatement(
+                     "insert into order_items (id, order_id, product_name, quantity, price) values (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < spec.getOrders(); i++, orderId++) {
+                int itemCount = itemCounts.sample(random);
+                BigDecimal total = BigDecimal.ZERO;
+                for (int item = 0; item < itemCount; item++, itemId++) {
+                    int product = products.sample(random);
+                    int quantity = 1 + random.nextInt(MAX_QUANTITY);
+                    insertItem.setLong(1, itemId);
+                    insertItem.setLong(2, orderId);
+                    insertItem.setString(3, PRODUCTS[product]);
+                    insertItem.setInt(4, quantity);
+                    insertItem.setBigDecimal(5, PRICES[product]);
+                    insertItem.addBatch();
+                    total = total.add(PRICES[product].multiply(BigDecimal.valueOf(quantity)));
+                }
+                items += itemCount;
+                
+                int customer = customers.sample(random);
+                String first = FIRST_NAMES[customer % FIRST_NAMES.length];
+                String last = LAST_NAMES[(customer / FIRST_NAMES.length) % LAST_NAMES.length];
+                OrderStatus status = statuses.sample(random);
+                LocalDateTime createdAt = spec.getEndTime().minusSeconds(1 + random.nextLong(spanSeconds));
+                LocalDateTime updatedAt = status == OrderStatus.PENDING
+                        ? createdAt
+                        : min(createdAt.plusMinutes(1 + random.nextInt(4 * 24 * 60)), spec.getEndTime());
+                
+                insertOrder.setLong(1, orderId);
+                insertOrder.setString(2, first + " " + last);
+                insertOrder.setString(3, (first + "." + last + customer + "@example.com").toLowerCase(Locale.ROOT));
+                insertOrder.setString(4, status.name());
+                insertOrder.setBigDecimal(5, total);
+                insertOrder.setTimestamp(6, Timestamp.valueOf(createdAt));
+                insertOrder.setTimestamp(7, Timestamp.valueOf(updatedAt));
+                insertOrder.addBatch();
+                
+                if ((i + 1) % spec.getBatchSize() == 0) {
+                    flush(connection, insertOrder, insertItem, orderId + 1, itemId);
+                }
+            }
+            flush(connection, insertOrder, insertItem, orderId, itemId);
+        }
+        
+        GenerationResult result = new GenerationResult(spec.getOrders(), items, Duration.ofNanos(System.nanoTime() - start));
+        log.info("Generated {} orders and {} items in {} ms ({} rows/min)", result.getOrders(), result.getItems(),
+                result.getElapsed().toMillis(), Math.round(result.rowsPerMinute()));
+        return result;
+    }
+    
+    /**
+     * Orders go first so the items' foreign keys resolve within the same transaction.
+     * The identities are restarted before the commit, so committed rows never collide with generated ids.
+     */
+    private static void flush(Connection connection, PreparedStatement insertOrder, PreparedStatement insertItem,
+                              long nextOrderId, long nextItemId) throws SQLException {
+        insertOrder.executeBatch();
+        insertItem.executeBatch();
+        restartIdentity(connection, "orders", nextOrderId);
+        restartIdentity(connection, "order_items", nextItemId);
+        connection.commit();
+    }
+    
+    private static long nextId(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+    
+    private static void restartIdentity(Connection connection, String table, long nextId) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + table + " alter column id restart with " + nextId);
+        }
+    }
+    
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.orderprocessing.datagen;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+/**
+ * Picks values according to integer weights, e.g. "DELIVERED:55,SHIPPED:20,PENDING:25"
+ */
+class WeightedChoice<T> {
+    
+    private final List<T> values = new ArrayList<>();
+    private final int[] cumulative;
+    private final int total;
+    
+    WeightedChoice(Map<T, Integer> weights) {
+        cumulative = new int[weights.size()];
+        int sum = 0;
+        for (Map.Entry<T, Integer> entry : weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight for " + entry.getKey());
+            }
+            sum += entry.getValue();
+            cumulative[values.size()] = sum;
+            values.add(entry.getKey());
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        total = sum;
+    }
+    
+    T sample(SplittableRandom random) {
+        int point = random.nextInt(total);
+        for (int i = 0; i < cumulative.length; i++) {
+            if (point < cumulative[i]) {
+                return values.get(i);
+            }
+        }
+        return values.get(values.size() - 1);
+    }
+    
+    /**
+     * Parse "key:weight,key:weight" keeping the declared order, so equal specs sample identically
+     */
+    static <T> Map<T, Integer> parseWeights(String spec, Function<String, T> keyParser) {
+        Map<T, Integer> weights = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] keyAndWeight = part.trim().split(":");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected key:weight but got '" + part.trim() + "'");
+            }
+            weights.put(keyParser.apply(keyAndWeight[0].trim()), Integer.parseInt(keyAndWeight[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.orderprocessing.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Identifies the client of each request for read-your-writes routing.
+ * Uses the X-Client-Id header when present, otherwise the remote address.
+ */
+public class ClientContextFilter extends OncePerRequestFilter {
+    
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        ReadYourWritesTracker.setCurrentClient(StringUtils.hasText(clientId) ? clientId : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesTracker.clearCurrentClient();
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.orderprocessing.datasource;
+
+/**
+ * Lookup keys for the datasources behind ReplicaRoutingDataSource
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
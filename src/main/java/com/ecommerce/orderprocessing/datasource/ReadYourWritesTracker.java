@@ -0,0 +1,59 @@
+package com.ecommerce.orderprocessing.datasource;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Remembers when each client last committed a write, so that its reads
+ * can go to the primary until the replica has had time to catch up
+ */
+public class ReadYourWritesTracker {
+    
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+    private static final int CLEANUP_THRESHOLD = 10_000;
+    
+    private final long freshnessWindowMillis;
+    private final ConcurrentMap<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+    
+    public ReadYourWritesTracker(long freshnessWindowMillis) {
+        this.freshnessWindowMillis = freshnessWindowMillis;
+    }
+    
+    /**
+     * Bind the client issuing the current request to this thread
+     */
+    public static void setCurrentClient(String clientId) {
+        CURRENT_CLIENT.set(clientId);
+    }
+    
+    public static void clearCurrentClient() {
+        CURRENT_CLIENT.remove();
+    }
+    
+    /**
+     * Record that the current client has just committed a write
+     */
+    public void recordWrite() {
+        String clientId = CURRENT_CLIENT.get();
+        if (clientId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWriteAt.put(clientId, now);
+        if (lastWriteAt.size() > CLEANUP_THRESHOLD) {
+            lastWriteAt.values().removeIf(writtenAt -> now - writtenAt > freshnessWindowMillis);
+        }
+    }
+    
+    /**
+     * Check if the current client wrote recently enough that the replica may not have its changes yet
+     */
+    public boolean mustReadFromPrimary() {
+        String clientId = CURRENT_CLIENT.get();
+        if (clientId == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteAt.get(clientId);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt <= freshnessWindowMillis;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.orderprocessing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Per-order outcomes of a bulk status update, in request order")
+public class BulkStatusUpdateResponse {
+    
+    @Schema(description = "Number of entries in the request", example = "3")
+    private int requested;
+    
+    @Schema(description = "Number of orders whose status was changed", example = "2")
+    private int updated;
+    
+    @Schema(description = "Number of entries that were not applied", example = "1")
+    private int rejected;
+    
+    private List<StatusUpdateResult> results;
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.orderprocessing.dto;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Criteria of an order filter; every criterion left null matches all orders
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderFilter {
+    
+    /** Any of these statuses */
+    private Set<OrderStatus> statuses;
+    
+    /** Created at or after this time */
+    private LocalDateTime createdFrom;
+    
+    /** Created before this time */
+    private LocalDateTime createdTo;
+    
+    /** Total amount at least this much */
+    private BigDecimal minAmount;
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.orderprocessing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "One page of filtered orders, oldest first")
+public class OrderFilterResponse {
+    
+    @Schema(description = "Page size", example = "20")
+    private int size;
+    
+    @Schema(description = "Whether another page of results exists", example = "true")
+    private boolean hasNext;
+    
+    @Schema(description = "Cursor to pass as 'cursor' for the next page, absent on the last page",
+            example = "MjAyNS0xMC0yNFQxMDozMDowMHw0Mg")
+    private String nextCursor;
+    
+    @Schema(description = "Matching orders")
+    private List<OrderResponse> results;
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.orderprocessing.dto;
 
 import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,6 +16,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 @Schema(description = "Order response with complete order details")
 public class OrderResponse {
     
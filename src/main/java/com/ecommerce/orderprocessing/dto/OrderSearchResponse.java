@@ -0,0 +1,36 @@
+package com.ecommerce.orderprocessing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "One page of order search results, newest orders first")
+public class OrderSearchResponse {
+    
+    @Schema(description = "Search query", example = "alice lap")
+    private String query;
+    
+    @Schema(description = "Zero-based page number", example = "0")
+    private int page;
+    
+    @Schema(description = "Page size", example = "20")
+    private int size;
+    
+    @Schema(description = "Whether another page of results exists", example = "false")
+    private boolean hasNext;
+    
+    @Schema(description = "Whether a query word matched too many terms to search them all, so results may be missing; "
+            + "use longer words to narrow it", example = "false")
+    private boolean truncated;
+    
+    @Schema(description = "Matching orders")
+    private List<OrderResponse> results;
+}
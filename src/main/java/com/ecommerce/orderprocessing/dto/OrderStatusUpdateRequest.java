@@ -0,0 +1,23 @@
+package com.ecommerce.orderprocessing.dto;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "New status for one order in a bulk update")
+public class OrderStatusUpdateRequest {
+    
+    @Schema(description = "Order ID", example = "1", required = true)
+    private Long id;
+    
+    @Schema(description = "New order status", example = "SHIPPED", required = true)
+    private OrderStatus status;
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.orderprocessing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Units sold and revenue for one product in one time bucket")
+public class ProductSalesBucketResponse {
+    
+    @Schema(description = "Start of the time bucket", example = "2025-10-24T00:00:00")
+    private LocalDateTime bucketStart;
+    
+    @Schema(description = "Product name", example = "Laptop")
+    private String productName;
+    
+    @Schema(description = "Units sold", example = "7")
+    private long units;
+    
+    @Schema(description = "Revenue (price x quantity)", example = "9099.93")
+    private BigDecimal revenue;
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.orderprocessing.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Units sold and revenue for one product")
+public class ProductSalesResponse {
+    
+    @Schema(description = "Product name", example = "Laptop")
+    private String productName;
+    
+    @Schema(description = "Units sold", example = "42")
+    private long units;
+    
+    @Schema(description = "Revenue (price x quantity)", example = "54599.58")
+    private BigDecimal revenue;
+}
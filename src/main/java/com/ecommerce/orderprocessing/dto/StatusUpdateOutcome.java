@@ -0,0 +1,16 @@
+package com.ecommerce.orderprocessing.dto;
+
+/**
+ * Result of one entry of a bulk status update
+ */
+public enum StatusUpdateOutcome {
+    UPDATED,
+    NOT_FOUND,
+    INVALID_TRANSITION,
+    /** The order changed status after it was checked and was left alone */
+    CONFLICT,
+    /** The same order appeared earlier in the request */
+    DUPLICATE,
+    /** The entry is missing its id or status */
+    INVALID_REQUEST
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.orderprocessing.dto;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of the status update of one order")
+public class StatusUpdateResult {
+    
+    @Schema(description = "Order ID", example = "1")
+    private Long id;
+    
+    @Schema(description = "Requested status", example = "SHIPPED")
+    private OrderStatus status;
+    
+    @Schema(description = "Status before the update, if the order exists", example = "PROCESSING")
+    private OrderStatus previousStatus;
+    
+    @Schema(description = "What happened to this entry", example = "UPDATED")
+    private StatusUpdateOutcome outcome;
+    
+    @Schema(description = "Why the entry was not applied", example = "SHIPPED orders can only move to DELIVERED")
+    private String message;
+}
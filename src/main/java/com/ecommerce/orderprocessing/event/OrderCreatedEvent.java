@@ -0,0 +1,51 @@
+package com.ecommerce.orderprocessing.event;
+
+import com.ecommerce.orderprocessing.model.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by OrderService when a new order has been saved.
+ * Carries a copy of the fields listeners need, never the entity itself.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderCreatedEvent {
+    
+    private final Long orderId;
+    private final LocalDateTime createdAt;
+    private final String customerName;
+    private final String customerEmail;
+    private final List<Line> lines;
+    
+    public static OrderCreatedEvent of(Order order) {
+        return new OrderCreatedEvent(
+                order.getId(),
+                order.getCreatedAt(),
+                order.getCustomerName(),
+                order.getCustomerEmail(),
+                order.getItems().stream()
+                        .map(item -> new Line(item.getProductName(), item.getQuantity(), item.getPrice()))
+                        .toList());
+    }
+    
+    public List<String> getProductNames() {
+        return lines.stream().map(Line::getProductName).toList();
+    }
+    
+    /**
+     * One order item as it was at creation time
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Line {
+        
+        private final String productName;
+        private final int quantity;
+        private final BigDecimal price;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.orderprocessing.event;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published by SlaWatchdog when an order has stayed in a status longer than its SLA allows.
+ * Published once per order and status; the order is checked again only after it changes status.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderSlaBreachedEvent {
+    
+    private final Long orderId;
+    private final OrderStatus status;
+    private final LocalDateTime since;
+    private final LocalDateTime deadline;
+}
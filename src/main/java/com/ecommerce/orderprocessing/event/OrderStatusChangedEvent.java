@@ -0,0 +1,27 @@
+package com.ecommerce.orderprocessing.event;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published by OrderService when orders have moved from one status to another.
+ * Bulk paths publish one event per (previous status, new status) pair instead of one per order.
+ */
+@Getter
+@RequiredArgsConstructor
+public class OrderStatusChangedEvent {
+    
+    private final List<Long> orderIds;
+    private final OrderStatus previousStatus;
+    private final OrderStatus status;
+    private final LocalDateTime changedAt;
+    
+    public static OrderStatusChangedEvent of(Long orderId, OrderStatus previousStatus, OrderStatus status,
+                                             LocalDateTime changedAt) {
+        return new OrderStatusChangedEvent(List.of(orderId), previousStatus, status, changedAt);
+    }
+}
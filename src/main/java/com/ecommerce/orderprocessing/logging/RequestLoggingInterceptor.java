@@ -0,0 +1,85 @@
+package com.ecommerce.orderprocessing.logging;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One structured log line per API request, carrying the order id and latency as fields.
+ * Requests are logged at DEBUG; only every sampleRate-th request, slow requests and server
+ * errors are logged at INFO, so steady traffic costs one sampled line instead of one per call.
+ * The order id goes in the MDC while the request runs, so this line and any other logged by the
+ * request carry it; it is not repeated as a key-value field, which JSON layouts would reject as a duplicate.
+ */
+@Slf4j
+public class RequestLoggingInterceptor implements HandlerInterceptor {
+    
+    public static final String ORDER_ID_KEY = "orderId";
+    
+    private static final String START_ATTRIBUTE = RequestLoggingInterceptor.class.getName() + ".start";
+    
+    private final int sampleRate;
+    private final long slowRequestMs;
+    private final AtomicLong requestCount = new AtomicLong();
+    
+    public RequestLoggingInterceptor(int sampleRate, long slowRequestMs) {
+        this.sampleRate = sampleRate;
+        this.slowRequestMs = slowRequestMs;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        String orderId = orderId(request);
+        if (orderId != null) {
+            MDC.put(ORDER_ID_KEY, orderId);
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        try {
+            Object start = request.getAttribute(START_ATTRIBUTE);
+            if (start == null) {
+                return;
+            }
+            long latencyMs = (System.nanoTime() - (Long) start) / 1_000_000;
+            Level level = levelFor(response.getStatus(), latencyMs);
+            if (!log.isEnabledForLevel(level)) {
+                return;
+            }
+            log.atLevel(level)
+                    .addKeyValue("method", request.getMethod())
+                    .addKeyValue("path", request.getRequestURI())
+                    .addKeyValue("status", response.getStatus())
+                    .addKeyValue("latencyMs", latencyMs)
+                    .log("{} {} -> {} in {} ms", request.getMethod(), request.getRequestURI(),
+                            response.getStatus(), latencyMs);
+        } finally {
+            MDC.remove(ORDER_ID_KEY);
+        }
+    }
+    
+    Level levelFor(int status, long latencyMs) {
+        boolean sampled = sampleRate > 0 && requestCount.incrementAndGet() % sampleRate == 0;
+        if (sampled || status >= 500 || latencyMs >= slowRequestMs) {
+            return Level.INFO;
+        }
+        return Level.DEBUG;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static String orderId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map ? ((Map<String, String>) variables).get("id") : null;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.orderprocessing.mapper;
+
+import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields of OrderResponse that a client can select with the fields parameter
+ */
+public enum OrderField {
+    ID("id"),
+    CUSTOMER_NAME("customerName"),
+    CUSTOMER_EMAIL("customerEmail"),
+    STATUS("status"),
+    ITEMS("items"),
+    TOTAL_AMOUNT("totalAmount"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+    
+    public static final Set<OrderField> ALL = Collections.unmodifiableSet(EnumSet.allOf(OrderField.class));
+    
+    private final String jsonName;
+    
+    OrderField(String jsonName) {
+        this.jsonName = jsonName;
+    }
+    
+    public String getJsonName() {
+        return jsonName;
+    }
+    
+    /**
+     * Parse a comma-separated list of JSON field names such as "id,status,totalAmount".
+     * No list selects every field.
+     */
+    public static Set<OrderField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<OrderField> selected = EnumSet.noneOf(OrderField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidOrderOperationException(
+                            "Unknown field: " + trimmed + ". Allowed fields: " + Arrays.stream(values())
+                                    .map(OrderField::getJsonName)
+                                    .collect(Collectors.joining(",")))));
+        }
+        return selected.isEmpty() ? ALL : selected;
+    }
+}
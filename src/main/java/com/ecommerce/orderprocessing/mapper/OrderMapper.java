@@ -8,6 +8,7 @@ import com.ecommerce.orderprocessing.model.Order;
 import com.ecommerce.orderprocessing.model.OrderItem;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -59,6 +60,44 @@ public class OrderMapper {
                 .build();
     }
     
+    /**
+     * Convert Order entity to an OrderResponse with only the selected fields set.
+     * Unselected fields stay null and are left out of the JSON; items are not loaded unless selected.
+     */
+    public OrderResponse toResponse(Order order, Set<OrderField> fields) {
+        if (fields.containsAll(OrderField.ALL)) {
+            return toResponse(order);
+        }
+        OrderResponse.OrderResponseBuilder response = OrderResponse.builder();
+        if (fields.contains(OrderField.ID)) {
+            response.id(order.getId());
+        }
+        if (fields.contains(OrderField.CUSTOMER_NAME)) {
+            response.customerName(order.getCustomerName());
+        }
+        if (fields.contains(OrderField.CUSTOMER_EMAIL)) {
+            response.customerEmail(order.getCustomerEmail());
+        }
+        if (fields.contains(OrderField.STATUS)) {
+            response.status(order.getStatus());
+        }
+        if (fields.contains(OrderField.ITEMS)) {
+            response.items(order.getItems().stream()
+                    .map(this::toItemResponse)
+                    .collect(Collectors.toList()));
+        }
+        if (fields.contains(OrderField.TOTAL_AMOUNT)) {
+            response.totalAmount(order.getTotalAmount());
+        }
+        if (fields.contains(OrderField.CREATED_AT)) {
+            response.createdAt(order.getCreatedAt());
+        }
+        if (fields.contains(OrderField.UPDATED_AT)) {
+            response.updatedAt(order.getUpdatedAt());
+        }
+        return response.build();
+    }
+    
     /**
      * Convert OrderItem entity to OrderItemResponse
      */
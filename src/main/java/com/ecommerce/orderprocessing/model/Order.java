@@ -5,8 +5,13 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -19,8 +24,14 @@ import java.util.List;
  * Entity representing a customer order
  */
 @Entity
-@Table(name = "orders")
-@Data
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at", columnList = "created_at"),
+        @Index(name = "idx_orders_status_created_at", columnList = "status, created_at")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orders")
+@Getter
+@Setter
+@ToString(exclude = "items")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -43,6 +54,7 @@ public class Order {
     private OrderStatus status = OrderStatus.PENDING;
     
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orders.items")
     @NotEmpty(message = "Order must contain at least one item")
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
@@ -75,10 +87,41 @@ public class Order {
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
+    /**
+     * Check if the order has reached a final status and can no longer change status
+     */
+    public boolean isSettled() {
+        return this.status == OrderStatus.DELIVERED
+                || this.status == OrderStatus.CANCELLED;
+    }
+    
     /**
      * Check if the order can be cancelled
      */
     public boolean canBeCancelled() {
         return this.status == OrderStatus.PENDING;
     }
+    
+    /**
+     * Entities are equal when they share a database id; transient instances only equal themselves
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        Long otherId = ((Order) o).getId();
+        return id != null && id.equals(otherId);
+    }
+    
+    /**
+     * Constant per class so the hash survives the id being assigned on persist
+     */
+    @Override
+    public int hashCode() {
+        return Order.class.hashCode();
+    }
 }
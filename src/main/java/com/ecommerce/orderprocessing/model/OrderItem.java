@@ -7,8 +7,13 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -17,7 +22,10 @@ import java.math.BigDecimal;
  */
 @Entity
 @Table(name = "order_items")
-@Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order-items")
+@Getter
+@Setter
+@ToString(exclude = "order")
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -52,4 +60,27 @@ public class OrderItem {
     public BigDecimal getSubtotal() {
         return price.multiply(BigDecimal.valueOf(quantity));
     }
+    
+    /**
+     * Entities are equal when they share a database id; transient instances only equal themselves
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        Long otherId = ((OrderItem) o).getId();
+        return id != null && id.equals(otherId);
+    }
+    
+    /**
+     * Constant per class so the hash survives the id being assigned on persist
+     */
+    @Override
+    public int hashCode() {
+        return OrderItem.class.hashCode();
+    }
 }
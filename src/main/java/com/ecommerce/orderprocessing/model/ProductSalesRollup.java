@@ -0,0 +1,32 @@
+package com.ecommerce.orderprocessing.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Units and revenue booked per product per day, maintained as orders are created.
+ * Written with set-based SQL by ProductSalesRepository; mapped here so the schema is managed with the other tables.
+ */
+@Entity
+@Table(name = "product_sales_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesRollup {
+    
+    @EmbeddedId
+    private ProductSalesRollupId id;
+    
+    @Column(nullable = false)
+    private Long units;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+}
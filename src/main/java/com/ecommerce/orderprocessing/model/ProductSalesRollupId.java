@@ -0,0 +1,26 @@
+package com.ecommerce.orderprocessing.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite key of a daily product sales rollup row
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSalesRollupId implements Serializable {
+    
+    @Column(nullable = false)
+    private LocalDate bucketDate;
+    
+    @Column(nullable = false)
+    private String productName;
+}
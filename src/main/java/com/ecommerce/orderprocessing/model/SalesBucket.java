@@ -0,0 +1,11 @@
+package com.ecommerce.orderprocessing.model;
+
+/**
+ * Time granularity for product sales aggregation
+ */
+public enum SalesBucket {
+    HOUR,
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.orderprocessing.model;
+
+/**
+ * Measure used to rank products in top-N sales queries
+ */
+public enum SalesRanking {
+    REVENUE,
+    UNITS
+}
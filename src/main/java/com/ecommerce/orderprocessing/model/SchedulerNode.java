@@ -0,0 +1,29 @@
+package com.ecommerce.orderprocessing.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing a live application node taking part in scheduled order processing
+ */
+@Entity
+@Table(name = "scheduler_nodes")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerNode {
+    
+    @Id
+    @Column(length = 64)
+    private String nodeId;
+    
+    @Column(nullable = false)
+    private LocalDateTime heartbeatAt;
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.orderprocessing.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one call of a public OrderService method, including its transaction.
+ * Shown under "Order Processing" in JDK Mission Control, or read with
+ * jfr print --events com.ecommerce.orderprocessing.OrderOperation recording.jfr
+ */
+@Name(OrderOperationEvent.NAME)
+@Label("Order Operation")
+@Category("Order Processing")
+@Description("A call of an OrderService method with the bytes it allocated")
+@StackTrace(false)
+public class OrderOperationEvent extends Event {
+    
+    public static final String NAME = "com.ecommerce.orderprocessing.OrderOperation";
+    
+    @Label("Operation")
+    String operation;
+    
+    @Label("Order ID")
+    @Description("ID of the order when the first argument is one, otherwise 0")
+    long orderId;
+    
+    @Label("Exception")
+    @Description("Class of the exception thrown, or null when the call succeeded")
+    String exception;
+    
+    @Label("Allocated")
+    @Description("Bytes allocated on the calling thread during the call")
+    @DataAmount
+    long allocated;
+}
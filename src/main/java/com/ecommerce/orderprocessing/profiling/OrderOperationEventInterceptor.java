@@ -0,0 +1,45 @@
+package com.ecommerce.orderprocessing.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Records an OrderOperationEvent around each intercepted call.
+ * While no recording has the event enabled this costs one volatile read and the call goes
+ * straight through; the thread's allocation counter is only read when the event is enabled.
+ */
+class OrderOperationEventInterceptor implements MethodInterceptor {
+    
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        OrderOperationEvent event = new OrderOperationEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        Throwable failure = null;
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        event.begin();
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            event.end();
+            if (event.shouldCommit()) {
+                Object[] arguments = invocation.getArguments();
+                event.operation = invocation.getMethod().getName();
+                event.orderId = arguments.length > 0 && arguments[0] instanceof Long id ? id : 0;
+                event.exception = failure == null ? null : failure.getClass().getSimpleName();
+                event.allocated = allocated;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.orderprocessing.profiling;
+
+import com.ecommerce.orderprocessing.service.OrderService;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Adds the OrderOperationEvent interceptor to the public methods of OrderService.
+ * It goes in front of the transaction interceptor, so events include the commit.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.jfr.events.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderOperationEventPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    
+    public OrderOperationEventPostProcessor() {
+        StaticMethodMatcher publicMethods = new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return method.getDeclaringClass() == OrderService.class && Modifier.isPublic(method.getModifiers());
+            }
+        };
+        this.advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(new RootClassFilter(OrderService.class), publicMethods),
+                new OrderOperationEventInterceptor());
+        setBeforeExistingAdvisors(true);
+    }
+}
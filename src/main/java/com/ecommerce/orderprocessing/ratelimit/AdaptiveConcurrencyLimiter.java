@@ -0,0 +1,100 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to latency, in the style of the gradient algorithm from Netflix's
+ * concurrency-limits: a long-term average RTT is compared with recent samples, and while
+ * requests get slower than the long-term average allows (queueing in the connection pool or the
+ * database), the limit shrinks; when they are not slower it grows by a small queue allowance.
+ * Admission is a lock-free counter check; only limit updates synchronize.
+ */
+public class AdaptiveConcurrencyLimiter {
+    
+    /** How much slower than the long-term RTT a sample may be before the limit shrinks */
+    private static final double RTT_TOLERANCE = 1.5;
+    /** Weight of a new limit estimate */
+    private static final double SMOOTHING = 0.2;
+    /** Number of samples the long-term RTT averages over */
+    private static final int LONG_WINDOW = 600;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private volatile int limit;
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long samples;
+    
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+    
+    /**
+     * Admit a request if fewer than the current limit are in flight.
+     * Every admitted request must be followed by exactly one {@link #release}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Finish an admitted request
+     * @param rttNanos how long it took
+     * @param measured false for requests whose latency says nothing about load (e.g. client errors)
+     */
+    public void release(long rttNanos, boolean measured) {
+        int inFlightAtEnd = inFlight.getAndDecrement();
+        if (measured && rttNanos > 0) {
+            update(rttNanos, inFlightAtEnd);
+        }
+    }
+    
+    private synchronized void update(long rttNanos, int inFlightAtEnd) {
+        samples++;
+        if (samples == 1) {
+            longRttNanos = rttNanos;
+        } else {
+            double alpha = 1.0 / Math.min(samples, LONG_WINDOW);
+            longRttNanos += (rttNanos - longRttNanos) * alpha;
+        }
+        // Let the long-term average recover quickly after latency drops again
+        if (longRttNanos > rttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+        
+        // Do not grow while the limit is not even being used
+        if (inFlightAtEnd < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / rttNanos));
+        double queueAllowance = Math.sqrt(estimatedLimit);
+        double newLimit = estimatedLimit * gradient + queueAllowance;
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
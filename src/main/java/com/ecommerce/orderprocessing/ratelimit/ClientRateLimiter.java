@@ -0,0 +1,70 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Token buckets per client and endpoint class.
+ * Full buckets carry no state, so a background sweep drops them. At most maxBuckets are tracked:
+ * while the map is full, clients without a bucket of their own share one overflow bucket per
+ * endpoint class, so a flood of distinct clients neither grows memory nor escapes the limit.
+ */
+public class ClientRateLimiter {
+    
+    private final Map<EndpointClass, Limit> limits;
+    private final int maxBuckets;
+    private final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EndpointClass, TokenBucket> overflowBuckets = new ConcurrentHashMap<>();
+    
+    public ClientRateLimiter(Map<EndpointClass, Limit> limits, int maxBuckets) {
+        this.limits = Map.copyOf(limits);
+        this.maxBuckets = maxBuckets;
+    }
+    
+    /**
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it would be allowed
+     */
+    public long tryAcquire(String clientId, EndpointClass endpoint, long nowNanos) {
+        Limit limit = limits.get(endpoint);
+        if (limit == null) {
+            return 0;
+        }
+        String key = endpoint.name() + '|' + clientId;
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.size() >= maxBuckets
+                    ? overflowBuckets.computeIfAbsent(endpoint, ignored -> newBucket(limit, nowNanos))
+                    : buckets.computeIfAbsent(key, ignored -> newBucket(limit, nowNanos));
+        }
+        return bucket.tryAcquire(nowNanos);
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.rate-limit.sweep-interval-ms:10000}")
+    public void sweep() {
+        sweep(System.nanoTime());
+    }
+    
+    /**
+     * Drop the buckets that have refilled completely
+     */
+    void sweep(long nowNanos) {
+        buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+    }
+    
+    int trackedBuckets() {
+        return buckets.size();
+    }
+    
+    private static TokenBucket newBucket(Limit limit, long nowNanos) {
+        return new TokenBucket(limit.ratePerSecond(), limit.burst(), nowNanos);
+    }
+    
+    /**
+     * Sustained requests per second and burst size for one endpoint class
+     */
+    public record Limit(double ratePerSecond, int burst) {
+    }
+}
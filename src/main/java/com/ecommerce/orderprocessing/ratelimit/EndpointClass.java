@@ -0,0 +1,28 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+/**
+ * Groups API endpoints that share a rate limit
+ */
+public enum EndpointClass {
+    
+    /** POST /api/orders */
+    CREATE,
+    
+    /** Listing, search and analytics queries that can scan many rows */
+    LIST,
+    
+    /** Everything else: reads and updates of a single order */
+    DEFAULT;
+    
+    public static EndpointClass of(String method, String path) {
+        if ("POST".equals(method) && ("/api/orders".equals(path) || "/api/orders/".equals(path))) {
+            return CREATE;
+        }
+        if ("GET".equals(method) && ("/api/orders".equals(path) || "/api/orders/".equals(path)
+                || path.startsWith("/api/orders/search") || path.startsWith("/api/orders/filter")
+                || path.startsWith("/api/analytics/"))) {
+            return LIST;
+        }
+        return DEFAULT;
+    }
+}
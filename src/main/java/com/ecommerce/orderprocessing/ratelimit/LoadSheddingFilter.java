@@ -0,0 +1,111 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import com.ecommerce.orderprocessing.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects API requests early instead of letting them queue for database connections.
+ * A client, identified by its authenticated principal or else its remote address, over its rate
+ * for an endpoint class gets 429; when the adaptive concurrency limit is reached everyone gets 503. Both carry Retry-After, and both are answered before any work is done,
+ * so the requests that are admitted keep a stable latency.
+ * Either limiter may be null to disable it.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+    
+    private static final int RETRY_AFTER_OVERLOADED_SECONDS = 1;
+    
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final ObjectMapper objectMapper;
+    private final Counter rateLimited;
+    private final Counter shed;
+    
+    public LoadSheddingFilter(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.objectMapper = objectMapper;
+        this.rateLimited = meterRegistry.counter("orders.requests.rejected", "reason", "rate-limit");
+        this.shed = meterRegistry.counter("orders.requests.rejected", "reason", "overload");
+        if (concurrencyLimiter != null) {
+            meterRegistry.gauge("orders.requests.concurrency-limit", concurrencyLimiter,
+                    AdaptiveConcurrencyLimiter::getLimit);
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (rateLimiter != null) {
+            EndpointClass endpoint = EndpointClass.of(request.getMethod(), request.getRequestURI());
+            long waitNanos = rateLimiter.tryAcquire(clientId(request), endpoint, System.nanoTime());
+            if (waitNanos > 0) {
+                rateLimited.increment();
+                reject(request, response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos),
+                        "Rate limit exceeded for " + endpoint.name().toLowerCase() + " requests");
+                return;
+            }
+        }
+        if (concurrencyLimiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            shed.increment();
+            reject(request, response, HttpStatus.SERVICE_UNAVAILABLE, RETRY_AFTER_OVERLOADED_SECONDS,
+                    "Server is overloaded, please retry");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean measured = false;
+        try {
+            filterChain.doFilter(request, response);
+            // Client errors return early and say nothing about server load
+            measured = response.getStatus() < 400 || response.getStatus() >= 500;
+        } finally {
+            concurrencyLimiter.release(System.nanoTime() - start, measured);
+        }
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(LocalDateTime.now(), status.value(),
+                status.getReasonPhrase(), message, request.getRequestURI()));
+    }
+    
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+    
+    /**
+     * The authenticated principal, otherwise the remote address. The X-Client-Id header is not used:
+     * it is chosen by the caller, who could send a new value with every request to get a fresh bucket.
+     */
+    private static String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "principal:" + principal.getName() : request.getRemoteAddr();
+    }
+}
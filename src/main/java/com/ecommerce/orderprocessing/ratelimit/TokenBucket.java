@@ -0,0 +1,51 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm: the whole state is the
+ * theoretical arrival time of the next request, so taking a token is a single compare-and-set.
+ * A bucket allows ratePerSecond requests per second on average with bursts of up to burst requests.
+ */
+public class TokenBucket {
+    
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+    
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (NANOS_PER_SECOND / ratePerSecond));
+        this.burstToleranceNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+    
+    /**
+     * Take a token if one is available
+     * @return 0 if the request is allowed, otherwise the nanoseconds until a token will be available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + intervalNanos;
+            long waitNanos = next - nowNanos - burstToleranceNanos - intervalNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * A bucket that has refilled completely behaves like a new one and can be dropped
+     */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ecommerce.orderprocessing.reconciliation;
+
+import com.ecommerce.orderprocessing.cache.OrderResponseCache;
+import com.ecommerce.orderprocessing.repository.OrderReconciliationRepository;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verifies that every order's stored total still equals the sum of its items.
+ * The id space is split into fixed partitions that a fork-join pool checks in parallel, each in
+ * its own short transaction that also records a checkpoint, so writes through OrderService are
+ * never blocked for longer than a single-row repair and an interrupted run resumes where it stopped.
+ */
+@Component
+@Slf4j
+public class OrderReconciliationJob {
+    
+    private static final int MAX_SAMPLES = 100;
+    
+    private final OrderReconciliationRepository reconciliationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderResponseCache orderResponseCache;
+    private final int parallelism;
+    private final int partitionSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    public OrderReconciliationJob(OrderReconciliationRepository reconciliationRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  OrderRepository orderRepository,
+                                  OrderResponseCache orderResponseCache,
+                                  @Value("${orders.reconciliation.parallelism:4}") int parallelism,
+                                  @Value("${orders.reconciliation.partition-size:10000}") int partitionSize) {
+        if (parallelism < 1 || partitionSize < 1) {
+            throw new IllegalArgumentException("Reconciliation parallelism and partition size must be positive");
+        }
+        this.reconciliationRepository = reconciliationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderRepository = orderRepository;
+        this.orderResponseCache = orderResponseCache;
+        this.parallelism = parallelism;
+        this.partitionSize = partitionSize;
+    }
+    
+    /**
+     * Check all orders that existed when the run started, resuming an unfinished run in the same mode
+     * @param repair whether to correct mismatching totals or only report them
+     */
+    public ReconciliationReport reconcile(boolean repair) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("Order reconciliation is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            // Run bookkeeping goes through the transaction manager too, so it is committed even
+            // when the pool hands out connections with auto-commit disabled
+            ReconciliationRun run = transactionTemplate.execute(status -> reconciliationRepository
+                    .findUnfinishedRun(repair)
+                    .orElseGet(() -> startRun(repair)));
+            Set<Long> checkpointed = transactionTemplate.execute(status ->
+                    reconciliationRepository.findCheckpointedPartitions(run.getId()));
+            if (!checkpointed.isEmpty()) {
+                log.info("Resuming reconciliation run {} with {} of {} partitions already checked",
+                        run.getId(), checkpointed.size(), run.partitionCount());
+            }
+            
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            PartitionResult result;
+            try {
+                result = pool.invoke(new RangeTask(run, checkpointed, 0, run.partitionCount()));
+            } finally {
+                pool.shutdown();
+            }
+            transactionTemplate.executeWithoutResult(status ->
+                    reconciliationRepository.finishRun(run.getId(), LocalDateTime.now()));
+            
+            ReconciliationReport report = new ReconciliationReport(run.getId(), repair, run.partitionCount(),
+                    checkpointed.size(), result.ordersChecked, result.mismatches, result.repaired,
+                    List.copyOf(result.samples), Duration.ofNanos(System.nanoTime() - start));
+            log.info("Reconciliation run {} checked {} orders in {} ms: {} mismatches, {} repaired",
+                    run.getId(), report.getOrdersChecked(), report.getElapsed().toMillis(),
+                    report.getMismatches(), report.getRepaired());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private ReconciliationRun startRun(boolean repair) {
+        Long firstId = reconciliationRepository.findMinId();
+        Long lastId = reconciliationRepository.findMaxId();
+        if (firstId == null || lastId == null) {
+            return reconciliationRepository.createRun(repair, partitionSize, 1, 0, LocalDateTime.now());
+        }
+        return reconciliationRepository.createRun(repair, partitionSize, firstId, lastId, LocalDateTime.now());
+    }
+    
+    /**
+     * Check one partition and record its checkpoint in the same transaction
+     */
+    private PartitionResult checkPartition(ReconciliationRun run, int partition) {
+        long fromId = run.partitionStart(partition);
+        long toId = run.partitionEnd(partition);
+        return transactionTemplate.execute(status -> {
+            PartitionResult result = new PartitionResult();
+            result.ordersChecked = reconciliationRepository.countOrders(fromId, toId);
+            List<TotalMismatch> mismatches = reconciliationRepository.findMismatches(fromId, toId);
+            LocalDateTime now = LocalDateTime.now();
+            for (TotalMismatch mismatch : mismatches) {
+                log.warn("Order {} total is {} but its items add up to {}", mismatch.getOrderId(),
+                        mismatch.getStoredTotal(), mismatch.getComputedTotal());
+                if (run.isRepair() && reconciliationRepository.repairTotal(mismatch, now)) {
+                    result.repaired++;
+                    result.repairedOrderIds.add(mismatch.getOrderId());
+                }
+                if (result.samples.size() < MAX_SAMPLES) {
+                    result.samples.add(mismatch);
+                }
+            }
+            result.mismatches = mismatches.size();
+            // Repairs bypass Hibernate; the cached orders stay locked until this transaction completes
+            orderRepository.evictCachedOrders(result.repairedOrderIds);
+            reconciliationRepository.saveCheckpoint(run.getId(), fromId, toId, result.ordersChecked,
+                    mismatches.size(), (int) result.repaired, now);
+            return result;
+        });
+    }
+    
+    /**
+     * Drop the encoded responses of repaired orders once the repair is committed. Other nodes
+     * notice the new updatedAt on their next read and re-encode the order there.
+     */
+    private void evictRepaired(List<Long> orderIds) {
+        orderIds.forEach(orderResponseCache::evict);
+    }
+    
+    private class RangeTask extends RecursiveTask<PartitionResult> {
+        
+        private final ReconciliationRun run;
+        private final Set<Long> checkpointed;
+        private final int fromPartition;
+        private final int toPartition;
+        
+        RangeTask(ReconciliationRun run, Set<Long> checkpointed, int fromPartition, int toPartition) {
+            this.run = run;
+            this.checkpointed = checkpointed;
+            this.fromPartition = fromPartition;
+            this.toPartition = toPartition;
+        }
+        
+        @Override
+        protected PartitionResult compute() {
+            if (toPartition - fromPartition > 1) {
+                int middle = (fromPartition + toPartition) >>> 1;
+                RangeTask left = new RangeTask(run, checkpointed, fromPartition, middle);
+                left.fork();
+                PartitionResult right = new RangeTask(run, checkpointed, middle, toPartition).compute();
+                return left.join().merge(right);
+            }
+            if (fromPartition == toPartition || checkpointed.contains(run.partitionStart(fromPartition))) {
+                return new PartitionResult();
+            }
+            PartitionResult result = checkPartition(run, fromPartition);
+            evictRepaired(result.repairedOrderIds);
+            return result;
+        }
+    }
+    
+    private static class PartitionResult {
+        
+        private long ordersChecked;
+        private long mismatches;
+        private long repaired;
+        private final List<TotalMismatch> samples = new ArrayList<>();
+        /** Only kept for the partition itself, to evict the repaired orders after commit */
+        private final List<Long> repairedOrderIds = new ArrayList<>();
+        
+        PartitionResult merge(PartitionResult other) {
+            ordersChecked += other.ordersChecked;
+            mismatches += other.mismatches;
+            repaired += other.repaired;
+            int room = Math.max(0, MAX_SAMPLES - samples.size());
+            samples.addAll(other.samples.subList(0, Math.min(other.samples.size(), room)));
+            return this;
+        }
+    }
+}
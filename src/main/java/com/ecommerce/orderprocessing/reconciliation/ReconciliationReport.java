@@ -0,0 +1,26 @@
+package com.ecommerce.orderprocessing.reconciliation;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one reconciliation pass.
+ * Counts cover the partitions checked by this pass; partitions already checkpointed by an
+ * interrupted earlier pass of the same run are only counted in resumedPartitions.
+ */
+@Value
+public class ReconciliationReport {
+    
+    long runId;
+    boolean repair;
+    int partitions;
+    int resumedPartitions;
+    long ordersChecked;
+    long mismatches;
+    long repaired;
+    /** The first mismatches found, for the log and for inspection */
+    List<TotalMismatch> samples;
+    Duration elapsed;
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.orderprocessing.reconciliation;
+
+import lombok.Value;
+
+/**
+ * A reconciliation pass over the orders with ids in [firstOrderId, lastOrderId],
+ * checked in partitions of partitionSize ids
+ */
+@Value
+public class ReconciliationRun {
+    
+    long id;
+    boolean repair;
+    int partitionSize;
+    long firstOrderId;
+    long lastOrderId;
+    
+    public int partitionCount() {
+        if (lastOrderId < firstOrderId) {
+            return 0;
+        }
+        return Math.toIntExact((lastOrderId - firstOrderId) / partitionSize + 1);
+    }
+    
+    public long partitionStart(int partition) {
+        return firstOrderId + (long) partition * partitionSize;
+    }
+    
+    /**
+     * Exclusive upper id of a partition
+     */
+    public long partitionEnd(int partition) {
+        return Math.min(partitionStart(partition) + partitionSize, lastOrderId + 1);
+    }
+}
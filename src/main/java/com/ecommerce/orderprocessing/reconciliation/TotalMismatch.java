@@ -0,0 +1,16 @@
+package com.ecommerce.orderprocessing.reconciliation;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * An order whose stored total differs from the sum of its items
+ */
+@Value
+public class TotalMismatch {
+    
+    long orderId;
+    BigDecimal storedTotal;
+    BigDecimal computedTotal;
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
+import com.ecommerce.orderprocessing.model.Order;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position after the last order of a page in (createdAt, id) order, passed to clients as an opaque cursor
+ */
+public record OrderKeyset(LocalDateTime createdAt, long id) {
+    
+    public static OrderKeyset of(Order order) {
+        return new OrderKeyset(order.getCreatedAt(), order.getId());
+    }
+    
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a cursor from a previous page; null when there is no cursor
+     */
+    public static OrderKeyset decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new OrderKeyset(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidOrderOperationException("Invalid cursor: " + cursor);
+        }
+    }
+}
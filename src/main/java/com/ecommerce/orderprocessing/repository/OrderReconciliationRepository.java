@@ -0,0 +1,145 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.reconciliation.ReconciliationRun;
+import com.ecommerce.orderprocessing.reconciliation.TotalMismatch;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Set-based order total checks over id ranges, and the reconciliation run/checkpoint tables.
+ * Only mismatching orders leave the database, so a partition costs one range scan.
+ */
+@Repository
+public class OrderReconciliationRepository {
+    
+    private static final RowMapper<TotalMismatch> MISMATCH_ROW = (rs, rowNum) ->
+            new TotalMismatch(rs.getLong("id"), rs.getBigDecimal("total_amount"), rs.getBigDecimal("computed"));
+    
+    private static final RowMapper<ReconciliationRun> RUN_ROW = (rs, rowNum) ->
+            new ReconciliationRun(rs.getLong("id"), rs.getBoolean("repair"), rs.getInt("partition_size"),
+                    rs.getLong("first_order_id"), rs.getLong("last_order_id"));
+    
+    private static final String ITEMS_TOTAL =
+            "(SELECT COALESCE(SUM(i.price * i.quantity), 0) FROM order_items i WHERE i.order_id = o.id)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    public OrderReconciliationRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+    
+    /**
+     * Orders with ids in [fromId, toId) whose total differs from the sum of their items
+     */
+    public List<TotalMismatch> findMismatches(long fromId, long toId) {
+        String sql = "SELECT o.id, o.total_amount, COALESCE(SUM(i.price * i.quantity), 0) AS computed " +
+                "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id " +
+                "WHERE o.id >= :fromId AND o.id < :toId " +
+                "GROUP BY o.id, o.total_amount " +
+                "HAVING o.total_amount <> COALESCE(SUM(i.price * i.quantity), 0) " +
+                "ORDER BY o.id";
+        return jdbcTemplate.query(sql, range(fromId, toId), MISMATCH_ROW);
+    }
+    
+    public long countOrders(long fromId, long toId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id >= :fromId AND id < :toId",
+                range(fromId, toId), Long.class);
+    }
+    
+    /**
+     * Set the recomputed total, but only if the order still has the total that was found wrong
+     * and its items still add up to the new one, so a concurrent write is never overwritten
+     * @return whether the order was repaired
+     */
+    public boolean repairTotal(TotalMismatch mismatch, LocalDateTime now) {
+        String sql = "UPDATE orders o SET total_amount = :computed, updated_at = :now " +
+                "WHERE o.id = :id AND o.total_amount = :stored AND " + ITEMS_TOTAL + " = :computed";
+        return jdbcTemplate.update(sql, new MapSqlParameterSource()
+                .addValue("id", mismatch.getOrderId())
+                .addValue("stored", mismatch.getStoredTotal())
+                .addValue("computed", mismatch.getComputedTotal())
+                .addValue("now", now)) == 1;
+    }
+    
+    /**
+     * Lowest order id, or null if there are no orders
+     */
+    public Long findMinId() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT MIN(id) FROM orders", Long.class);
+    }
+    
+    /**
+     * Highest order id, or null if there are no orders
+     */
+    public Long findMaxId() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject("SELECT MAX(id) FROM orders", Long.class);
+    }
+    
+    public ReconciliationRun createRun(boolean repair, int partitionSize, long firstOrderId, long lastOrderId,
+                                       LocalDateTime startedAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update("INSERT INTO reconciliation_runs " +
+                        "(repair, partition_size, first_order_id, last_order_id, started_at) " +
+                        "VALUES (:repair, :partitionSize, :firstOrderId, :lastOrderId, :startedAt)",
+                new MapSqlParameterSource()
+                        .addValue("repair", repair)
+                        .addValue("partitionSize", partitionSize)
+                        .addValue("firstOrderId", firstOrderId)
+                        .addValue("lastOrderId", lastOrderId)
+                        .addValue("startedAt", startedAt),
+                keyHolder, new String[] {"id"});
+        return new ReconciliationRun(keyHolder.getKey().longValue(), repair, partitionSize, firstOrderId, lastOrderId);
+    }
+    
+    /**
+     * The latest run that did not finish, if it was started in the same mode
+     */
+    public Optional<ReconciliationRun> findUnfinishedRun(boolean repair) {
+        return jdbcTemplate.query("SELECT * FROM reconciliation_runs WHERE finished_at IS NULL AND repair = :repair " +
+                        "ORDER BY id DESC LIMIT 1",
+                new MapSqlParameterSource("repair", repair), RUN_ROW).stream().findFirst();
+    }
+    
+    public void finishRun(long runId, LocalDateTime finishedAt) {
+        jdbcTemplate.update("UPDATE reconciliation_runs SET finished_at = :finishedAt WHERE id = :runId",
+                new MapSqlParameterSource().addValue("runId", runId).addValue("finishedAt", finishedAt));
+    }
+    
+    /**
+     * Start ids of the partitions of a run that are already checked
+     */
+    public Set<Long> findCheckpointedPartitions(long runId) {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT range_start FROM reconciliation_checkpoints WHERE run_id = :runId",
+                new MapSqlParameterSource("runId", runId), Long.class));
+    }
+    
+    public void saveCheckpoint(long runId, long rangeStart, long rangeEnd, long ordersChecked,
+                               int mismatches, int repaired, LocalDateTime completedAt) {
+        jdbcTemplate.update("INSERT INTO reconciliation_checkpoints " +
+                        "(run_id, range_start, range_end, orders_checked, mismatches, repaired, completed_at) " +
+                        "VALUES (:runId, :rangeStart, :rangeEnd, :ordersChecked, :mismatches, :repaired, :completedAt)",
+                new MapSqlParameterSource()
+                        .addValue("runId", runId)
+                        .addValue("rangeStart", rangeStart)
+                        .addValue("rangeEnd", rangeEnd)
+                        .addValue("ordersChecked", ordersChecked)
+                        .addValue("mismatches", mismatches)
+                        .addValue("repaired", repaired)
+                        .addValue("completedAt", completedAt));
+    }
+    
+    private static MapSqlParameterSource range(long fromId, long toId) {
+        return new MapSqlParameterSource().addValue("fromId", fromId).addValue("toId", toId);
+    }
+}
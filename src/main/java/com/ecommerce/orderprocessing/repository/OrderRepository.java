@@ -2,16 +2,29 @@ package com.ecommerce.orderprocessing.repository;
 
 import com.ecommerce.orderprocessing.model.Order;
 import com.ecommerce.orderprocessing.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Order entity
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+        OrderRepositoryCustom {
     
     /**
      * Find all orders with a specific status
@@ -22,4 +35,125 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * Find all orders by customer email
      */
     List<Order> findByCustomerEmail(String customerEmail);
+    
+    /**
+     * Find only the last update timestamp of an order, without loading its items
+     */
+    @Query("select o.updatedAt from Order o where o.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
+    /**
+     * Find the IDs of orders with a status that fall into one shard (id mod shardCount == shardIndex)
+     */
+    @Query("select o.id from Order o where o.status = :status and mod(o.id, :shardCount) = :shardIndex order by o.id")
+    List<Long> findIdsByStatusInShard(@Param("status") OrderStatus status,
+                                      @Param("shardIndex") int shardIndex,
+                                      @Param("shardCount") int shardCount,
+                                      Pageable pageable);
+    
+    /**
+     * Find the IDs of the most recently created orders, newest first
+     */
+    @Query("select o.id from Order o order by o.createdAt desc, o.id desc")
+    List<Long> findRecentIds(Pageable pageable);
+    
+    /**
+     * Find the customer names of the given orders without loading them
+     */
+    @Query("select o.customerName from Order o where o.id in :ids")
+    List<String> findCustomerNamesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find [id, status] of the given orders without loading them
+     */
+    @Query("select o.id, o.status from Order o where o.id in :ids")
+    List<Object[]> findStatusesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find [id, status, updatedAt] of the given orders without loading them
+     */
+    @Query("select o.id, o.status, o.updatedAt from Order o where o.id in :ids")
+    List<Object[]> findStatusTimestampsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Stream [id, status, updatedAt] of every order in one of the statuses for rebuilding the SLA watchdog
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o.id, o.status, o.updatedAt from Order o where o.status in :statuses")
+    Stream<Object[]> streamStatusTimestamps(@Param("statuses") Collection<OrderStatus> statuses);
+    
+    /**
+     * Find which of the given orders have a status with exactly this update timestamp,
+     * i.e. were changed by the update that set it
+     */
+    @Query("select o.id from Order o where o.id in :ids and o.status = :status and o.updatedAt = :updatedAt")
+    List<Long> findIdsByStatusAndUpdatedAt(@Param("ids") Collection<Long> ids,
+                                           @Param("status") OrderStatus status,
+                                           @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Move orders to a new status only if they are still in the expected status.
+     * Acts as an atomic claim: when two nodes race for the same row only one update counts it.
+     * Native and synchronized on its own query space so Hibernate does not clear the whole
+     * orders cache region. Any status can be changed, so callers must pass the changed orders to
+     * evictCachedOrders in the same transaction; claims of PENDING orders may skip it because
+     * only settled orders are ever cached.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "order_status_claims"))
+    @Query(value = "update orders set status = :#{#newStatus.name()}, updated_at = :updatedAt " +
+                   "where id in (:ids) and status = :#{#expectedStatus.name()}", nativeQuery = true)
+    int updateStatusIfCurrent(@Param("ids") Collection<Long> ids,
+                              @Param("expectedStatus") OrderStatus expectedStatus,
+                              @Param("newStatus") OrderStatus newStatus,
+                              @Param("updatedAt") LocalDateTime updatedAt);
+    
+    /**
+     * Load orders together with their items in one query
+     */
+    @Query("select distinct o from Order o left join fetch o.items where o.id in :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Stream [id, customerName, customerEmail] of every order for rebuilding the search index
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o.id, o.customerName, o.customerEmail from Order o")
+    Stream<Object[]> streamSearchableOrderFields();
+    
+    /**
+     * Stream [orderId, productName] of every order item for rebuilding the search index
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i.order.id, i.productName from OrderItem i")
+    Stream<Object[]> streamProductNames();
+    
+    /**
+     * Stream [id, customerName, customerEmail] of the orders created since the given time, for refreshing the search index
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select o.id, o.customerName, o.customerEmail from Order o where o.createdAt >= :since")
+    Stream<Object[]> streamSearchableOrderFieldsCreatedSince(@Param("since") LocalDateTime since);
+    
+    /**
+     * Stream [orderId, productName] of the items of orders created since the given time, for refreshing the search index
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i.order.id, i.productName from OrderItem i where i.order.createdAt >= :since")
+    Stream<Object[]> streamProductNamesCreatedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,32 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Order lookups that need direct control over the Hibernate session
+ */
+public interface OrderRepositoryCustom {
+    
+    /**
+     * Find an order with its items through the second-level cache.
+     * Settled orders are stored in the cache on a miss; any other order is evicted again after loading.
+     */
+    Optional<Order> findCacheableById(Long id);
+    
+    /**
+     * Like findCacheableById, but a cached copy that does not match the given updatedAt, left behind
+     * by a change made on another node, is evicted and the order loaded from the database again
+     */
+    Optional<Order> findCacheableById(Long id, LocalDateTime updatedAt);
+    
+    /**
+     * Drop orders from the second-level cache after they were changed with a native update.
+     * Call it in the transaction that made the update: the entries stay locked until that
+     * transaction commits or rolls back, so no concurrent read can cache the old row meanwhile.
+     */
+    void evictCachedOrders(Collection<Long> ids);
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.model.Order;
+import com.ecommerce.orderprocessing.model.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link OrderRepositoryCustom}
+ */
+class OrderRepositoryImpl implements OrderRepositoryCustom {
+    
+    private static final String ITEMS_ROLE = Order.class.getName() + ".items";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Order> findCacheableById(Long id) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.NORMAL);
+        try {
+            Order order = session.find(Order.class, id);
+            if (order == null) {
+                return Optional.empty();
+            }
+            Hibernate.initialize(order.getItems());
+            
+            if (!order.isSettled()) {
+                evict(order, session.getSessionFactory().getCache());
+            }
+            return Optional.of(order);
+        } finally {
+            session.setCacheMode(previous);
+        }
+    }
+    
+    @Override
+    public Optional<Order> findCacheableById(Long id, LocalDateTime updatedAt) {
+        Optional<Order> order = findCacheableById(id);
+        if (order.isEmpty() || order.get().getUpdatedAt().equals(updatedAt)) {
+            return order;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        evict(order.get(), session.getSessionFactory().getCache());
+        session.detach(order.get());
+        return findCacheableById(id);
+    }
+    
+    /**
+     * Soft-locks the entries the way Hibernate does for its own entity updates: until the transaction
+     * completes the entries cannot be cached, and afterwards only by sessions that started later, so a
+     * concurrent read of the old committed row can no longer put it back between eviction and commit.
+     */
+    @Override
+    public void evictCachedOrders(Collection<Long> ids) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Order.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+        if (cacheAccess == null || ids.isEmpty()) {
+            return;
+        }
+        if (!session.isTransactionInProgress()) {
+            Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+            ids.forEach(id -> cache.evictEntityData(Order.class, id));
+            return;
+        }
+        
+        List<Object> keys = new ArrayList<>(ids.size());
+        List<SoftLock> locks = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Object key = cacheAccess.generateCacheKey(id, persister, session.getFactory(), session.getTenantIdentifier());
+            keys.add(key);
+            locks.add(cacheAccess.lockItem(session, key, null));
+        }
+        // Runs on commit and on rollback
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            for (int i = 0; i < keys.size(); i++) {
+                cacheAccess.unlockItem(completedSession, keys.get(i), locks.get(i));
+            }
+        });
+    }
+    
+    private static void evict(Order order, Cache cache) {
+        cache.evictEntityData(Order.class, order.getId());
+        cache.evictCollectionData(ITEMS_ROLE, order.getId());
+        for (OrderItem item : order.getItems()) {
+            cache.evictEntityData(OrderItem.class, item.getId());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.dto.OrderFilter;
+import com.ecommerce.orderprocessing.model.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria for order filters. Each criterion is a plain comparison on an orders column, so the
+ * whole filter compiles to one query that idx_orders_status_created_at can serve.
+ */
+public final class OrderSpecifications {
+    
+    /** Order of filter results and of the keyset that pages through them */
+    public static final Sort KEYSET_ORDER = Sort.by("createdAt", "id");
+    
+    private OrderSpecifications() {
+    }
+    
+    /**
+     * All criteria of the filter, and the keyset condition when paging past a previous page
+     */
+    public static Specification<Order> matching(OrderFilter filter, OrderKeyset after) {
+        return Specification.allOf(
+                filter.getStatuses() == null || filter.getStatuses().isEmpty() ? null
+                        : (root, query, cb) -> root.get("status").in(filter.getStatuses()),
+                filter.getCreatedFrom() == null ? null
+                        : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), filter.getCreatedFrom()),
+                filter.getCreatedTo() == null ? null
+                        : (root, query, cb) -> cb.lessThan(root.get("createdAt"), filter.getCreatedTo()),
+                filter.getMinAmount() == null ? null
+                        : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("totalAmount"), filter.getMinAmount()),
+                after == null ? null : after(after));
+    }
+    
+    /**
+     * Orders after the keyset in (createdAt, id) order. The redundant createdAt >= bound keeps
+     * the condition usable as an index range.
+     */
+    static Specification<Order> after(OrderKeyset keyset) {
+        return (root, query, cb) -> cb.and(
+                cb.greaterThanOrEqualTo(root.get("createdAt"), keyset.createdAt()),
+                cb.or(
+                        cb.greaterThan(root.get("createdAt"), keyset.createdAt()),
+                        cb.greaterThan(root.get("id"), keyset.id())));
+    }
+}
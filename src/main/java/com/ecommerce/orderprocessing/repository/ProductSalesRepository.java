@@ -0,0 +1,164 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.dto.ProductSalesBucketResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.model.SalesBucket;
+import com.ecommerce.orderprocessing.model.SalesRanking;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based product sales aggregation over order_items joined with orders,
+ * and over the daily product_sales_rollup table.
+ * Plain SQL so the database does the GROUP BY and only aggregated rows are transferred.
+ */
+@Repository
+public class ProductSalesRepository {
+    
+    private static final int FETCH_SIZE = 1000;
+    
+    private static final RowMapper<ProductSalesResponse> PRODUCT_ROW = (rs, rowNum) ->
+            new ProductSalesResponse(rs.getString("product_name"), rs.getLong("units"), rs.getBigDecimal("revenue"));
+    
+    private static final RowMapper<ProductSalesBucketResponse> BUCKET_ROW = (rs, rowNum) ->
+            new ProductSalesBucketResponse(rs.getTimestamp("bucket_start").toLocalDateTime(),
+                    rs.getString("product_name"), rs.getLong("units"), rs.getBigDecimal("revenue"));
+    
+    private static final String MERGE_ROLLUP =
+            "MERGE INTO product_sales_rollup r " +
+            "USING (VALUES (CAST(:bucketDate AS DATE), CAST(:productName AS VARCHAR(255)), " +
+            "               CAST(:units AS BIGINT), CAST(:revenue AS DECIMAL(19, 2)))) " +
+            "      AS s (bucket_date, product_name, units, revenue) " +
+            "ON r.bucket_date = s.bucket_date AND r.product_name = s.product_name " +
+            "WHEN MATCHED THEN UPDATE SET units = r.units + s.units, revenue = r.revenue + s.revenue " +
+            "WHEN NOT MATCHED THEN INSERT (bucket_date, product_name, units, revenue) " +
+            "VALUES (s.bucket_date, s.product_name, s.units, s.revenue)";
+    
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    
+    public ProductSalesRepository(DataSource dataSource) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+    
+    /**
+     * Top products by revenue or units for orders created in [from, to) with one of the given statuses
+     */
+    public List<ProductSalesResponse> findTopProducts(LocalDateTime from, LocalDateTime to,
+                                                      Collection<OrderStatus> statuses,
+                                                      SalesRanking ranking, int limit) {
+        String sql = "SELECT i.product_name, SUM(i.quantity) AS units, SUM(i.price * i.quantity) AS revenue " +
+                "FROM order_items i JOIN orders o ON o.id = i.order_id " +
+                "WHERE o.created_at >= :from AND o.created_at < :to AND o.status IN (:statuses) " +
+                "GROUP BY i.product_name " +
+                "ORDER BY " + rankingColumn(ranking) + " DESC, i.product_name " +
+                "LIMIT :limit";
+        return jdbcTemplate.query(sql, orderParameters(from, to, statuses).addValue("limit", limit), PRODUCT_ROW);
+    }
+    
+    /**
+     * Sales per time bucket and product for orders created in [from, to), optionally for one product only
+     */
+    public List<ProductSalesBucketResponse> findSalesByBucket(LocalDateTime from, LocalDateTime to,
+                                                              Collection<OrderStatus> statuses,
+                                                              SalesBucket bucket, String productName) {
+        String bucketExpression = "DATE_TRUNC('" + bucket.name() + "', o.created_at)";
+        String sql = "SELECT " + bucketExpression + " AS bucket_start, i.product_name, " +
+                "SUM(i.quantity) AS units, SUM(i.price * i.quantity) AS revenue " +
+                "FROM order_items i JOIN orders o ON o.id = i.order_id " +
+                "WHERE o.created_at >= :from AND o.created_at < :to AND o.status IN (:statuses) " +
+                (productName != null ? "AND i.product_name = :productName " : "") +
+                "GROUP BY " + bucketExpression + ", i.product_name " +
+                "ORDER BY bucket_start, i.product_name";
+        return jdbcTemplate.query(sql,
+                orderParameters(from, to, statuses).addValue("productName", productName), BUCKET_ROW);
+    }
+    
+    /**
+     * Top products from the daily rollup for days in [fromDate, toDate)
+     */
+    public List<ProductSalesResponse> findTopProductsFromRollup(LocalDate fromDate, LocalDate toDate,
+                                                                SalesRanking ranking, int limit) {
+        String sql = "SELECT product_name, SUM(units) AS units, SUM(revenue) AS revenue " +
+                "FROM product_sales_rollup " +
+                "WHERE bucket_date >= :fromDate AND bucket_date < :toDate " +
+                "GROUP BY product_name " +
+                "ORDER BY " + rankingColumn(ranking) + " DESC, product_name " +
+                "LIMIT :limit";
+        return jdbcTemplate.query(sql, new MapSqlParameterSource()
+                .addValue("fromDate", fromDate)
+                .addValue("toDate", toDate)
+                .addValue("limit", limit), PRODUCT_ROW);
+    }
+    
+    /**
+     * Sales per day, week or month from the daily rollup for days in [fromDate, toDate)
+     */
+    public List<ProductSalesBucketResponse> findSalesByBucketFromRollup(LocalDate fromDate, LocalDate toDate,
+                                                                        SalesBucket bucket, String productName) {
+        String bucketExpression = "CAST(DATE_TRUNC('" + bucket.name() + "', bucket_date) AS TIMESTAMP)";
+        String sql = "SELECT " + bucketExpression + " AS bucket_start, product_name, " +
+                "SUM(units) AS units, SUM(revenue) AS revenue " +
+                "FROM product_sales_rollup " +
+                "WHERE bucket_date >= :fromDate AND bucket_date < :toDate " +
+                (productName != null ? "AND product_name = :productName " : "") +
+                "GROUP BY " + bucketExpression + ", product_name " +
+                "ORDER BY bucket_start, product_name";
+        return jdbcTemplate.query(sql, new MapSqlParameterSource()
+                .addValue("fromDate", fromDate)
+                .addValue("toDate", toDate)
+                .addValue("productName", productName), BUCKET_ROW);
+    }
+    
+    /**
+     * Add one order's sales to the rollup, one upsert per product
+     */
+    public void addToRollup(LocalDate bucketDate, Map<String, ProductSalesResponse> salesByProduct) {
+        MapSqlParameterSource[] batch = salesByProduct.values().stream()
+                .map(sales -> new MapSqlParameterSource()
+                        .addValue("bucketDate", bucketDate)
+                        .addValue("productName", sales.getProductName())
+                        .addValue("units", sales.getUnits())
+                        .addValue("revenue", sales.getRevenue()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(MERGE_ROLLUP, batch);
+    }
+    
+    /**
+     * Recompute the whole rollup from order_items with a single INSERT ... SELECT
+     */
+    public int rebuildRollup() {
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM product_sales_rollup");
+        return jdbcTemplate.getJdbcTemplate().update(
+                "INSERT INTO product_sales_rollup (bucket_date, product_name, units, revenue) " +
+                "SELECT CAST(o.created_at AS DATE), i.product_name, SUM(i.quantity), SUM(i.price * i.quantity) " +
+                "FROM order_items i JOIN orders o ON o.id = i.order_id " +
+                "GROUP BY CAST(o.created_at AS DATE), i.product_name");
+    }
+    
+    private static MapSqlParameterSource orderParameters(LocalDateTime from, LocalDateTime to,
+                                                         Collection<OrderStatus> statuses) {
+        return new MapSqlParameterSource()
+                .addValue("from", Timestamp.valueOf(from))
+                .addValue("to", Timestamp.valueOf(to))
+                .addValue("statuses", statuses.stream().map(Enum::name).collect(Collectors.toList()));
+    }
+    
+    private static String rankingColumn(SalesRanking ranking) {
+        return ranking == SalesRanking.UNITS ? "units" : "revenue";
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.model.SchedulerNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for SchedulerNode entity
+ */
+@Repository
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNode, String> {
+    
+    /**
+     * Find the IDs of all nodes with a heartbeat newer than the given time, in a stable order
+     */
+    @Query("select n.nodeId from SchedulerNode n where n.heartbeatAt > :since order by n.nodeId")
+    List<String> findLiveNodeIds(@Param("since") LocalDateTime since);
+    
+    /**
+     * Remove nodes whose heartbeat has expired
+     */
+    @Modifying
+    @Query("delete from SchedulerNode n where n.heartbeatAt <= :before")
+    int deleteExpired(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Claims for alerting SLA breaches in the order_sla_alerts table.
+ * The primary key makes a claim atomic: when several nodes find the same breach only one insert succeeds.
+ * A claim is only needed while its order stays in the alerted status; after that it can never match again.
+ */
+@Repository
+public class SlaAlertRepository {
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public SlaAlertRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+    
+    /**
+     * Record that the breach of an order that has been in a status since the given time is being alerted
+     * @return true if this call recorded it, false if it had already been recorded
+     */
+    public boolean claim(long orderId, OrderStatus status, LocalDateTime since) {
+        try {
+            return jdbcTemplate.update(
+                    "insert into order_sla_alerts (order_id, status, since, alerted_at) values (?, ?, ?, ?)",
+                    orderId, status.name(), Timestamp.valueOf(since), Timestamp.valueOf(LocalDateTime.now())) == 1;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Delete the claims of orders that have left the alerted status, or no longer exist
+     * @return the number of claims deleted
+     */
+    @Transactional
+    public int deleteEndedClaims() {
+        return jdbcTemplate.update("delete from order_sla_alerts a where not exists (" +
+                "select 1 from orders o where o.id = a.order_id and o.status = a.status and o.updated_at = a.since)");
+    }
+}
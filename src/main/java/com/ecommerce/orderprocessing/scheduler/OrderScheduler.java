@@ -1,34 +1,90 @@
 package com.ecommerce.orderprocessing.scheduler;
 
+import com.ecommerce.orderprocessing.reconciliation.OrderReconciliationJob;
+import com.ecommerce.orderprocessing.repository.SlaAlertRepository;
 import com.ecommerce.orderprocessing.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 /**
  * Scheduler for automatic order processing tasks
+ * Never lazy: scheduled methods are only registered once the bean exists
  */
 @Component
+@Lazy(false)
 @RequiredArgsConstructor
 @Slf4j
 public class OrderScheduler {
     
     private final OrderService orderService;
+    private final SchedulerNodeRegistry schedulerNodeRegistry;
+    private final OrderReconciliationJob orderReconciliationJob;
+    private final SlaAlertRepository slaAlertRepository;
+    
+    @Value("${orders.reconciliation.repair:false}")
+    private boolean repairTotals;
     
     /**
      * Automatically process PENDING orders every 5 minutes
      * Changes order status from PENDING to PROCESSING
+     * New orders are normally picked up right away by PendingOrderDispatcher, so this scan is
+     * a safety net for orders it dropped or missed (queue overflow, restarts)
+     * With several nodes each one only processes its own shard of the pending orders
      */
-    @Scheduled(fixedRate = 300000) // 5 minutes = 300,000 milliseconds
+    @Scheduled(fixedRateString = "${orders.scheduler.fixed-rate-ms:300000}", // 5 minutes = 300,000 milliseconds
+               initialDelayString = "${orders.scheduler.initial-delay-ms:0}")
     public void processPendingOrders() {
         log.info("Running scheduled task: Process pending orders");
         
         try {
-            int processedCount = orderService.processPendingOrders();
+            ShardAssignment shard = schedulerNodeRegistry.heartbeat();
+            int processedCount = orderService.processPendingOrders(shard);
             log.info("Scheduled task completed. Processed {} orders", processedCount);
         } catch (Exception e) {
             log.error("Error processing pending orders: {}", e.getMessage(), e);
         }
     }
+    
+    /**
+     * Recompute order totals from their items in the maintenance window (disabled unless a cron is set)
+     * With several nodes only the node holding shard 0 runs it
+     */
+    @Scheduled(cron = "${orders.reconciliation.cron:-}")
+    public void reconcileOrderTotals() {
+        if (schedulerNodeRegistry.heartbeat().getIndex() != 0) {
+            log.debug("Skipping order reconciliation, another node owns shard 0");
+            return;
+        }
+        log.info("Running scheduled task: Reconcile order totals (repair={})", repairTotals);
+        
+        try {
+            orderReconciliationJob.reconcile(repairTotals);
+        } catch (Exception e) {
+            log.error("Error reconciling order totals: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Delete the SLA alert claims of orders that have moved on, so the claims table stays small
+     * With several nodes only the node holding shard 0 runs it
+     */
+    @Scheduled(fixedDelayString = "${orders.sla.claim-cleanup-interval-ms:3600000}",
+               initialDelayString = "${orders.sla.claim-cleanup-interval-ms:3600000}")
+    public void deleteEndedSlaClaims() {
+        if (schedulerNodeRegistry.heartbeat().getIndex() != 0) {
+            log.debug("Skipping SLA claim cleanup, another node owns shard 0");
+            return;
+        }
+        
+        try {
+            int deleted = slaAlertRepository.deleteEndedClaims();
+            log.info("Deleted {} ended SLA alert claims", deleted);
+        } catch (Exception e) {
+            log.error("Error deleting ended SLA alert claims: {}", e.getMessage(), e);
+        }
+    }
 }
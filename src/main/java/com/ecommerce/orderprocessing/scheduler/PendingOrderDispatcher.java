@@ -0,0 +1,85 @@
+package com.ecommerce.orderprocessing.scheduler;
+
+import com.ecommerce.orderprocessing.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves newly created orders to PROCESSING as soon as their transaction commits.
+ * Orders go onto a bounded queue drained by a small worker pool; when the queue is full
+ * the order is left PENDING for the periodic scan in OrderScheduler to pick up.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.processing.event-driven.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class PendingOrderDispatcher {
+    
+    private final OrderService orderService;
+    private final ThreadPoolExecutor executor;
+    private final Timer processingLatency;
+    private final Counter rejected;
+    
+    public PendingOrderDispatcher(OrderService orderService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${orders.processing.workers:2}") int workers,
+                                  @Value("${orders.processing.queue-capacity:10000}") int queueCapacity) {
+        this.orderService = orderService;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("order-processing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.processingLatency = Timer.builder("orders.pending.processing.latency")
+                .description("Time from order creation until it moved to PROCESSING")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("orders.pending.dispatch.rejected")
+                .description("Orders left for the periodic scan because the work queue was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("orders.pending.dispatch.queue.size", executor.getQueue(), Collection::size);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        try {
+            executor.execute(() -> process(event));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.debug("Work queue full, order {} left for the periodic scan", event.getOrderId());
+        }
+    }
+    
+    private void process(OrderCreatedEvent event) {
+        try {
+            if (orderService.processPendingOrder(event.getOrderId())) {
+                processingLatency.record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+            }
+        } catch (Exception e) {
+            log.error("Error processing order {}: {}", event.getOrderId(), e.getMessage(), e);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.orderprocessing.scheduler;
+
+import com.ecommerce.orderprocessing.model.SchedulerNode;
+import com.ecommerce.orderprocessing.repository.SchedulerNodeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tracks the live nodes sharing the orders database through a heartbeat table.
+ * Each node derives its shard of the pending orders from its position among the live nodes.
+ */
+@Component
+@Slf4j
+public class SchedulerNodeRegistry {
+    
+    private final SchedulerNodeRepository schedulerNodeRepository;
+    private final String nodeId;
+    private final long nodeTtlMillis;
+    
+    public SchedulerNodeRegistry(SchedulerNodeRepository schedulerNodeRepository,
+                                 @Value("${orders.scheduler.node-id:}") String nodeId,
+                                 @Value("${orders.scheduler.node-ttl-ms:900000}") long nodeTtlMillis) {
+        this.schedulerNodeRepository = schedulerNodeRepository;
+        this.nodeId = StringUtils.hasText(nodeId) ? nodeId : UUID.randomUUID().toString();
+        this.nodeTtlMillis = nodeTtlMillis;
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    /**
+     * Record a heartbeat for this node and compute its current shard
+     */
+    @Transactional
+    public ShardAssignment heartbeat() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiry = now.minusNanos(nodeTtlMillis * 1_000_000L);
+        
+        schedulerNodeRepository.save(new SchedulerNode(nodeId, now));
+        schedulerNodeRepository.deleteExpired(expiry);
+        
+        List<String> liveNodes = schedulerNodeRepository.findLiveNodeIds(expiry);
+        int index = liveNodes.indexOf(nodeId);
+        if (index < 0) {
+            // Our own heartbeat is not visible yet, so take everything rather than nothing
+            return ShardAssignment.SINGLE_NODE;
+        }
+        
+        log.debug("Node {} owns shard {} of {}", nodeId, index, liveNodes.size());
+        return new ShardAssignment(index, liveNodes.size());
+    }
+    
+    /**
+     * Remove this node on shutdown so the remaining nodes pick up its shard on their next tick
+     */
+    @PreDestroy
+    public void deregister() {
+        try {
+            schedulerNodeRepository.deleteById(nodeId);
+        } catch (Exception e) {
+            log.warn("Could not deregister scheduler node {}: {}", nodeId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.orderprocessing.scheduler;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * The slice of pending orders a node is responsible for: orders where id mod count == index
+ */
+@Getter
+@RequiredArgsConstructor
+public class ShardAssignment {
+    
+    public static final ShardAssignment SINGLE_NODE = new ShardAssignment(0, 1);
+    
+    private final int index;
+    private final int count;
+}
@@ -0,0 +1,360 @@
+package com.ecommerce.orderprocessing.search;
+
+import com.ecommerce.orderprocessing.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over customer name, customer email and product names.
+ * Every query token is matched as a prefix of the indexed terms, and all tokens must match.
+ * New orders are added after their transaction commits; the whole index can be rebuilt from the database.
+ * Each node only hears about the orders it created itself, so orders created on other nodes are picked
+ * up by a periodic refresh of the recently created orders. The refresh looks back a little further than
+ * its previous run, so an order whose transaction committed late is still found; an order that committed
+ * more than refreshOverlap after it was created is only found after the next rebuild.
+ * Never lazy: scheduled methods are only registered once the bean exists
+ */
+@Component
+@Lazy(false)
+@Slf4j
+public class OrderSearchIndex {
+    
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean rebuildOnStartup;
+    private final int minPrefixLength;
+    private final int maxPrefixExpansions;
+    private final Duration refreshOverlap;
+    
+    private volatile LocalDateTime refreshFrom;
+    private volatile ConcurrentSkipListMap<String, PostingList> terms = new ConcurrentSkipListMap<>();
+    private volatile ConcurrentSkipListMap<String, PostingList> rebuilding;
+    
+    public OrderSearchIndex(OrderRepository orderRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${orders.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                            @Value("${orders.search.min-prefix-length:2}") int minPrefixLength,
+                            @Value("${orders.search.max-prefix-expansions:512}") int maxPrefixExpansions,
+                            @Value("${orders.search.refresh-overlap:PT1M}") Duration refreshOverlap) {
+        this.orderRepository = orderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.minPrefixLength = minPrefixLength;
+        this.maxPrefixExpansions = maxPrefixExpansions;
+        this.refreshOverlap = refreshOverlap;
+        this.refreshFrom = LocalDateTime.now().minus(refreshOverlap);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        List<String> texts = new ArrayList<>(event.getProductNames());
+        texts.add(event.getCustomerName());
+        texts.add(event.getCustomerEmail());
+        index(event.getOrderId(), texts);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+    
+    /**
+     * Add the terms of the given texts for an order
+     */
+    public void index(long orderId, Collection<String> texts) {
+        // Read the rebuild target before the live index so an order is never missed by a concurrent swap
+        ConcurrentSkipListMap<String, PostingList> target = rebuilding;
+        ConcurrentSkipListMap<String, PostingList> live = terms;
+        for (String text : texts) {
+            for (String token : tokenize(text)) {
+                addTerm(live, token, orderId);
+                if (target != null) {
+                    addTerm(target, token, orderId);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Rebuild the index from the database, streaming orders and items without loading entities.
+     * Searches keep using the old index until the new one is complete.
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        ConcurrentSkipListMap<String, PostingList> fresh = new ConcurrentSkipListMap<>();
+        rebuilding = fresh;
+        try {
+            AtomicInteger orders = new AtomicInteger();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = orderRepository.streamSearchableOrderFields()) {
+                    rows.forEach(row -> {
+                        long orderId = (Long) row[0];
+                        indexText(fresh, orderId, (String) row[1]);
+                        indexText(fresh, orderId, (String) row[2]);
+                        orders.incrementAndGet();
+                    });
+                }
+                try (Stream<Object[]> rows = orderRepository.streamProductNames()) {
+                    rows.forEach(row -> indexText(fresh, (Long) row[0], (String) row[1]));
+                }
+            });
+            terms = fresh;
+            refreshFrom = startedAt.minus(refreshOverlap);
+            log.info("Search index rebuilt with {} orders and {} terms in {} ms",
+                    orders.get(), fresh.size(), System.currentTimeMillis() - start);
+            return orders.get();
+        } finally {
+            rebuilding = null;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.search.refresh-interval-ms:10000}")
+    public void refreshRecentOrders() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Error refreshing the search index: {}", e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Index the orders created since shortly before the previous refresh or rebuild, including
+     * those created on other nodes. Orders already in the index are left unchanged.
+     */
+    public int refresh() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = refreshFrom;
+        AtomicInteger orders = new AtomicInteger();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = orderRepository.streamSearchableOrderFieldsCreatedSince(since)) {
+                rows.forEach(row -> {
+                    index((Long) row[0], List.of((String) row[1], (String) row[2]));
+                    orders.incrementAndGet();
+                });
+            }
+            try (Stream<Object[]> rows = orderRepository.streamProductNamesCreatedSince(since)) {
+                rows.forEach(row -> index((Long) row[0], List.of((String) row[1])));
+            }
+        });
+        refreshFrom = startedAt.minus(refreshOverlap);
+        log.debug("Search index refreshed with {} orders created since {}", orders.get(), since);
+        return orders.get();
+    }
+    
+    /**
+     * Find one page of orders matching every token of the query, newest first
+     */
+    public SearchHits search(String query, int page, int size) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return new SearchHits(List.of(), false, false);
+        }
+        
+        NavigableMap<String, PostingList> index = terms;
+        List<List<PostingList.Snapshot>> matches = new ArrayList<>();
+        boolean truncated = false;
+        for (String token : tokens) {
+            Lookup lookup = lookup(index, token);
+            if (lookup.lists().isEmpty()) {
+                return new SearchHits(List.of(), false, false);
+            }
+            matches.add(lookup.lists());
+            truncated |= lookup.truncated();
+        }
+        
+        // Walk the rarest token's IDs newest first and probe the other tokens by binary search
+        int driver = 0;
+        for (int i = 1; i < matches.size(); i++) {
+            if (totalSize(matches.get(i)) < totalSize(matches.get(driver))) {
+                driver = i;
+            }
+        }
+        
+        long skip = (long) page * size;
+        List<Long> hits = new ArrayList<>(size);
+        boolean hasNext = false;
+        DescendingMerge merge = new DescendingMerge(matches.get(driver));
+        while (merge.hasNext()) {
+            long candidate = merge.next();
+            if (!matchesAll(matches, driver, candidate)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+            } else if (hits.size() < size) {
+                hits.add(candidate);
+            } else {
+                hasNext = true;
+                break;
+            }
+        }
+        return new SearchHits(hits, hasNext, truncated);
+    }
+    
+    public int termCount() {
+        return terms.size();
+    }
+    
+    /**
+     * The posting lists of the terms starting with a token, at most maxPrefixExpansions of them
+     */
+    private Lookup lookup(NavigableMap<String, PostingList> index, String token) {
+        List<PostingList.Snapshot> lists = new ArrayList<>();
+        if (token.length() < minPrefixLength) {
+            PostingList exact = index.get(token);
+            if (exact != null) {
+                lists.add(exact.snapshot());
+            }
+            return new Lookup(lists, false);
+        }
+        for (Map.Entry<String, PostingList> entry : index.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (lists.size() == maxPrefixExpansions) {
+                return new Lookup(lists, true);
+            }
+            lists.add(entry.getValue().snapshot());
+        }
+        return new Lookup(lists, false);
+    }
+    
+    private static boolean matchesAll(List<List<PostingList.Snapshot>> matches, int driver, long candidate) {
+        for (int i = 0; i < matches.size(); i++) {
+            if (i != driver && !containsAny(matches.get(i), candidate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean containsAny(List<PostingList.Snapshot> lists, long id) {
+        for (PostingList.Snapshot list : lists) {
+            if (list.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long totalSize(List<PostingList.Snapshot> lists) {
+        long total = 0;
+        for (PostingList.Snapshot list : lists) {
+            total += list.size;
+        }
+        return total;
+    }
+    
+    private static void indexText(Map<String, PostingList> index, long orderId, String text) {
+        for (String token : tokenize(text)) {
+            addTerm(index, token, orderId);
+        }
+    }
+    
+    private static void addTerm(Map<String, PostingList> index, String term, long orderId) {
+        index.computeIfAbsent(term, key -> new PostingList()).add(orderId);
+    }
+    
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+    
+    private record Lookup(List<PostingList.Snapshot> lists, boolean truncated) {
+    }
+    
+    /**
+     * Merges several sorted posting lists into one descending, duplicate-free sequence
+     */
+    private static final class DescendingMerge {
+        
+        private final PriorityQueue<Cursor> heads;
+        private long last;
+        private boolean started;
+        
+        DescendingMerge(List<PostingList.Snapshot> lists) {
+            this.heads = new PriorityQueue<>(Math.max(1, lists.size()),
+                    (a, b) -> Long.compare(b.current, a.current));
+            for (PostingList.Snapshot list : lists) {
+                if (list.size > 0) {
+                    heads.add(new Cursor(list.ids, list.size - 1));
+                }
+            }
+        }
+        
+        boolean hasNext() {
+            while (!heads.isEmpty()) {
+                if (!started || heads.peek().current != last) {
+                    return true;
+                }
+                advance(heads.poll());
+            }
+            return false;
+        }
+        
+        long next() {
+            Cursor head = heads.poll();
+            last = head.current;
+            started = true;
+            advance(head);
+            return last;
+        }
+        
+        private void advance(Cursor cursor) {
+            if (cursor.position > 0) {
+                cursor.current = cursor.ids[--cursor.position];
+                heads.add(cursor);
+            }
+        }
+    }
+    
+    private static final class Cursor {
+        
+        private final long[] ids;
+        private int position;
+        private long current;
+        
+        Cursor(long[] ids, int position) {
+            this.ids = ids;
+            this.position = position;
+            this.current = ids[position];
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.orderprocessing.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted list of order IDs containing one term.
+ * Writers are serialized; readers take a lock-free snapshot of the size and array.
+ * IDs almost always arrive in ascending order, so adding is normally an append.
+ */
+class PostingList {
+    
+    private volatile long[] ids = new long[4];
+    private volatile int size;
+    
+    synchronized void add(long id) {
+        long[] current = ids;
+        int count = size;
+        
+        if (count == 0 || current[count - 1] < id) {
+            if (count == current.length) {
+                current = Arrays.copyOf(current, count + (count >> 1) + 1);
+                ids = current;
+            }
+            current[count] = id;
+            size = count + 1;
+            return;
+        }
+        
+        int position = Arrays.binarySearch(current, 0, count, id);
+        if (position >= 0) {
+            return;
+        }
+        // Out-of-order insert: copy so readers holding the old array never see it shift
+        int insertAt = -position - 1;
+        long[] copy = new long[Math.max(current.length, count + 1)];
+        System.arraycopy(current, 0, copy, 0, insertAt);
+        copy[insertAt] = id;
+        System.arraycopy(current, insertAt, copy, insertAt + 1, count - insertAt);
+        ids = copy;
+        size = count + 1;
+    }
+    
+    /**
+     * Read the size first: any array published before it holds at least that many IDs
+     */
+    Snapshot snapshot() {
+        int count = size;
+        return new Snapshot(ids, count);
+    }
+    
+    static final class Snapshot {
+        
+        final long[] ids;
+        final int size;
+        
+        Snapshot(long[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+        
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.orderprocessing.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of matching order IDs, newest first.
+ * truncated is set when a query token is a prefix of more terms than are expanded, so orders
+ * matching only the terms left out are missing from the results.
+ */
+@Getter
+@RequiredArgsConstructor
+public class SearchHits {
+    
+    private final List<Long> orderIds;
+    private final boolean hasNext;
+    private final boolean truncated;
+}
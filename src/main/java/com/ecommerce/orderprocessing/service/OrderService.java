@@ -1,19 +1,51 @@
 package com.ecommerce.orderprocessing.service;
 
+import com.ecommerce.orderprocessing.cache.EncodedOrderResponse;
+import com.ecommerce.orderprocessing.cache.OrderResponseCache;
+import com.ecommerce.orderprocessing.dto.BulkStatusUpdateResponse;
+import com.ecommerce.orderprocessing.dto.OrderFilter;
+import com.ecommerce.orderprocessing.dto.OrderFilterResponse;
 import com.ecommerce.orderprocessing.dto.OrderRequest;
 import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.OrderSearchResponse;
+import com.ecommerce.orderprocessing.dto.OrderStatusUpdateRequest;
+import com.ecommerce.orderprocessing.dto.StatusUpdateOutcome;
+import com.ecommerce.orderprocessing.dto.StatusUpdateResult;
+import com.ecommerce.orderprocessing.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.event.OrderStatusChangedEvent;
 import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
 import com.ecommerce.orderprocessing.exception.OrderNotFoundException;
+import com.ecommerce.orderprocessing.mapper.OrderField;
 import com.ecommerce.orderprocessing.mapper.OrderMapper;
 import com.ecommerce.orderprocessing.model.Order;
 import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderKeyset;
 import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.repository.OrderSpecifications;
+import com.ecommerce.orderprocessing.scheduler.ShardAssignment;
+import com.ecommerce.orderprocessing.search.OrderSearchIndex;
+import com.ecommerce.orderprocessing.search.SearchHits;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,38 +56,88 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderService {
     
+    static final int MAX_BULK_STATUS_UPDATES = 1000;
+    
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
+    private final OrderResponseCache orderResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderSearchIndex orderSearchIndex;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${orders.scheduler.batch-size:500}")
+    private int pendingBatchSize = 500;
+    
     
-
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
-        log.info("Creating new order for customer: {}", request.getCustomerName());
+        log.debug("Creating new order for customer: {}", request.getCustomerName());
         
         Order order = orderMapper.toEntity(request);
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderCreatedEvent.of(savedOrder));
         
-        log.info("Order created successfully with ID: {}", savedOrder.getId());
+        log.debug("Order created successfully with ID: {}", savedOrder.getId());
         return orderMapper.toResponse(savedOrder);
     }
     
-
+    
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long orderId) {
-        log.info("Fetching order with ID: {}", orderId);
+        log.debug("Fetching order with ID: {}", orderId);
         
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findCacheableById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         
         return orderMapper.toResponse(order);
     }
     
+    /**
+     * Get the pre-encoded JSON of an order.
+     * Cached entries, and the second-level cache copy they are encoded from, are reused only while
+     * their updatedAt still matches the database: even a delivered or cancelled order can have its
+     * total repaired, possibly by another node.
+     */
+    @Transactional(readOnly = true)
+    public EncodedOrderResponse getEncodedOrderById(Long orderId) {
+        LocalDateTime updatedAt = orderRepository.findUpdatedAtById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        
+        EncodedOrderResponse cached = orderResponseCache.getIfCurrent(orderId, updatedAt);
+        if (cached != null) {
+            return cached;
+        }
+        
+        log.debug("Encoding order {} for response cache", orderId);
+        Order order = orderRepository.findCacheableById(orderId, updatedAt)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        
+        return orderResponseCache.put(orderMapper.toResponse(order));
+    }
+    
+    /**
+     * Get the CBOR encoding of an order, cached alongside its JSON
+     */
+    @Transactional(readOnly = true)
+    public byte[] getCborOrderById(Long orderId) {
+        return orderResponseCache.toCbor(getEncodedOrderById(orderId));
+    }
+    
     /**
      * Get all orders, optionally filtered by status
      */
     @Transactional(readOnly = true)
     public List<OrderResponse> getAllOrders(OrderStatus status) {
-        log.info("Fetching all orders with status: {}", status);
+        return getAllOrders(status, null);
+    }
+    
+    /**
+     * Get all orders, optionally filtered by status, with only the given comma-separated fields
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getAllOrders(OrderStatus status, String fields) {
+        Set<OrderField> selected = OrderField.parse(fields);
+        log.debug("Fetching all orders with status: {}", status);
         
         List<Order> orders;
         if (status != null) {
@@ -65,36 +147,233 @@ public class OrderService {
         }
         
         return orders.stream()
-                .map(orderMapper::toResponse)
+                .map(order -> orderMapper.toResponse(order, selected))
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Search orders by customer name, customer email or product name
+     * Every word of the query must match the start of a word in one of those fields
+     */
+    @Transactional(readOnly = true)
+    public OrderSearchResponse searchOrders(String query, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new InvalidOrderOperationException("Page must be >= 0 and size between 1 and 100");
+        }
+        log.debug("Searching orders for: {}", query);
+        
+        SearchHits hits = orderSearchIndex.search(query, page, size);
+        List<OrderResponse> results = List.of();
+        if (!hits.getOrderIds().isEmpty()) {
+            Map<Long, Order> ordersById = orderRepository.findAllWithItemsByIdIn(hits.getOrderIds()).stream()
+                    .collect(Collectors.toMap(Order::getId, Function.identity()));
+            results = hits.getOrderIds().stream()
+                    .map(ordersById::get)
+                    .filter(Objects::nonNull)
+                    .map(orderMapper::toResponse)
+                    .collect(Collectors.toList());
+        }
+        
+        return OrderSearchResponse.builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .hasNext(hits.isHasNext())
+                .truncated(hits.isTruncated())
+                .results(results)
+                .build();
+    }
+    
+    /**
+     * Filter orders by status, creation time and amount, one keyset page at a time, oldest first.
+     * Pass the nextCursor of a page as cursor to get the page after it.
+     */
+    @Transactional(readOnly = true)
+    public OrderFilterResponse filterOrders(OrderFilter filter, String cursor, int size, String fields) {
+        if (size < 1 || size > 100) {
+            throw new InvalidOrderOperationException("Size must be between 1 and 100");
+        }
+        if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+                && !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+            throw new InvalidOrderOperationException("createdFrom must be before createdTo");
+        }
+        Set<OrderField> selected = OrderField.parse(fields);
+        OrderKeyset after = OrderKeyset.decode(cursor);
+        log.debug("Filtering orders by {} after {}", filter, after);
+        
+        // One row more than the page tells whether another page exists, without a count query
+        List<Order> orders = orderRepository.findBy(OrderSpecifications.matching(filter, after),
+                query -> query.sortBy(OrderSpecifications.KEYSET_ORDER).limit(size + 1).all());
+        boolean hasNext = orders.size() > size;
+        if (hasNext) {
+            orders = orders.subList(0, size);
+        }
+        if (selected.contains(OrderField.ITEMS) && !orders.isEmpty()) {
+            // Initializes the items of the orders already loaded in one query
+            orderRepository.findAllWithItemsByIdIn(orders.stream().map(Order::getId).toList());
+        }
+        
+        return OrderFilterResponse.builder()
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? OrderKeyset.of(orders.get(orders.size() - 1)).encode() : null)
+                .results(orders.stream()
+                        .map(order -> orderMapper.toResponse(order, selected))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+    
     /**
      * Update order status
      */
     @Transactional
     public OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus) {
-        log.info("Updating order {} status to: {}", orderId, newStatus);
+        log.debug("Updating order {} status to: {}", orderId, newStatus);
         
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         
         // Validate status transition
-        validateStatusTransition(order.getStatus(), newStatus);
+        OrderStatus previousStatus = order.getStatus();
+        validateStatusTransition(previousStatus, newStatus);
         
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(orderId, previousStatus, newStatus, LocalDateTime.now()));
         
-        log.info("Order {} status updated successfully", orderId);
+        log.debug("Order {} status updated successfully", orderId);
         return orderMapper.toResponse(updatedOrder);
     }
     
+    /**
+     * Apply several status updates to one order, in the given order, with one write.
+     * Each update is validated against the status the earlier ones left, exactly as if they had been
+     * separate calls, so an invalid update fails on its own and does not stop the ones after it.
+     * Used by OrderStatusUpdateCoalescer; the result at each position belongs to the update at that position.
+     */
+    @Transactional
+    public List<TransitionResult> applyStatusTransitions(Long orderId, List<OrderStatus> newStatuses) {
+        log.debug("Applying {} status updates to order {}", newStatuses.size(), orderId);
+        
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<TransitionResult> results = new ArrayList<>(newStatuses.size());
+        boolean changed = false;
+        for (OrderStatus newStatus : newStatuses) {
+            OrderStatus previousStatus = order.getStatus();
+            try {
+                validateStatusTransition(previousStatus, newStatus);
+            } catch (InvalidOrderOperationException e) {
+                results.add(new TransitionResult(null, e));
+                continue;
+            }
+            order.setStatus(newStatus);
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(orderId, previousStatus, newStatus, now));
+            results.add(new TransitionResult(orderMapper.toResponse(order), null));
+            changed = true;
+        }
+        if (changed) {
+            orderRepository.save(order);
+        }
+        return results;
+    }
+    
+    /**
+     * Update the status of many orders at once.
+     * Current statuses are loaded in one query and every entry is checked with the same transition
+     * rules as a single update; valid entries are then applied with one conditional update per
+     * (current status, new status) pair, so an order changed concurrently is reported as a conflict
+     * instead of being overwritten. Invalid entries do not stop the others.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse updateOrderStatuses(List<OrderStatusUpdateRequest> updates) {
+        if (updates == null || updates.isEmpty() || updates.size() > MAX_BULK_STATUS_UPDATES) {
+            throw new InvalidOrderOperationException(
+                    "A bulk status update must contain between 1 and " + MAX_BULK_STATUS_UPDATES + " entries");
+        }
+        log.debug("Updating status of {} orders", updates.size());
+        
+        List<Long> ids = updates.stream().map(OrderStatusUpdateRequest::getId)
+                .filter(Objects::nonNull).distinct().toList();
+        Map<Long, OrderStatus> currentStatuses = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : orderRepository.findStatusesByIdIn(ids)) {
+                currentStatuses.put((Long) row[0], (OrderStatus) row[1]);
+            }
+        }
+        
+        List<StatusUpdateResult> results = new ArrayList<>(updates.size());
+        Map<OrderStatus, Map<OrderStatus, List<Long>>> transitions = new EnumMap<>(OrderStatus.class);
+        Set<Long> seen = new HashSet<>();
+        for (OrderStatusUpdateRequest update : updates) {
+            OrderStatus current = update.getId() == null ? null : currentStatuses.get(update.getId());
+            StatusUpdateResult result = StatusUpdateResult.builder()
+                    .id(update.getId())
+                    .status(update.getStatus())
+                    .previousStatus(current)
+                    .build();
+            results.add(result);
+            
+            if (update.getId() == null || update.getStatus() == null) {
+                reject(result, StatusUpdateOutcome.INVALID_REQUEST, "Both id and status are required");
+            } else if (!seen.add(update.getId())) {
+                reject(result, StatusUpdateOutcome.DUPLICATE, "Order appears more than once in the request");
+            } else if (current == null) {
+                reject(result, StatusUpdateOutcome.NOT_FOUND, "Order not found with ID: " + update.getId());
+            } else {
+                try {
+                    validateStatusTransition(current, update.getStatus());
+                    transitions.computeIfAbsent(current, status -> new EnumMap<>(OrderStatus.class))
+                            .computeIfAbsent(update.getStatus(), status -> new ArrayList<>())
+                            .add(update.getId());
+                } catch (InvalidOrderOperationException e) {
+                    reject(result, StatusUpdateOutcome.INVALID_TRANSITION, e.getMessage());
+                }
+            }
+        }
+        
+        // The column keeps microseconds, so use a timestamp that reads back unchanged
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Set<Long> updated = new HashSet<>();
+        transitions.forEach((from, byTarget) -> byTarget.forEach((to, group) -> {
+            int count = orderRepository.updateStatusIfCurrent(group, from, to, now);
+            List<Long> changed = count == group.size()
+                    ? group
+                    : orderRepository.findIdsByStatusAndUpdatedAt(group, to, now);
+            if (!changed.isEmpty()) {
+                updated.addAll(changed);
+                eventPublisher.publishEvent(new OrderStatusChangedEvent(changed, from, to, now));
+            }
+        }));
+        // Settled orders may be cached; they stay locked in the cache until this transaction completes
+        orderRepository.evictCachedOrders(updated);
+        
+        for (StatusUpdateResult result : results) {
+            if (result.getOutcome() == null) {
+                if (updated.contains(result.getId())) {
+                    result.setOutcome(StatusUpdateOutcome.UPDATED);
+                } else {
+                    reject(result, StatusUpdateOutcome.CONFLICT, "Order status changed while updating");
+                }
+            }
+        }
+        log.debug("Updated status of {} of {} orders", updated.size(), updates.size());
+        return BulkStatusUpdateResponse.builder()
+                .requested(updates.size())
+                .updated(updated.size())
+                .rejected(updates.size() - updated.size())
+                .results(results)
+                .build();
+    }
+    
     /**
      * Cancel an order (only if status is PENDING)
      */
     @Transactional
     public OrderResponse cancelOrder(Long orderId) {
-        log.info("Attempting to cancel order: {}", orderId);
+        log.debug("Attempting to cancel order: {}", orderId);
         
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
@@ -105,31 +384,162 @@ public class OrderService {
             );
         }
         
+        OrderStatus previousStatus = order.getStatus();
         order.setStatus(OrderStatus.CANCELLED);
         Order cancelledOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(orderId, previousStatus, OrderStatus.CANCELLED,
+                LocalDateTime.now()));
         
-        log.info("Order {} cancelled successfully", orderId);
+        log.debug("Order {} cancelled successfully", orderId);
         return orderMapper.toResponse(cancelledOrder);
     }
     
+    /**
+     * Cancel every order of the list that is still PENDING with one conditional update.
+     * Orders the scheduler claims first are reported with the status they moved to.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse cancelOrders(List<Long> orderIds) {
+        if (orderIds == null || orderIds.isEmpty() || orderIds.size() > MAX_BULK_STATUS_UPDATES) {
+            throw new InvalidOrderOperationException(
+                    "A bulk cancellation must contain between 1 and " + MAX_BULK_STATUS_UPDATES + " orders");
+        }
+        log.debug("Attempting to cancel {} orders", orderIds.size());
+        
+        List<Long> ids = orderIds.stream().filter(Objects::nonNull).distinct().toList();
+        // The column keeps microseconds, so use a timestamp that reads back unchanged
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Set<Long> cancelled = new HashSet<>();
+        if (!ids.isEmpty()) {
+            int count = orderRepository.updateStatusIfCurrent(ids, OrderStatus.PENDING, OrderStatus.CANCELLED, now);
+            if (count == ids.size()) {
+                cancelled.addAll(ids);
+            } else if (count > 0) {
+                cancelled.addAll(orderRepository.findIdsByStatusAndUpdatedAt(ids, OrderStatus.CANCELLED, now));
+            }
+        }
+        orderRepository.evictCachedOrders(cancelled);
+        if (!cancelled.isEmpty()) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(List.copyOf(cancelled), OrderStatus.PENDING,
+                    OrderStatus.CANCELLED, now));
+        }
+        
+        // Read the others after the update so a concurrent claim shows its committed status
+        List<Long> notCancelled = ids.stream().filter(id -> !cancelled.contains(id)).toList();
+        Map<Long, OrderStatus> currentStatuses = new HashMap<>();
+        if (!notCancelled.isEmpty()) {
+            for (Object[] row : orderRepository.findStatusesByIdIn(notCancelled)) {
+                currentStatuses.put((Long) row[0], (OrderStatus) row[1]);
+            }
+        }
+        
+        List<StatusUpdateResult> results = new ArrayList<>(orderIds.size());
+        Set<Long> seen = new HashSet<>();
+        for (Long id : orderIds) {
+            StatusUpdateResult result = StatusUpdateResult.builder()
+                    .id(id)
+                    .status(OrderStatus.CANCELLED)
+                    .build();
+            results.add(result);
+            
+            if (id == null) {
+                reject(result, StatusUpdateOutcome.INVALID_REQUEST, "Order id is required");
+            } else if (!seen.add(id)) {
+                reject(result, StatusUpdateOutcome.DUPLICATE, "Order appears more than once in the request");
+            } else if (cancelled.contains(id)) {
+                result.setPreviousStatus(OrderStatus.PENDING);
+                result.setOutcome(StatusUpdateOutcome.UPDATED);
+            } else if (currentStatuses.containsKey(id)) {
+                result.setPreviousStatus(currentStatuses.get(id));
+                reject(result, StatusUpdateOutcome.INVALID_TRANSITION,
+                        "Order cannot be cancelled. Current status: " + currentStatuses.get(id));
+            } else {
+                reject(result, StatusUpdateOutcome.NOT_FOUND, "Order not found with ID: " + id);
+            }
+        }
+        log.debug("Cancelled {} of {} orders", cancelled.size(), orderIds.size());
+        return BulkStatusUpdateResponse.builder()
+                .requested(orderIds.size())
+                .updated(cancelled.size())
+                .rejected(orderIds.size() - cancelled.size())
+                .results(results)
+                .build();
+    }
+    
     /**
      * Process pending orders (change status from PENDING to PROCESSING)
      * This method is called by the scheduled task
      */
-    @Transactional
     public int processPendingOrders() {
-        log.info("Processing pending orders...");
+        return processPendingOrders(ShardAssignment.SINGLE_NODE);
+    }
+    
+    /**
+     * Move a single order from PENDING to PROCESSING if no one else has moved it yet
+     * Called by PendingOrderDispatcher right after the order is created
+     */
+    @Transactional
+    public boolean processPendingOrder(Long orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed = orderRepository.updateStatusIfCurrent(List.of(orderId),
+                OrderStatus.PENDING, OrderStatus.PROCESSING, now) == 1;
+        if (claimed) {
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(orderId, OrderStatus.PENDING,
+                    OrderStatus.PROCESSING, now));
+            log.debug("Order {} moved to PROCESSING", orderId);
+        }
+        return claimed;
+    }
+    
+    /**
+     * Process the pending orders of one shard.
+     * Orders are claimed in batches with a conditional update, so an order is only
+     * counted by the node whose update actually moved it out of PENDING. Each batch commits
+     * on its own, so claimed rows are not locked until the whole backlog is drained and the
+     * status change events of a batch are delivered as soon as it commits.
+     */
+    public int processPendingOrders(ShardAssignment shard) {
+        log.info("Processing pending orders for shard {} of {}...", shard.getIndex(), shard.getCount());
         
-        List<Order> pendingOrders = orderRepository.findByStatus(OrderStatus.PENDING);
+        TransactionTemplate batchTransaction = new TransactionTemplate(transactionManager);
+        int processed = 0;
+        PendingBatch batch;
+        do {
+            batch = batchTransaction.execute(status -> claimPendingBatch(shard));
+            processed += batch.claimed();
+        } while (batch.found() == pendingBatchSize);
         
-        for (Order order : pendingOrders) {
-            order.setStatus(OrderStatus.PROCESSING);
-            orderRepository.save(order);
-            log.debug("Order {} moved to PROCESSING", order.getId());
+        log.info("Processed {} pending orders", processed);
+        return processed;
+    }
+    
+    /**
+     * Claim one batch of the shard's pending orders
+     */
+    private PendingBatch claimPendingBatch(ShardAssignment shard) {
+        List<Long> pendingIds = orderRepository.findIdsByStatusInShard(OrderStatus.PENDING,
+                shard.getIndex(), shard.getCount(), PageRequest.of(0, pendingBatchSize));
+        if (pendingIds.isEmpty()) {
+            return new PendingBatch(0, 0);
         }
-        
-        log.info("Processed {} pending orders", pendingOrders.size());
-        return pendingOrders.size();
+        // The column keeps microseconds, so use a timestamp that reads back unchanged
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int claimed = orderRepository.updateStatusIfCurrent(pendingIds,
+                OrderStatus.PENDING, OrderStatus.PROCESSING, now);
+        log.debug("Claimed {} of {} pending orders", claimed, pendingIds.size());
+        if (claimed > 0) {
+            List<Long> claimedIds = claimed == pendingIds.size()
+                    ? pendingIds
+                    : orderRepository.findIdsByStatusAndUpdatedAt(pendingIds, OrderStatus.PROCESSING, now);
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(claimedIds, OrderStatus.PENDING,
+                    OrderStatus.PROCESSING, now));
+        }
+        return new PendingBatch(pendingIds.size(), claimed);
+    }
+    
+    private static void reject(StatusUpdateResult result, StatusUpdateOutcome outcome, String message) {
+        result.setOutcome(outcome);
+        result.setMessage(message);
     }
     
     /**
@@ -163,4 +573,16 @@ public class OrderService {
             throw new InvalidOrderOperationException("SHIPPED orders can only move to DELIVERED");
         }
     }
+    
+    /**
+     * How many pending orders one batch found and how many of them it claimed
+     */
+    private record PendingBatch(int found, int claimed) {
+    }
+    
+    /**
+     * Outcome of one update applied by applyStatusTransitions: the order as that update left it, or why it failed
+     */
+    public record TransitionResult(OrderResponse response, RuntimeException error) {
+    }
 }
@@ -0,0 +1,142 @@
+package com.ecommerce.orderprocessing.service;
+
+import com.ecommerce.orderprocessing.datasource.ReadYourWritesTracker;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Merges status updates to the same order that arrive within a short window into one transaction
+ * and one write, for hot orders that several systems update at almost the same time.
+ * <p>
+ * Orders are spread over a fixed number of stripes. The first update for an order opens a batch and
+ * becomes its leader; updates arriving while the batch is open are appended in arrival order. The
+ * leader waits for the window, then takes its stripe's lock, closes the batch and applies it with
+ * OrderService.applyStatusTransitions, which validates every update exactly as separate calls would.
+ * Holding the stripe lock while applying keeps batches of one order in order, and a batch stays open
+ * while its leader waits for the lock, so a busy order gathers more updates per write.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.status-coalescing.enabled", havingValue = "true")
+@Slf4j
+public class OrderStatusUpdateCoalescer {
+    
+    private final OrderService orderService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long windowNanos;
+    private final Stripe[] stripes;
+    private final Counter coalesced;
+    
+    public OrderStatusUpdateCoalescer(OrderService orderService,
+                                      ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${orders.status-coalescing.window-ms:2}") long windowMs,
+                                      @Value("${orders.status-coalescing.stripes:64}") int stripes) {
+        this.orderService = orderService;
+        this.readYourWritesTracker = readYourWritesTracker.getIfAvailable();
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, stripes - 1)) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.coalesced = Counter.builder("orders.status-updates.coalesced")
+                .description("Status updates written together with an earlier update to the same order")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Update the status of an order, possibly together with other updates to it.
+     * Returns and throws the same as OrderService.updateOrderStatus.
+     */
+    public OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus) {
+        Stripe stripe = stripes[Long.hashCode(orderId * 0x9E3779B97F4A7C15L) & (stripes.length - 1)];
+        CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+        Batch batch;
+        boolean leader = false;
+        synchronized (stripe) {
+            batch = stripe.open.get(orderId);
+            if (batch == null) {
+                batch = new Batch();
+                stripe.open.put(orderId, batch);
+                leader = true;
+            }
+            batch.statuses.add(newStatus);
+            batch.results.add(result);
+        }
+        if (leader) {
+            apply(stripe, orderId, batch);
+        }
+        try {
+            OrderResponse response = result.join();
+            // The leader's thread wrote for everyone in the batch
+            if (!leader && readYourWritesTracker != null) {
+                readYourWritesTracker.recordWrite();
+            }
+            return response;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+    
+    private void apply(Stripe stripe, Long orderId, Batch batch) {
+        LockSupport.parkNanos(windowNanos);
+        stripe.lock.lock();
+        try {
+            synchronized (stripe) {
+                stripe.open.remove(orderId);
+            }
+            if (batch.statuses.size() > 1) {
+                coalesced.increment(batch.statuses.size() - 1);
+                log.debug("Coalesced {} status updates to order {}", batch.statuses.size(), orderId);
+            }
+            List<OrderService.TransitionResult> outcomes = orderService.applyStatusTransitions(orderId, batch.statuses);
+            for (int i = 0; i < outcomes.size(); i++) {
+                OrderService.TransitionResult outcome = outcomes.get(i);
+                if (outcome.error() == null) {
+                    batch.results.get(i).complete(outcome.response());
+                } else {
+                    batch.results.get(i).completeExceptionally(outcome.error());
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            batch.results.forEach(result -> result.completeExceptionally(e));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+    
+    /**
+     * Open batches of the orders hashed to this stripe (guarded by the stripe's monitor), and the
+     * lock held while one of its batches is written
+     */
+    private static final class Stripe {
+        
+        private final Map<Long, Batch> open = new HashMap<>();
+        private final ReentrantLock lock = new ReentrantLock(true);
+    }
+    
+    /**
+     * Updates to one order in arrival order; only changed under the stripe's monitor until it is closed
+     */
+    private static final class Batch {
+        
+        private final List<OrderStatus> statuses = new ArrayList<>();
+        private final List<CompletableFuture<OrderResponse>> results = new ArrayList<>();
+    }
+}
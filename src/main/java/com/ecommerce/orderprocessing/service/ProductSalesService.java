@@ -0,0 +1,203 @@
+package com.ecommerce.orderprocessing.service;
+
+import com.ecommerce.orderprocessing.dto.ProductSalesBucketResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesResponse;
+import com.ecommerce.orderprocessing.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.model.SalesBucket;
+import com.ecommerce.orderprocessing.model.SalesRanking;
+import com.ecommerce.orderprocessing.repository.ProductSalesRepository;
+import com.ecommerce.orderprocessing.scheduler.SchedulerNodeRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for product-level sales aggregation
+ */
+@Service
+@Slf4j
+public class ProductSalesService implements SmartLifecycle {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    private final ProductSalesRepository productSalesRepository;
+    private final SchedulerNodeRegistry schedulerNodeRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean rollupEnabled;
+    private volatile boolean running;
+    
+    public ProductSalesService(ProductSalesRepository productSalesRepository,
+                               SchedulerNodeRegistry schedulerNodeRegistry,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${orders.analytics.rollup.enabled:false}") boolean rollupEnabled) {
+        this.productSalesRepository = productSalesRepository;
+        this.schedulerNodeRegistry = schedulerNodeRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollupEnabled = rollupEnabled;
+    }
+    
+    /**
+     * Get the top products for orders created in [from, to), optionally restricted to some statuses
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSalesResponse> getTopProducts(LocalDateTime from, LocalDateTime to,
+                                                     Collection<OrderStatus> statuses,
+                                                     SalesRanking ranking, int limit) {
+        validateRange(from, to);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new InvalidOrderOperationException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        
+        if (canUseRollup(from, to, statuses, null)) {
+            return productSalesRepository.findTopProductsFromRollup(from.toLocalDate(), to.toLocalDate(), ranking, limit);
+        }
+        return productSalesRepository.findTopProducts(from, to, statusesOrAll(statuses), ranking, limit);
+    }
+    
+    /**
+     * Get sales per time bucket and product for orders created in [from, to)
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSalesBucketResponse> getSalesByBucket(LocalDateTime from, LocalDateTime to,
+                                                             Collection<OrderStatus> statuses,
+                                                             SalesBucket bucket, String productName) {
+        validateRange(from, to);
+        
+        if (canUseRollup(from, to, statuses, bucket)) {
+            return productSalesRepository.findSalesByBucketFromRollup(from.toLocalDate(), to.toLocalDate(),
+                    bucket, productName);
+        }
+        return productSalesRepository.findSalesByBucket(from, to, statusesOrAll(statuses), bucket, productName);
+    }
+    
+    /**
+     * Add a newly committed order to the daily rollup
+     * Runs in its own transaction after the order's transaction has committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (!rollupEnabled) {
+            return;
+        }
+        
+        Map<String, ProductSalesResponse> salesByProduct = new LinkedHashMap<>();
+        for (OrderCreatedEvent.Line line : event.getLines()) {
+            BigDecimal revenue = line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity()));
+            salesByProduct.merge(line.getProductName(),
+                    new ProductSalesResponse(line.getProductName(), line.getQuantity(), revenue),
+                    (a, b) -> new ProductSalesResponse(a.getProductName(),
+                            a.getUnits() + b.getUnits(), a.getRevenue().add(b.getRevenue())));
+        }
+        
+        try {
+            try {
+                addToRollup(event, salesByProduct);
+            } catch (DuplicateKeyException e) {
+                // Another order inserted the same (day, product) row concurrently; it now exists, so retry once
+                addToRollup(event, salesByProduct);
+            }
+        } catch (Exception e) {
+            log.error("Could not add order {} to the sales rollup: {}", event.getOrderId(), e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Recompute the daily rollup from all order items when enabled and no other node is live.
+     * Runs once all singletons, including the data loaders, exist and before the web server opens
+     * its port: an order committed during the rebuild would be counted by the INSERT ... SELECT and
+     * again by its own after-commit MERGE. Nodes that are already running keep creating orders, so
+     * a node joining them leaves the rollup to their merges; a crashed node counts as live until its
+     * heartbeat expires.
+     */
+    @Override
+    public void start() {
+        if (rollupEnabled) {
+            int liveNodes = schedulerNodeRegistry.heartbeat().getCount();
+            if (liveNodes > 1) {
+                log.info("Not rebuilding the product sales rollup while {} other nodes are live", liveNodes - 1);
+            } else {
+                rebuildRollup();
+            }
+        }
+        running = true;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Well before the web server, which starts in a phase just below the default
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+    
+    /**
+     * Replace the rollup with one computed from order_items.
+     * Must not run while orders are being created, which could then be counted twice.
+     */
+    public int rebuildRollup() {
+        long start = System.currentTimeMillis();
+        Integer rows = transactionTemplate.execute(status -> productSalesRepository.rebuildRollup());
+        log.info("Product sales rollup rebuilt with {} rows in {} ms", rows, System.currentTimeMillis() - start);
+        return rows == null ? 0 : rows;
+    }
+    
+    private void addToRollup(OrderCreatedEvent event, Map<String, ProductSalesResponse> salesByProduct) {
+        transactionTemplate.executeWithoutResult(status ->
+                productSalesRepository.addToRollup(event.getCreatedAt().toLocalDate(), salesByProduct));
+    }
+    
+    /**
+     * The rollup keeps whole days across all statuses, so it can only answer
+     * unfiltered, day-aligned queries with day or coarser buckets.
+     * Status is deliberately not part of its key: orders change status long after they are created,
+     * and every status path (single, bulk and scheduler claims) would have to move sales between rows.
+     * Status-filtered queries aggregate order_items instead; ProductSalesRollupBenchmark measures the gap.
+     */
+    private boolean canUseRollup(LocalDateTime from, LocalDateTime to,
+                                 Collection<OrderStatus> statuses, SalesBucket bucket) {
+        return rollupEnabled
+                && (statuses == null || statuses.isEmpty())
+                && bucket != SalesBucket.HOUR
+                && from.toLocalTime().equals(LocalTime.MIDNIGHT)
+                && to.toLocalTime().equals(LocalTime.MIDNIGHT);
+    }
+    
+    private static Collection<OrderStatus> statusesOrAll(Collection<OrderStatus> statuses) {
+        return statuses == null || statuses.isEmpty() ? EnumSet.allOf(OrderStatus.class) : statuses;
+    }
+    
+    private static void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidOrderOperationException("'from' must be before 'to'");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ecommerce.orderprocessing.sla;
+
+/**
+ * Open-addressing hash map from long to long without boxing, 21 to 43 bytes per entry depending
+ * on how recently it grew. Keys must not be 0, which marks a free slot. Not thread-safe.
+ */
+class LongLongMap {
+    
+    static final long MISSING = Long.MIN_VALUE;
+    
+    private static final int MIN_CAPACITY = 16;
+    
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    
+    LongLongMap() {
+        allocate(MIN_CAPACITY);
+    }
+    
+    int size() {
+        return size;
+    }
+    
+    long get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == 0) {
+                return MISSING;
+            }
+        }
+    }
+    
+    /**
+     * Associate a value with a key, returning the previous value or MISSING
+     */
+    long put(long key, long value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int slot = slot(key);
+        for (; keys[slot] != 0; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        // Resize above a load factor of 0.75
+        if (++size > (mask + 1) - ((mask + 1) >> 2)) {
+            rehash((mask + 1) << 1);
+        }
+        return MISSING;
+    }
+    
+    /**
+     * Remove a key, returning its value or MISSING
+     */
+    long remove(long key) {
+        int slot = slot(key);
+        for (; keys[slot] != key; slot = (slot + 1) & mask) {
+            if (keys[slot] == 0) {
+                return MISSING;
+            }
+        }
+        long previous = values[slot];
+        // Shift later entries of the probe chain back instead of leaving a tombstone
+        int free = slot;
+        for (int next = (free + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        keys[free] = 0;
+        values[free] = 0;
+        size--;
+        return previous;
+    }
+    
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+    
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+}
@@ -0,0 +1,206 @@
+package com.ecommerce.orderprocessing.sla;
+
+import com.ecommerce.orderprocessing.event.OrderSlaBreachedEvent;
+import com.ecommerce.orderprocessing.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.repository.SlaAlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Raises an alert when an order stays in PROCESSING or SHIPPED longer than its SLA allows.
+ * Every tracked order has one deadline in a timing wheel, set from the status changes OrderService
+ * publishes and rebuilt from updatedAt on startup, so the orders table is never scanned periodically.
+ * Expired deadlines are checked against the database before alerting, which also catches status
+ * changes made by other nodes; an order that moved on is tracked again from its current status.
+ * Every node watches the orders it knows about, so a breach is claimed in the database before it is
+ * alerted and only the node whose claim succeeds raises it. Gating on the scheduler shard instead
+ * would miss breaches, because a node only hears about the status changes it made itself.
+ * Never lazy: scheduled methods are only registered once the bean exists
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "orders.sla.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class SlaWatchdog {
+    
+    private static final int VERIFY_BATCH_SIZE = 1000;
+    private static final int LOGGED_ORDER_IDS = 20;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    
+    private final OrderRepository orderRepository;
+    private final SlaAlertRepository slaAlertRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate claimTransaction;
+    private final Map<OrderStatus, Duration> timeouts = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderStatus, Counter> breaches = new EnumMap<>(OrderStatus.class);
+    private final TimingWheel wheel;
+    
+    public SlaWatchdog(OrderRepository orderRepository,
+                       SlaAlertRepository slaAlertRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${orders.sla.processing-timeout:PT24H}") Duration processingTimeout,
+                       @Value("${orders.sla.shipped-timeout:P7D}") Duration shippedTimeout,
+                       @Value("${orders.sla.tick-ms:1000}") long tickMs) {
+        this.orderRepository = orderRepository;
+        this.slaAlertRepository = slaAlertRepository;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.timeouts.put(OrderStatus.PROCESSING, processingTimeout);
+        this.timeouts.put(OrderStatus.SHIPPED, shippedTimeout);
+        this.wheel = new TimingWheel(tickMs, System.currentTimeMillis());
+        for (OrderStatus status : timeouts.keySet()) {
+            breaches.put(status, Counter.builder("orders.sla.breaches")
+                    .description("Orders that stayed in a status longer than its SLA")
+                    .tag("status", status.name())
+                    .register(meterRegistry));
+        }
+        meterRegistry.gauge("orders.sla.tracked", this, SlaWatchdog::trackedOrders);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        long since = toEpochMilli(event.getChangedAt());
+        synchronized (this) {
+            for (Long orderId : event.getOrderIds()) {
+                track(orderId, event.getStatus(), since);
+            }
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    /**
+     * Track every order currently in a status with an SLA, streaming [id, status, updatedAt].
+     * Orders already tracked from a status change keep that newer deadline.
+     */
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        AtomicInteger orders = new AtomicInteger();
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = orderRepository.streamStatusTimestamps(timeouts.keySet())) {
+                rows.forEach(row -> {
+                    long deadline = toEpochMilli((LocalDateTime) row[2]) + timeouts.get((OrderStatus) row[1]).toMillis();
+                    synchronized (this) {
+                        wheel.scheduleIfAbsent((Long) row[0], deadline, ((OrderStatus) row[1]).ordinal());
+                    }
+                    orders.incrementAndGet();
+                });
+            }
+        });
+        log.info("SLA watchdog tracking {} orders after {} ms", orders.get(), System.currentTimeMillis() - start);
+        return orders.get();
+    }
+    
+    @Scheduled(fixedDelayString = "${orders.sla.tick-ms:1000}")
+    public void checkDeadlines() {
+        try {
+            check(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.error("Error checking order SLAs: {}", e.getMessage(), e);
+        }
+    }
+    
+    public synchronized int trackedOrders() {
+        return wheel.size();
+    }
+    
+    /**
+     * Advance the wheel to the given time and alert for the expired orders still in the same status
+     * whose breach no other node has claimed yet
+     */
+    public int check(long nowMs) {
+        Map<Long, OrderStatus> expired = new HashMap<>();
+        synchronized (this) {
+            wheel.advance(nowMs, (orderId, deadlineMs, tag) -> expired.put(orderId, STATUSES[tag]));
+        }
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> ids = new ArrayList<>(expired.keySet());
+        List<Long> breached = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += VERIFY_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + VERIFY_BATCH_SIZE));
+            for (Object[] row : orderRepository.findStatusTimestampsByIdIn(batch)) {
+                Long orderId = (Long) row[0];
+                OrderStatus status = (OrderStatus) row[1];
+                LocalDateTime since = (LocalDateTime) row[2];
+                Duration timeout = timeouts.get(status);
+                if (timeout == null) {
+                    continue;
+                }
+                long deadline = toEpochMilli(since) + timeout.toMillis();
+                if (status == expired.get(orderId) && deadline <= nowMs) {
+                    if (claim(orderId, status, since)) {
+                        breached.add(orderId);
+                        breaches.get(status).increment();
+                        eventPublisher.publishEvent(new OrderSlaBreachedEvent(orderId, status, since, since.plus(timeout)));
+                    }
+                } else {
+                    synchronized (this) {
+                        wheel.scheduleIfAbsent(orderId, deadline, status.ordinal());
+                    }
+                }
+            }
+        }
+        if (!breached.isEmpty()) {
+            log.warn("{} orders breached their SLA, e.g. {}", breached.size(),
+                    breached.subList(0, Math.min(breached.size(), LOGGED_ORDER_IDS)));
+        }
+        return breached.size();
+    }
+    
+    private boolean claim(long orderId, OrderStatus status, LocalDateTime since) {
+        return Boolean.TRUE.equals(claimTransaction.execute(tx -> slaAlertRepository.claim(orderId, status, since)));
+    }
+    
+    private void track(long orderId, OrderStatus status, long since) {
+        Duration timeout = timeouts.get(status);
+        if (timeout == null) {
+            wheel.cancel(orderId);
+        } else {
+            wheel.schedule(orderId, since + timeout.toMillis(), status.ordinal());
+        }
+    }
+    
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,168 @@
+package com.ecommerce.orderprocessing.sla;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timing wheel of per-key deadlines.
+ * Level 0 has one slot per tick, and every higher level has slots SLOTS times as wide, so four
+ * levels of 64 slots with one-second ticks reach about 194 days; later deadlines wait in the top
+ * level and are placed again when their slot comes round. Scheduling and cancelling are O(1),
+ * and advancing costs one step per elapsed tick plus the entries that expire or move down a level.
+ * <p>
+ * Slots hold only keys. The deadline and a small tag (0 to 7) live in a primitive map, so
+ * rescheduling or cancelling just replaces or removes the map entry, and the old slot entry is
+ * dropped when its slot is reached. That keeps the cost to roughly 8 bytes per slot entry plus
+ * one map entry per key. Not thread-safe.
+ */
+class TimingWheel {
+    
+    static final int SLOT_BITS = 6;
+    static final int SLOTS = 1 << SLOT_BITS;
+    static final int LEVELS = 4;
+    
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int TAG_BITS = 3;
+    private static final long TAG_MASK = (1 << TAG_BITS) - 1;
+    
+    private final long tickMs;
+    private final long[][][] slots = new long[LEVELS][SLOTS][];
+    private final int[][] slotSizes = new int[LEVELS][SLOTS];
+    private final LongLongMap deadlines = new LongLongMap();
+    private long currentTick;
+    
+    /**
+     * Receives every key whose deadline has passed, once, in the order the ticks pass
+     */
+    @FunctionalInterface
+    interface ExpiryHandler {
+        
+        void expired(long key, long deadlineMs, int tag);
+    }
+    
+    TimingWheel(long tickMs, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMs = tickMs;
+        this.currentTick = startMs / tickMs;
+    }
+    
+    int size() {
+        return deadlines.size();
+    }
+    
+    boolean contains(long key) {
+        return deadlines.get(key) != LongLongMap.MISSING;
+    }
+    
+    /**
+     * Set the deadline of a key, replacing any earlier one. Deadlines that already passed expire on the next tick.
+     */
+    void schedule(long key, long deadlineMs, int tag) {
+        if (tag < 0 || tag > TAG_MASK) {
+            throw new IllegalArgumentException("Tag must be between 0 and " + TAG_MASK);
+        }
+        deadlines.put(key, (deadlineMs << TAG_BITS) | tag);
+        place(key, Math.max(deadlineMs / tickMs, currentTick + 1));
+    }
+    
+    /**
+     * Schedule a key only if it has no deadline yet
+     */
+    boolean scheduleIfAbsent(long key, long deadlineMs, int tag) {
+        if (contains(key)) {
+            return false;
+        }
+        schedule(key, deadlineMs, tag);
+        return true;
+    }
+    
+    void cancel(long key) {
+        deadlines.remove(key);
+    }
+    
+    /**
+     * Move the wheel forward to the given time, handing every expired key to the handler.
+     * Expired keys are removed before the handler sees them, so it may schedule them again.
+     */
+    void advance(long nowMs, ExpiryHandler handler) {
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Highest level first: entries it moves down may land in a lower slot that is due now
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            expire(handler);
+        }
+    }
+    
+    private void cascade(int level) {
+        int slot = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        long[] keys = slots[level][slot];
+        int count = slotSizes[level][slot];
+        if (count == 0) {
+            return;
+        }
+        slots[level][slot] = null;
+        slotSizes[level][slot] = 0;
+        for (int i = 0; i < count; i++) {
+            long packed = deadlines.get(keys[i]);
+            if (packed == LongLongMap.MISSING) {
+                continue;
+            }
+            long tick = (packed >> TAG_BITS) / tickMs;
+            // A key rescheduled into another period has a newer slot entry; only the top level holds far deadlines
+            if (level == LEVELS - 1 || (tick >>> (SLOT_BITS * level)) == (currentTick >>> (SLOT_BITS * level))) {
+                place(keys[i], Math.max(tick, currentTick));
+            }
+        }
+    }
+    
+    private void expire(ExpiryHandler handler) {
+        int slot = (int) currentTick & SLOT_MASK;
+        long[] keys = slots[0][slot];
+        int count = slotSizes[0][slot];
+        if (count == 0) {
+            return;
+        }
+        slots[0][slot] = null;
+        slotSizes[0][slot] = 0;
+        for (int i = 0; i < count; i++) {
+            long packed = deadlines.get(keys[i]);
+            // Keys rescheduled to a later tick have a newer slot entry
+            if (packed != LongLongMap.MISSING && (packed >> TAG_BITS) / tickMs <= currentTick) {
+                deadlines.remove(keys[i]);
+                handler.expired(keys[i], packed >> TAG_BITS, (int) (packed & TAG_MASK));
+            }
+        }
+    }
+    
+    /**
+     * Put a key into the lowest level whose range reaches its tick, which is never before the current tick
+     */
+    private void place(long key, long tick) {
+        int level = 0;
+        while (level < LEVELS - 1
+                && (tick >>> (SLOT_BITS * level)) - (currentTick >>> (SLOT_BITS * level)) >= SLOTS) {
+            level++;
+        }
+        long period = tick >>> (SLOT_BITS * level);
+        long lastPeriod = (currentTick >>> (SLOT_BITS * level)) + SLOTS - 1;
+        int slot = (int) Math.min(period, lastPeriod) & SLOT_MASK;
+        
+        long[] keys = slots[level][slot];
+        int count = slotSizes[level][slot];
+        if (keys == null) {
+            keys = new long[4];
+            slots[level][slot] = keys;
+        } else if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count + (count >> 1));
+            slots[level][slot] = keys;
+        }
+        keys[count] = key;
+        slotSizes[level][slot] = count + 1;
+    }
+}
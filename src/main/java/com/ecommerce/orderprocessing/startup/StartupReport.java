@@ -0,0 +1,91 @@
+package com.ecommerce.orderprocessing.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Logs which beans and auto-configurations cost the most during startup.
+ * Needs the BufferingApplicationStartup installed by OrderProcessingApplication#main;
+ * steps are read without draining so the actuator startup endpoint still sees them.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.startup.report.enabled", havingValue = "true")
+@Slf4j
+public class StartupReport {
+    
+    private static final String BEAN_INSTANTIATE = "spring.beans.instantiate";
+    
+    private final int topSteps;
+    
+    public StartupReport(@Value("${orders.startup.report.top-steps:15}") int topSteps) {
+        this.topSteps = topSteps;
+    }
+    
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ApplicationStartup applicationStartup = event.getApplicationContext().getApplicationStartup();
+        if (!(applicationStartup instanceof BufferingApplicationStartup buffering)) {
+            log.debug("Startup steps are not buffered, skipping startup report");
+            return;
+        }
+        log.info(format(buffering.getBufferedTimeline(), event.getTimeTaken(), topSteps));
+    }
+    
+    /**
+     * Rank steps by self time: a bean's instantiation minus the beans it created as dependencies
+     */
+    static String format(StartupTimeline timeline, Duration timeTaken, int topSteps) {
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+        Map<Long, Duration> childDurations = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childDurations.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+        
+        List<StepCost> costs = events.stream()
+                .map(event -> new StepCost(label(event.getStartupStep()), event.getDuration().minus(
+                        childDurations.getOrDefault(event.getStartupStep().getId(), Duration.ZERO))))
+                .sorted(Comparator.comparing(StepCost::selfTime).reversed())
+                .limit(topSteps)
+                .toList();
+        
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Startup report: ready in %d ms, %d steps recorded, slowest by self time:",
+                timeTaken == null ? -1 : timeTaken.toMillis(), events.size()));
+        for (StepCost cost : costs) {
+            report.append(String.format("%n  %6d ms  %s", cost.selfTime().toMillis(), cost.label()));
+        }
+        return report.toString();
+    }
+    
+    private static String label(StartupStep step) {
+        if (BEAN_INSTANTIATE.equals(step.getName())) {
+            for (StartupStep.Tag tag : step.getTags()) {
+                if ("beanName".equals(tag.getKey())) {
+                    String kind = tag.getValue().contains("Configuration") ? "config" : "bean";
+                    return kind + " " + tag.getValue();
+                }
+            }
+        }
+        return step.getName();
+    }
+    
+    private record StepCost(String label, Duration selfTime) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.ecommerce.orderprocessing.startup;
+
+import com.ecommerce.orderprocessing.controller.OrderController;
+import com.ecommerce.orderprocessing.datasource.ClientContextFilter;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Warms the JIT, Jackson and Hibernate before the instance takes traffic.
+ * Runs as the last ApplicationReadyEvent listener: after the search index and SLA watchdog have
+ * been rebuilt by their own listeners (ordered first), so searches run against real terms, and before Spring Boot publishes ReadinessState.ACCEPTING_TRAFFIC, so
+ * /actuator/health/readiness stays OUT_OF_SERVICE until warm-up has finished.
+ * <ol>
+ *   <li>Primes the response cache and the second-level cache with the most recently created orders</li>
+ *   <li>Sends synthetic create, status update, cancel, get, filter and search requests through the
+ *       controller, service and mapper, with every write rolled back, and serializes each response
+ *       as JSON and CBOR</li>
+ *   <li>Sends a few GET requests over loopback HTTP for the servlet, filter and converter path</li>
+ * </ol>
+ * Stops early once the time budget is spent; a failure is logged and never stops startup.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.warmup.enabled", havingValue = "true")
+@Slf4j
+public class WarmUpRunner {
+    
+    private static final String CLIENT_ID = "warm-up";
+    private static final int SEARCH_QUERIES = 20;
+    private static final String FALLBACK_QUERY = "warm customer";
+    
+    private final OrderController orderController;
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate rollbackTransaction;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper;
+    private final ApplicationContext applicationContext;
+    private final int iterations;
+    private final int primeOrders;
+    private final int httpRequests;
+    private final Duration maxDuration;
+    
+    public WarmUpRunner(OrderController orderController,
+                        OrderRepository orderRepository,
+                        EntityManager entityManager,
+                        PlatformTransactionManager transactionManager,
+                        ObjectMapper jsonMapper,
+                        MappingJackson2CborHttpMessageConverter cborConverter,
+                        ApplicationContext applicationContext,
+                        @Value("${orders.warmup.iterations:200}") int iterations,
+                        @Value("${orders.warmup.prime-orders:1000}") int primeOrders,
+                        @Value("${orders.warmup.http-requests:100}") int httpRequests,
+                        @Value("${orders.warmup.max-duration:PT10S}") Duration maxDuration) {
+        this.orderController = orderController;
+        this.orderRepository = orderRepository;
+        this.entityManager = entityManager;
+        this.rollbackTransaction = new TransactionTemplate(transactionManager);
+        this.jsonMapper = jsonMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.applicationContext = applicationContext;
+        this.iterations = iterations;
+        this.primeOrders = primeOrders;
+        this.httpRequests = httpRequests;
+        this.maxDuration = maxDuration;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onApplicationReady() {
+        run();
+    }
+    
+    public void run() {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+        try {
+            List<Long> recentIds = orderRepository.findRecentIds(PageRequest.of(0, Math.max(1, primeOrders)));
+            int primed = primeCaches(recentIds, deadline);
+            int synthetic = sendSyntheticRequests(recentIds, searchQueries(recentIds), deadline);
+            int http = sendHttpRequests(recentIds, deadline);
+            log.info("Warm-up finished in {} ms: primed {} orders, {} synthetic and {} HTTP requests",
+                    (System.nanoTime() - start) / 1_000_000, primed, synthetic, http);
+        } catch (Exception e) {
+            log.warn("Warm-up stopped after {} ms: {}", (System.nanoTime() - start) / 1_000_000, e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Encode recent orders into the response cache, which also loads settled ones into the second-level cache
+     */
+    private int primeCaches(List<Long> ids, long deadline) {
+        int primed = 0;
+        for (Long id : ids) {
+            if (System.nanoTime() > deadline) {
+                break;
+            }
+            orderController.getOrderById(id, "gzip");
+            orderController.getOrderByIdAsCbor(id);
+            primed++;
+        }
+        return primed;
+    }
+    
+    /**
+     * Customer names of recent orders, so searches walk and intersect real posting lists
+     */
+    private List<String> searchQueries(List<Long> recentIds) {
+        List<String> queries = recentIds.isEmpty() ? List.of()
+                : orderRepository.findCustomerNamesByIdIn(recentIds.subList(0, Math.min(SEARCH_QUERIES, recentIds.size())));
+        return queries.isEmpty() ? List.of(FALLBACK_QUERY) : queries;
+    }
+    
+    private int sendSyntheticRequests(List<Long> recentIds, List<String> searchQueries, long deadline)
+            throws IOException {
+        int requests = 0;
+        for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+            OrderRequest request = jsonMapper.readValue(orderJson(i), OrderRequest.class);
+            Integer sent = rollbackTransaction.execute(status -> {
+                status.setRollbackOnly();
+                try {
+                    OrderResponse created = serialize(orderController.createOrder(request).getBody());
+                    Long id = created.getId();
+                    for (OrderStatus next : List.of(OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED)) {
+                        serialize(orderController.updateOrderStatus(id, next).getBody());
+                    }
+                    serialize(orderController.cancelOrder(serialize(orderController.createOrder(request).getBody())
+                            .getId()).getBody());
+                    // Run the inserts and updates before rolling them back
+                    entityManager.flush();
+                    return 6;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            requests += sent;
+            
+            serialize(orderController.filterOrders(Set.of(OrderStatus.values()[i % OrderStatus.values().length]),
+                    LocalDateTime.now().minusDays(30), null, i % 2 == 0 ? null : BigDecimal.TEN, null, 20,
+                    i % 3 == 0 ? "id,status,totalAmount" : null).getBody());
+            serialize(orderController.searchOrders(searchQueries.get(i % searchQueries.size()), 0, 20).getBody());
+            requests += 2;
+            if (!recentIds.isEmpty()) {
+                Long id = recentIds.get(i % recentIds.size());
+                orderController.getOrderById(id, i % 2 == 0 ? "gzip" : null);
+                requests++;
+            }
+        }
+        return requests;
+    }
+    
+    /**
+     * GET recent orders through the servlet container, if it is running
+     */
+    private int sendHttpRequests(List<Long> recentIds, long deadline) {
+        if (!(applicationContext instanceof WebServerApplicationContext web) || web.getWebServer() == null
+                || web.getWebServer().getPort() <= 0 || recentIds.isEmpty()) {
+            return 0;
+        }
+        String baseUrl = "http://localhost:" + web.getWebServer().getPort() + "/api/orders/";
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        int sent = 0;
+        for (int i = 0; i < httpRequests && System.nanoTime() < deadline; i++) {
+            Long id = recentIds.get(i % recentIds.size());
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                    .header(ClientContextFilter.CLIENT_ID_HEADER, CLIENT_ID)
+                    .timeout(Duration.ofSeconds(5));
+            if (i % 2 == 0) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            if (i % 4 == 1) {
+                request.header("Accept", "application/cbor");
+            }
+            try {
+                client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+                sent++;
+            } catch (IOException e) {
+                log.debug("Warm-up HTTP request failed: {}", e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return sent;
+    }
+    
+    private <T> T serialize(T body) throws IOException {
+        jsonMapper.writeValueAsBytes(body);
+        cborMapper.writeValueAsBytes(body);
+        return body;
+    }
+    
+    private static byte[] orderJson(int i) {
+        return String.format(Locale.ROOT, """
+                {"customerName":"Warm Customer %d","customerEmail":"warm%d@example.com","items":[
+                {"productName":"Warm Product %d","quantity":%d,"price":%d.99},
+                {"productName":"Warm Accessory","quantity":1,"price":4.50}]}""",
+                i % 50, i % 50, i % 20, 1 + i % 3, 10 + i % 90).getBytes(StandardCharsets.UTF_8);
+    }
+}
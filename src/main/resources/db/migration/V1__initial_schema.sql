@@ -0,0 +1,38 @@
+-- Initial schema: orders, order items, scheduler membership and the product sales rollup
+
+create table orders (
+    id bigint generated by default as identity,
+    customer_name varchar(255) not null,
+    customer_email varchar(255) not null,
+    status enum ('CANCELLED','DELIVERED','PENDING','PROCESSING','SHIPPED') not null,
+    total_amount numeric(10,2) not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6) not null,
+    primary key (id)
+);
+
+create index idx_orders_created_at on orders (created_at);
+
+create table order_items (
+    id bigint generated by default as identity,
+    order_id bigint not null,
+    product_name varchar(255) not null,
+    quantity integer not null check (quantity >= 1),
+    price numeric(10,2) not null check (price >= 0),
+    primary key (id),
+    constraint fk_order_items_order foreign key (order_id) references orders (id)
+);
+
+create table scheduler_nodes (
+    node_id varchar(64) not null,
+    heartbeat_at timestamp(6) not null,
+    primary key (node_id)
+);
+
+create table product_sales_rollup (
+    bucket_date date not null,
+    product_name varchar(255) not null,
+    units bigint not null,
+    revenue numeric(19,2) not null,
+    primary key (bucket_date, product_name)
+);
@@ -0,0 +1,24 @@
+-- Order total reconciliation runs and their per-partition checkpoints
+
+create table reconciliation_runs (
+    id bigint generated by default as identity,
+    repair boolean not null,
+    partition_size integer not null,
+    first_order_id bigint not null,
+    last_order_id bigint not null,
+    started_at timestamp(6) not null,
+    finished_at timestamp(6),
+    primary key (id)
+);
+
+create table reconciliation_checkpoints (
+    run_id bigint not null,
+    range_start bigint not null,
+    range_end bigint not null,
+    orders_checked bigint not null,
+    mismatches integer not null,
+    repaired integer not null,
+    completed_at timestamp(6) not null,
+    primary key (run_id, range_start),
+    constraint fk_reconciliation_checkpoints_run foreign key (run_id) references reconciliation_runs (id)
+);
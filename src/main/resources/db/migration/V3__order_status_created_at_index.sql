@@ -0,0 +1,3 @@
+-- Index for order filters by status and creation time, also used by their keyset pagination
+
+create index idx_orders_status_created_at on orders (status, created_at);
@@ -0,0 +1,10 @@
+-- SLA breaches that have been alerted, one row per order and status period, so that with several
+-- nodes only the node that inserts the row raises the alert
+
+create table order_sla_alerts (
+    order_id bigint not null,
+    status enum ('CANCELLED','DELIVERED','PENDING','PROCESSING','SHIPPED') not null,
+    since timestamp(6) not null,
+    alerted_at timestamp(6) not null,
+    primary key (order_id, status, since)
+);
@@ -2,19 +2,33 @@ package com.ecommerce.orderprocessing;
 
 import com.ecommerce.orderprocessing.dto.OrderItemRequest;
 import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.OrderStatusUpdateRequest;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.search.OrderSearchIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,10 +41,16 @@ class OrderProcessingIntegrationTest {
     
     @Autowired
     private MockMvc mockMvc;
-
+    
     @Autowired
     private ObjectMapper objectMapper;
-
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private OrderSearchIndex orderSearchIndex;
+    
     @Test
     void completeOrderLifecycle_Success() throws Exception {
         // 1. Create an order
@@ -177,6 +197,17 @@ class OrderProcessingIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$[0].status").value("PENDING"));
+        
+        // Only the selected fields are returned
+        mockMvc.perform(get("/api/orders?status=PENDING&fields=id,status,totalAmount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").exists())
+                .andExpect(jsonPath("$[0].totalAmount").exists())
+                .andExpect(jsonPath("$[0].customerName").doesNotExist())
+                .andExpect(jsonPath("$[0].items").doesNotExist());
+        
+        mockMvc.perform(get("/api/orders?fields=id,password"))
+                .andExpect(status().isBadRequest());
     }
     
     @Test
@@ -231,4 +262,193 @@ class OrderProcessingIntegrationTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("PENDING orders can only move to PROCESSING or be CANCELLED"));
     }
+    
+    @Test
+    void bulkStatusUpdate_AppliesValidEntriesAndRefreshesCachedOrders() throws Exception {
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            OrderItemRequest item = OrderItemRequest.builder()
+                    .productName("Bulk Status Product " + i)
+                    .quantity(1)
+                    .price(new BigDecimal("12.00"))
+                    .build();
+            
+            OrderRequest orderRequest = OrderRequest.builder()
+                    .customerName("Bulk Status User")
+                    .customerEmail("bulk@test.com")
+                    .items(Collections.singletonList(item))
+                    .build();
+            
+            MvcResult createResult = mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(orderRequest)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            orderIds.add(objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong());
+        }
+        // Load both orders so the entity and response caches hold the PENDING state
+        for (long orderId : orderIds) {
+            mockMvc.perform(get("/api/orders/" + orderId))
+                    .andExpect(jsonPath("$.status").value("PENDING"));
+        }
+        
+        List<OrderStatusUpdateRequest> updates = List.of(
+                new OrderStatusUpdateRequest(orderIds.get(0), OrderStatus.PROCESSING),
+                new OrderStatusUpdateRequest(orderIds.get(1), OrderStatus.DELIVERED),
+                new OrderStatusUpdateRequest(99999L, OrderStatus.PROCESSING));
+        
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updates)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[0].previousStatus").value("PENDING"))
+                .andExpect(jsonPath("$.results[1].outcome").value("INVALID_TRANSITION"))
+                .andExpect(jsonPath("$.results[2].outcome").value("NOT_FOUND"));
+        
+        mockMvc.perform(get("/api/orders/" + orderIds.get(0)))
+                .andExpect(jsonPath("$.status").value("PROCESSING"));
+        mockMvc.perform(get("/api/orders/" + orderIds.get(1)))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+    
+    @Test
+    void cborRoundTrip_MatchesJson() throws Exception {
+        CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+        OrderRequest orderRequest = OrderRequest.builder()
+                .customerName("Cbor Test User")
+                .customerEmail("cbor@test.com")
+                .items(List.of(OrderItemRequest.builder()
+                        .productName("Cbor Product")
+                        .quantity(3)
+                        .price(new BigDecimal("19.99"))
+                        .build()))
+                .build();
+        
+        MvcResult createResult = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(orderRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        OrderResponse created = cborMapper.readValue(createResult.getResponse().getContentAsByteArray(),
+                OrderResponse.class);
+        assertEquals(new BigDecimal("59.97"), created.getTotalAmount());
+        
+        // The cached CBOR encoding and the JSON encoding describe the same order
+        byte[] cbor = mockMvc.perform(get("/api/orders/" + created.getId()).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        String json = mockMvc.perform(get("/api/orders/" + created.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readValue(json, OrderResponse.class), cborMapper.readValue(cbor, OrderResponse.class));
+        
+        mockMvc.perform(get("/api/orders?fields=id,status").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        mockMvc.perform(get("/api/orders/99999").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isNotFound());
+    }
+    
+    @Test
+    void getOrder_GzippedResponseReflectsLatestStatus() throws Exception {
+        List<OrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            items.add(OrderItemRequest.builder()
+                    .productName("Gzip Test Product " + i)
+                    .quantity(1)
+                    .price(new BigDecimal("5.00"))
+                    .build());
+        }
+        
+        OrderRequest orderRequest = OrderRequest.builder()
+                .customerName("Gzip Test User")
+                .customerEmail("gzip@test.com")
+                .items(items)
+                .build();
+        
+        MvcResult createResult = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        long orderId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+        
+        // Prime the cache, then change the order so the cached entry becomes stale
+        mockMvc.perform(get("/api/orders/" + orderId))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+        mockMvc.perform(put("/api/orders/" + orderId + "/status?status=PROCESSING"))
+                .andExpect(status().isOk());
+        
+        MvcResult gzipResult = mockMvc.perform(get("/api/orders/" + orderId)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+        
+        byte[] body = gzipResult.getResponse().getContentAsByteArray();
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            String json = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals("PROCESSING", objectMapper.readTree(json).get("status").asText());
+            assertEquals(20, objectMapper.readTree(json).get("items").size());
+        }
+    }
+    
+    @Test
+    void searchOrders_FindsNewOrderByCustomerAndProductPrefix() throws Exception {
+        OrderItemRequest item = OrderItemRequest.builder()
+                .productName("Quokka Plush Toy")
+                .quantity(1)
+                .price(new BigDecimal("15.00"))
+                .build();
+        
+        OrderRequest orderRequest = OrderRequest.builder()
+                .customerName("Searchable Wallaby")
+                .customerEmail("wallaby@search.test")
+                .items(Collections.singletonList(item))
+                .build();
+        
+        MvcResult createResult = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(orderRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        
+        long orderId = objectMapper.readTree(createResult.getResponse().getContentAsString()).get("id").asLong();
+        
+        mockMvc.perform(get("/api/orders/search").param("q", "walla quok"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(orderId))
+                .andExpect(jsonPath("$.results[0].items[0].productName").value("Quokka Plush Toy"))
+                .andExpect(jsonPath("$.hasNext").value(false));
+        
+        mockMvc.perform(get("/api/orders/search").param("q", "wallaby").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void searchOrders_FindsOrderCreatedOnAnotherNodeAfterRefresh() throws Exception {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("insert into orders (customer_name, customer_email, status, total_amount, created_at, updated_at) "
+                + "values ('Remote Numbat', 'numbat@search.test', 'PENDING', 12.00, ?, ?)", now, now);
+        Long orderId = jdbcTemplate.queryForObject("select id from orders where customer_email = 'numbat@search.test'",
+                Long.class);
+        jdbcTemplate.update("insert into order_items (order_id, product_name, quantity, price) "
+                + "values (?, 'Echidna Mug', 1, 12.00)", orderId);
+        
+        orderSearchIndex.refresh();
+        
+        mockMvc.perform(get("/api/orders/search").param("q", "numbat echid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(1))
+                .andExpect(jsonPath("$.results[0].id").value(orderId));
+    }
 }
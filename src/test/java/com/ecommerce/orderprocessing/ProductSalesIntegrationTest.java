@@ -0,0 +1,188 @@
+package com.ecommerce.orderprocessing;
+
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesBucketResponse;
+import com.ecommerce.orderprocessing.dto.ProductSalesResponse;
+import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.model.SalesBucket;
+import com.ecommerce.orderprocessing.model.SalesRanking;
+import com.ecommerce.orderprocessing.model.SchedulerNode;
+import com.ecommerce.orderprocessing.repository.SchedulerNodeRepository;
+import com.ecommerce.orderprocessing.service.OrderService;
+import com.ecommerce.orderprocessing.service.ProductSalesService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for product sales aggregation, comparing the raw and rollup query paths
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:salesdb",
+        "orders.analytics.rollup.enabled=true"
+})
+@AutoConfigureMockMvc
+class ProductSalesIntegrationTest {
+    
+    private static final EnumSet<OrderStatus> ALL_STATUSES = EnumSet.allOf(OrderStatus.class);
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private ProductSalesService productSalesService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SchedulerNodeRepository schedulerNodeRepository;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    private final LocalDate today = LocalDate.now();
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        
+        OrderResponse old = createOrder(item("Widget", 2, "10.00"), item("Gadget", 1, "99.50"));
+        createOrder(item("Widget", 5, "10.00"));
+        createOrder(item("Gadget", 3, "99.50"), item("Widget", 1, "12.00"), item("Widget", 1, "12.00"));
+        
+        // @CreationTimestamp ignores provided values, so move one order back after the fact
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(today.minusDays(3).atTime(14, 30)), old.getId());
+        productSalesService.rebuildRollup();
+    }
+    
+    @Test
+    void rollupMatchesRawAggregation() {
+        LocalDateTime from = today.minusDays(7).atStartOfDay();
+        LocalDateTime to = today.plusDays(1).atStartOfDay();
+        
+        List<ProductSalesResponse> rollup = productSalesService.getTopProducts(from, to, null, SalesRanking.REVENUE, 10);
+        List<ProductSalesResponse> raw = productSalesService.getTopProducts(from, to, ALL_STATUSES, SalesRanking.REVENUE, 10);
+        
+        assertEquals(raw, rollup);
+        assertEquals("Gadget", rollup.get(0).getProductName());
+        assertEquals(4, rollup.get(0).getUnits());
+        assertEquals(0, new BigDecimal("398.00").compareTo(rollup.get(0).getRevenue()));
+        assertEquals("Widget", rollup.get(1).getProductName());
+        assertEquals(9, rollup.get(1).getUnits());
+        
+        List<ProductSalesBucketResponse> rollupDays = productSalesService.getSalesByBucket(from, to, null, SalesBucket.DAY, "Widget");
+        List<ProductSalesBucketResponse> rawDays = productSalesService.getSalesByBucket(from, to, ALL_STATUSES, SalesBucket.DAY, "Widget");
+        
+        assertEquals(rawDays, rollupDays);
+        assertEquals(2, rollupDays.size());
+        assertEquals(today.minusDays(3).atStartOfDay(), rollupDays.get(0).getBucketStart());
+        assertEquals(2, rollupDays.get(0).getUnits());
+        assertEquals(7, rollupDays.get(1).getUnits());
+    }
+    
+    @Test
+    void newOrdersAreAddedToRollupOnCommit() {
+        createOrder(item("Widget", 10, "10.00"));
+        
+        LocalDateTime from = today.atStartOfDay();
+        LocalDateTime to = today.plusDays(1).atStartOfDay();
+        List<ProductSalesResponse> rollup = productSalesService.getTopProducts(from, to, null, SalesRanking.UNITS, 10);
+        List<ProductSalesResponse> raw = productSalesService.getTopProducts(from, to, ALL_STATUSES, SalesRanking.UNITS, 10);
+        
+        assertEquals(raw, rollup);
+        assertEquals("Widget", rollup.get(0).getProductName());
+        assertEquals(17, rollup.get(0).getUnits());
+    }
+    
+    @Test
+    void startupRebuildIsSkippedWhileOtherNodesAreLive() {
+        schedulerNodeRepository.save(new SchedulerNode("other-node", LocalDateTime.now()));
+        try {
+            jdbcTemplate.update("DELETE FROM product_sales_rollup");
+            productSalesService.start();
+            assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_sales_rollup", Integer.class));
+        } finally {
+            schedulerNodeRepository.deleteById("other-node");
+        }
+        
+        productSalesService.start();
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_sales_rollup", Integer.class));
+    }
+    
+    @Test
+    void statusFilterAndHourlyBucketsUseRawOrders() {
+        LocalDateTime from = today.minusDays(7).atStartOfDay();
+        LocalDateTime to = today.plusDays(1).atStartOfDay();
+        
+        assertTrue(productSalesService.getTopProducts(from, to, List.of(OrderStatus.DELIVERED), SalesRanking.REVENUE, 10).isEmpty());
+        
+        List<ProductSalesBucketResponse> hours = productSalesService.getSalesByBucket(from, to, null, SalesBucket.HOUR, "Gadget");
+        assertEquals(today.minusDays(3).atTime(14, 0), hours.get(0).getBucketStart());
+        assertEquals(1, hours.get(0).getUnits());
+    }
+    
+    @Test
+    void invalidRangeAndLimitAreRejected() {
+        LocalDateTime now = LocalDateTime.now();
+        
+        assertThrows(InvalidOrderOperationException.class,
+                () -> productSalesService.getTopProducts(now, now, null, SalesRanking.REVENUE, 10));
+        assertThrows(InvalidOrderOperationException.class,
+                () -> productSalesService.getTopProducts(now.minusDays(1), now, null, SalesRanking.REVENUE, 0));
+    }
+    
+    @Test
+    void topProductsEndpoint() throws Exception {
+        mockMvc.perform(get("/api/analytics/products/top")
+                        .param("from", today.minusDays(7).atStartOfDay().toString())
+                        .param("to", today.plusDays(1).atStartOfDay().toString())
+                        .param("rankBy", "UNITS")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].productName").value("Widget"))
+                .andExpect(jsonPath("$[0].units").value(9));
+        
+        mockMvc.perform(get("/api/analytics/products/sales")
+                        .param("from", today.plusDays(1).atStartOfDay().toString())
+                        .param("to", today.atStartOfDay().toString()))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private OrderResponse createOrder(OrderItemRequest... items) {
+        return orderService.createOrder(OrderRequest.builder()
+                .customerName("Sales Test")
+                .customerEmail("sales@test.com")
+                .items(List.of(items))
+                .build());
+    }
+    
+    private static OrderItemRequest item(String productName, int quantity, String price) {
+        return OrderItemRequest.builder()
+                .productName(productName)
+                .quantity(quantity)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
@@ -0,0 +1,255 @@
+package com.ecommerce.orderprocessing;
+
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.dto.OrderStatusUpdateRequest;
+import com.ecommerce.orderprocessing.model.Order;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the second-level cache on delivered and cancelled orders
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:l2cachedb",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SecondLevelCacheIntegrationTest {
+    
+    private static final int SETTLED_ORDERS = 40;
+    private static final int PENDING_ORDERS = 10;
+    private static final BigDecimal ORIGINAL_TOTAL = new BigDecimal("30.00");
+    private static final BigDecimal REPAIRED_TOTAL = new BigDecimal("25.00");
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Statistics statistics;
+    
+    private final List<Long> settledIds = new ArrayList<>();
+    private final List<Long> pendingIds = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        for (int i = 0; i < SETTLED_ORDERS; i++) {
+            Long id = createOrder();
+            orderService.updateOrderStatus(id, OrderStatus.PROCESSING);
+            orderService.updateOrderStatus(id, OrderStatus.SHIPPED);
+            orderService.updateOrderStatus(id, OrderStatus.DELIVERED);
+            settledIds.add(id);
+        }
+        for (int i = 0; i < PENDING_ORDERS; i++) {
+            pendingIds.add(createOrder());
+        }
+    }
+    
+    @Test
+    void onlySettledOrdersAreCached() {
+        Long settled = settledIds.get(0);
+        Long pending = pendingIds.get(0);
+        
+        orderService.getOrderById(settled);
+        orderService.getOrderById(pending);
+        
+        assertTrue(entityManagerFactory.getCache().contains(Order.class, settled));
+        assertFalse(entityManagerFactory.getCache().contains(Order.class, pending));
+        
+        statistics.clear();
+        assertEquals(3, orderService.getOrderById(settled).getItems().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getSecondLevelCacheMissCount());
+    }
+    
+    @Test
+    void claimingPendingOrdersKeepsSettledOrdersCached() {
+        Long settled = settledIds.get(0);
+        orderService.getOrderById(settled);
+        
+        assertTrue(orderService.processPendingOrder(pendingIds.get(0)));
+        
+        assertTrue(entityManagerFactory.getCache().contains(Order.class, settled));
+    }
+    
+    @Test
+    void shippedOrderIsNotCached() {
+        Long id = shippedOrder();
+        
+        orderService.updateOrderStatus(id, OrderStatus.DELIVERED);
+        
+        assertEquals(OrderStatus.DELIVERED, orderService.getOrderById(id).getStatus());
+        assertTrue(entityManagerFactory.getCache().contains(Order.class, id));
+    }
+    
+    @Test
+    void deliveryOnAnotherNodeIsVisible() {
+        Long id = shippedOrder();
+        assertEquals(OrderStatus.SHIPPED, orderService.getEncodedOrderById(id).getStatus());
+        
+        // Another node delivers the order; nothing is evicted on this one
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                assertEquals(1, orderRepository.updateStatusIfCurrent(List.of(id), OrderStatus.SHIPPED,
+                        OrderStatus.DELIVERED, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS))));
+        
+        assertEquals(OrderStatus.DELIVERED, orderService.getOrderById(id).getStatus());
+        assertEquals(OrderStatus.DELIVERED, orderService.getEncodedOrderById(id).getStatus());
+    }
+    
+    @Test
+    void readBeforeCommitOfNativeUpdateDoesNotCacheOldRow() {
+        Long id = deliveredOrder();
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(1, setTotal(id, REPAIRED_TOTAL));
+            orderRepository.evictCachedOrders(List.of(id));
+            // Another request reads the committed row and tries to cache it
+            assertEquals(0, ORIGINAL_TOTAL.compareTo(
+                    CompletableFuture.supplyAsync(() -> orderService.getOrderById(id).getTotalAmount()).join()));
+        });
+        
+        assertEquals(0, REPAIRED_TOTAL.compareTo(orderService.getOrderById(id).getTotalAmount()));
+        assertEquals(0, REPAIRED_TOTAL.compareTo(orderService.getOrderById(id).getTotalAmount()));
+    }
+    
+    @Test
+    void bulkDeliveryIsVisibleAfterReadDuringCommit() {
+        Long first = shippedOrder();
+        Long second = shippedOrder();
+        
+        // The outer transaction holds the bulk update open while another request reads both orders
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(2, orderService.updateOrderStatuses(List.of(
+                    new OrderStatusUpdateRequest(first, OrderStatus.DELIVERED),
+                    new OrderStatusUpdateRequest(second, OrderStatus.DELIVERED))).getUpdated());
+            CompletableFuture.runAsync(() -> {
+                assertEquals(OrderStatus.SHIPPED, orderService.getOrderById(first).getStatus());
+                assertEquals(OrderStatus.SHIPPED, orderService.getEncodedOrderById(second).getStatus());
+            }).join();
+        });
+        
+        assertEquals(OrderStatus.DELIVERED, orderService.getOrderById(first).getStatus());
+        assertEquals(OrderStatus.DELIVERED, orderService.getEncodedOrderById(second).getStatus());
+        assertEquals(OrderStatus.DELIVERED, orderService.getOrderById(second).getStatus());
+    }
+    
+    @Test
+    void rolledBackNativeUpdateReleasesCacheEntry() {
+        Long id = deliveredOrder();
+        
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            setTotal(id, REPAIRED_TOTAL);
+            orderRepository.evictCachedOrders(List.of(id));
+            status.setRollbackOnly();
+        });
+        
+        assertEquals(0, ORIGINAL_TOTAL.compareTo(orderService.getOrderById(id).getTotalAmount()));
+        statistics.clear();
+        assertEquals(0, ORIGINAL_TOTAL.compareTo(orderService.getOrderById(id).getTotalAmount()));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void readHeavyWorkloadHitsDatabaseLess() {
+        int reads = 2000;
+        SplittableRandom random = new SplittableRandom(7);
+        statistics.clear();
+        
+        for (int i = 0; i < reads; i++) {
+            List<Long> ids = random.nextInt(100) < 80 ? settledIds : pendingIds;
+            orderService.getOrderById(ids.get(random.nextInt(ids.size())));
+        }
+        
+        // Without the cache every read runs one query for the order and one for its items
+        long uncachedStatements = 2L * reads;
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        double hitRatio = (double) hits / (hits + statistics.getSecondLevelCacheMissCount());
+        assertTrue(statements < uncachedStatements / 3,
+                "expected most settled reads to be served from the cache, got " + statements + " statements");
+        // Four in five reads are of settled orders, each missing the cache only on its first read
+        assertTrue(hitRatio > 0.7, "expected a hit ratio above 0.7, got " + hitRatio);
+    }
+    
+    /**
+     * A shipped order that was read but not cached
+     */
+    private Long shippedOrder() {
+        Long id = createOrder();
+        orderService.updateOrderStatus(id, OrderStatus.PROCESSING);
+        orderService.updateOrderStatus(id, OrderStatus.SHIPPED);
+        assertEquals(OrderStatus.SHIPPED, orderService.getOrderById(id).getStatus());
+        assertFalse(entityManagerFactory.getCache().contains(Order.class, id));
+        return id;
+    }
+    
+    /**
+     * A delivered order that is in the cache
+     */
+    private Long deliveredOrder() {
+        Long id = shippedOrder();
+        orderService.updateOrderStatus(id, OrderStatus.DELIVERED);
+        orderService.getOrderById(id);
+        assertTrue(entityManagerFactory.getCache().contains(Order.class, id));
+        return id;
+    }
+    
+    /**
+     * Change the stored total behind Hibernate's back, as the reconciliation repair does
+     */
+    private int setTotal(Long id, BigDecimal total) {
+        return jdbcTemplate.update("update orders set total_amount = ?, updated_at = ? where id = ?",
+                total, LocalDateTime.now().truncatedTo(ChronoUnit.MICROS), id);
+    }
+    
+    private Long createOrder() {
+        List<OrderItemRequest> items = List.of(item("Laptop"), item("Mouse"), item("Keyboard"));
+        return orderService.createOrder(OrderRequest.builder()
+                .customerName("Cache Test")
+                .customerEmail("cache@test.com")
+                .items(items)
+                .build()).getId();
+    }
+    
+    private static OrderItemRequest item(String productName) {
+        return OrderItemRequest.builder()
+                .productName(productName)
+                .quantity(1)
+                .price(new BigDecimal("10.00"))
+                .build();
+    }
+}
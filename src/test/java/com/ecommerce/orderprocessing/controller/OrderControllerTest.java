@@ -1,23 +1,37 @@
 package com.ecommerce.orderprocessing.controller;
 
+import com.ecommerce.orderprocessing.cache.EncodedOrderResponse;
+import com.ecommerce.orderprocessing.dto.BulkStatusUpdateResponse;
+import com.ecommerce.orderprocessing.dto.OrderFilter;
+import com.ecommerce.orderprocessing.dto.OrderFilterResponse;
 import com.ecommerce.orderprocessing.dto.OrderItemRequest;
 import com.ecommerce.orderprocessing.dto.OrderRequest;
 import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.OrderStatusUpdateRequest;
+import com.ecommerce.orderprocessing.dto.StatusUpdateOutcome;
+import com.ecommerce.orderprocessing.dto.StatusUpdateResult;
 import com.ecommerce.orderprocessing.model.OrderStatus;
 import com.ecommerce.orderprocessing.service.OrderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -94,18 +108,92 @@ class OrderControllerTest {
     
     @Test
     void getOrderById_Success() throws Exception {
-        when(orderService.getOrderById(1L)).thenReturn(testOrderResponse);
+        when(orderService.getEncodedOrderById(1L)).thenReturn(encode(testOrderResponse, null));
         
         mockMvc.perform(get("/api/orders/1"))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.customerName").value("John Doe"));
     }
     
+    @Test
+    void getOrderById_GzipAccepted() throws Exception {
+        byte[] gzipped = {31, -117, 8, 0};
+        when(orderService.getEncodedOrderById(1L)).thenReturn(encode(testOrderResponse, gzipped));
+        
+        mockMvc.perform(get("/api/orders/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(content().bytes(gzipped));
+    }
+    
+    @Test
+    void getOrderById_GzipNotAccepted() throws Exception {
+        byte[] gzipped = {31, -117, 8, 0};
+        when(orderService.getEncodedOrderById(1L)).thenReturn(encode(testOrderResponse, gzipped));
+        
+        mockMvc.perform(get("/api/orders/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+    
+    @Test
+    void getOrderById_GzipRefusedByQValue() throws Exception {
+        byte[] gzipped = {31, -117, 8, 0};
+        when(orderService.getEncodedOrderById(1L)).thenReturn(encode(testOrderResponse, gzipped));
+        
+        mockMvc.perform(get("/api/orders/1").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.id").value(1));
+    }
+    
+    @Test
+    void acceptsGzipHonoursQValuesAndWildcards() {
+        assertTrue(OrderController.acceptsGzip("GZIP"));
+        assertTrue(OrderController.acceptsGzip("deflate, gzip;q=0.5"));
+        assertTrue(OrderController.acceptsGzip("*"));
+        assertTrue(OrderController.acceptsGzip("br, x-gzip ; Q=1.0"));
+        assertFalse(OrderController.acceptsGzip("gzip;q=0"));
+        assertFalse(OrderController.acceptsGzip("gzip;q=0.000, *"));
+        assertFalse(OrderController.acceptsGzip("*;q=0"));
+        assertFalse(OrderController.acceptsGzip("identity, deflate"));
+        assertFalse(OrderController.acceptsGzip("notgzip"));
+    }
+    
+    @Test
+    void createOrder_Cbor() throws Exception {
+        CBORMapper cborMapper = CBORMapper.builder().findAndAddModules().build();
+        when(orderService.createOrder(testOrderRequest)).thenReturn(testOrderResponse);
+        
+        byte[] body = mockMvc.perform(post("/api/orders")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(testOrderRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        
+        assertEquals(testOrderResponse, cborMapper.readValue(body, OrderResponse.class));
+    }
+    
+    @Test
+    void getOrderById_Cbor() throws Exception {
+        byte[] cbor = {(byte) 0xbf, (byte) 0xff};
+        when(orderService.getCborOrderById(1L)).thenReturn(cbor);
+        
+        mockMvc.perform(get("/api/orders/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(content().bytes(cbor));
+    }
+    
     @Test
     void getAllOrders_Success() throws Exception {
         List<OrderResponse> orders = Collections.singletonList(testOrderResponse);
-        when(orderService.getAllOrders(null)).thenReturn(orders);
+        when(orderService.getAllOrders(null, null)).thenReturn(orders);
         
         mockMvc.perform(get("/api/orders"))
                 .andExpect(status().isOk())
@@ -116,13 +204,57 @@ class OrderControllerTest {
     @Test
     void getAllOrders_WithStatusFilter() throws Exception {
         List<OrderResponse> orders = Collections.singletonList(testOrderResponse);
-        when(orderService.getAllOrders(OrderStatus.PENDING)).thenReturn(orders);
+        when(orderService.getAllOrders(OrderStatus.PENDING, null)).thenReturn(orders);
         
         mockMvc.perform(get("/api/orders?status=PENDING"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].status").value("PENDING"));
     }
     
+    @Test
+    void getAllOrders_WithFields() throws Exception {
+        OrderResponse sparse = OrderResponse.builder()
+                .id(1L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("100.00"))
+                .build();
+        when(orderService.getAllOrders(null, "id,status,totalAmount")).thenReturn(List.of(sparse));
+        
+        mockMvc.perform(get("/api/orders?fields=id,status,totalAmount"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].totalAmount").value(100.00))
+                .andExpect(jsonPath("$[0].customerName").doesNotExist())
+                .andExpect(jsonPath("$[0].items").doesNotExist());
+    }
+    
+    @Test
+    void filterOrders_Success() throws Exception {
+        OrderFilter filter = OrderFilter.builder()
+                .statuses(Set.of(OrderStatus.PENDING, OrderStatus.PROCESSING))
+                .createdFrom(LocalDateTime.of(2025, 10, 1, 0, 0))
+                .minAmount(new BigDecimal("100"))
+                .build();
+        OrderFilterResponse response = OrderFilterResponse.builder()
+                .size(1)
+                .hasNext(true)
+                .nextCursor("next")
+                .results(List.of(testOrderResponse))
+                .build();
+        when(orderService.filterOrders(filter, "prev", 1, null)).thenReturn(response);
+        
+        mockMvc.perform(get("/api/orders/filter")
+                        .param("status", "PENDING", "PROCESSING")
+                        .param("createdFrom", "2025-10-01T00:00:00")
+                        .param("minAmount", "100")
+                        .param("cursor", "prev")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.results[0].id").value(1));
+    }
+    
     @Test
     void updateOrderStatus_Success() throws Exception {
         testOrderResponse.setStatus(OrderStatus.PROCESSING);
@@ -134,6 +266,32 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.status").value("PROCESSING"));
     }
     
+    @Test
+    void updateOrderStatuses_Success() throws Exception {
+        List<OrderStatusUpdateRequest> updates = List.of(
+                new OrderStatusUpdateRequest(1L, OrderStatus.SHIPPED),
+                new OrderStatusUpdateRequest(2L, OrderStatus.SHIPPED));
+        BulkStatusUpdateResponse response = BulkStatusUpdateResponse.builder()
+                .requested(2)
+                .updated(1)
+                .rejected(1)
+                .results(List.of(
+                        StatusUpdateResult.builder().id(1L).status(OrderStatus.SHIPPED)
+                                .previousStatus(OrderStatus.PROCESSING).outcome(StatusUpdateOutcome.UPDATED).build(),
+                        StatusUpdateResult.builder().id(2L).status(OrderStatus.SHIPPED)
+                                .outcome(StatusUpdateOutcome.NOT_FOUND).message("Order not found with ID: 2").build()))
+                .build();
+        when(orderService.updateOrderStatuses(updates)).thenReturn(response);
+        
+        mockMvc.perform(put("/api/orders/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updates)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"));
+    }
+    
     @Test
     void cancelOrder_Success() throws Exception {
         testOrderResponse.setStatus(OrderStatus.CANCELLED);
@@ -143,4 +301,33 @@ class OrderControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.status").value("CANCELLED"));
     }
+    
+    @Test
+    void cancelOrders_Success() throws Exception {
+        BulkStatusUpdateResponse response = BulkStatusUpdateResponse.builder()
+                .requested(2)
+                .updated(1)
+                .rejected(1)
+                .results(List.of(
+                        StatusUpdateResult.builder().id(1L).status(OrderStatus.CANCELLED)
+                                .previousStatus(OrderStatus.PENDING).outcome(StatusUpdateOutcome.UPDATED).build(),
+                        StatusUpdateResult.builder().id(2L).status(OrderStatus.CANCELLED)
+                                .previousStatus(OrderStatus.SHIPPED).outcome(StatusUpdateOutcome.INVALID_TRANSITION)
+                                .build()))
+                .build();
+        when(orderService.cancelOrders(List.of(1L, 2L))).thenReturn(response);
+        
+        mockMvc.perform(post("/api/orders/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.results[1].previousStatus").value("SHIPPED"))
+                .andExpect(jsonPath("$.results[1].outcome").value("INVALID_TRANSITION"));
+    }
+    
+    private EncodedOrderResponse encode(OrderResponse response, byte[] gzipped) throws Exception {
+        return new EncodedOrderResponse(response.getId(), response.getStatus(), response.getUpdatedAt(),
+                objectMapper.writeValueAsBytes(response), gzipped);
+    }
 }
@@ -0,0 +1,110 @@
+package com.ecommerce.orderprocessing.datagen;
+
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+    
+    private static final LocalDateTime END_TIME = LocalDateTime.of(2025, 1, 1, 0, 0);
+    
+    @Test
+    void sameSpecGeneratesIdenticalRows() {
+        GenerationSpec spec = spec(2_000).build();
+        JdbcTemplate first = generate("datagen_a", spec);
+        JdbcTemplate second = generate("datagen_b", spec);
+        
+        String orders = "select id, customer_name, customer_email, status, total_amount, created_at, updated_at " +
+                "from orders order by id";
+        String items = "select id, order_id, product_name, quantity, price from order_items order by id";
+        assertEquals(first.queryForList(orders), second.queryForList(orders));
+        assertEquals(first.queryForList(items), second.queryForList(items));
+    }
+    
+    @Test
+    void rowsFollowTheConfiguredDistributions() {
+        JdbcTemplate jdbc = generate("datagen_mix", spec(20_000)
+                .statusMix(GenerationSpec.parseStatusMix("PENDING:20,DELIVERED:80"))
+                .itemsPerOrder(GenerationSpec.parseItemsPerOrder("1:50,3:50"))
+                .build());
+        
+        assertEquals(20_000, jdbc.queryForObject("select count(*) from orders", Long.class));
+        long pending = jdbc.queryForObject("select count(*) from orders where status = ?", Long.class,
+                OrderStatus.PENDING.name());
+        long delivered = jdbc.queryForObject("select count(*) from orders where status = ?", Long.class,
+                OrderStatus.DELIVERED.name());
+        assertEquals(20_000, pending + delivered);
+        assertEquals(0.2, pending / 20_000.0, 0.02);
+        
+        List<Long> itemCounts = jdbc.queryForList(
+                "select count(*) from order_items group by order_id", Long.class);
+        assertEquals(20_000, itemCounts.size());
+        assertTrue(itemCounts.stream().allMatch(count -> count == 1 || count == 3));
+        assertEquals(2.0, itemCounts.stream().mapToLong(Long::longValue).average().orElseThrow(), 0.05);
+        
+        // Totals match the items and timestamps stay inside the window
+        assertEquals(0, jdbc.queryForObject("select count(*) from orders o where o.total_amount <> " +
+                "(select sum(i.price * i.quantity) from order_items i where i.order_id = o.id)", Long.class));
+        assertEquals(0, jdbc.queryForObject("select count(*) from orders where updated_at < created_at " +
+                "or updated_at > ? or created_at < ?", Long.class, END_TIME, END_TIME.minusDays(365)));
+    }
+    
+    @Test
+    void customersAreZipfSkewed() {
+        JdbcTemplate jdbc = generate("datagen_zipf", spec(20_000).customers(10_000).skew(1.0).build());
+        
+        List<Long> perCustomer = jdbc.queryForList(
+                "select count(*) c from orders group by customer_email order by c desc", Long.class);
+        // With exponent 1 over 10k customers the top one gets roughly 1 / H(10000) ~ 10% of orders
+        assertEquals(0.1, perCustomer.get(0) / 20_000.0, 0.02);
+        assertTrue(perCustomer.get(0) > 50 * perCustomer.get(perCustomer.size() / 2));
+    }
+    
+    @Test
+    void failedRunKeepsIdentityPastCommittedBatches() {
+        JdbcTemplate jdbc = generate("datagen_failure", spec(100).build());
+        // Fails the third batch of the next run
+        jdbc.execute("alter table orders add constraint fail_third_batch check (id < 150)");
+        
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(jdbc.getDataSource());
+        assertThrows(IllegalStateException.class, () -> generator.generate(spec(100).seed(7).batchSize(20).build()));
+        
+        assertEquals(140, jdbc.queryForObject("select count(*) from orders", Long.class));
+        jdbc.update("insert into orders (customer_name, customer_email, status, total_amount, created_at, updated_at) " +
+                "values ('New', 'new@example.com', 'PENDING', 0, ?, ?)", END_TIME, END_TIME);
+        assertEquals(141, jdbc.queryForObject("select max(id) from orders", Long.class));
+    }
+    
+    @Test
+    void appendsAfterExistingRowsAndKeepsIdentityUsable() {
+        JdbcTemplate jdbc = generate("datagen_append", spec(100).build());
+        new SyntheticDataGenerator(jdbc.getDataSource()).generate(spec(50).seed(7).build());
+        
+        assertEquals(150, jdbc.queryForObject("select count(*) from orders", Long.class));
+        jdbc.update("insert into orders (customer_name, customer_email, status, total_amount, created_at, updated_at) " +
+                "values ('New', 'new@example.com', 'PENDING', 0, ?, ?)", END_TIME, END_TIME);
+        assertEquals(151, jdbc.queryForObject("select max(id) from orders", Long.class));
+    }
+    
+    private static GenerationSpec.GenerationSpecBuilder spec(int orders) {
+        return GenerationSpec.builder().orders(orders).endTime(END_TIME).batchSize(1_000);
+    }
+    
+    private static JdbcTemplate generate(String database, GenerationSpec spec) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        
+        GenerationResult result = new SyntheticDataGenerator(dataSource).generate(spec);
+        assertEquals(spec.getOrders(), result.getOrders());
+        return new JdbcTemplate(dataSource);
+    }
+}
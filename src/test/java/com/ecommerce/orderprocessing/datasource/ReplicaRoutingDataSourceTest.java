@@ -0,0 +1,96 @@
+package com.ecommerce.orderprocessing.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests routing between two local H2 databases standing in for the primary and the replica
+ */
+class ReplicaRoutingDataSourceTest {
+    
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary", "primary");
+        DataSource replica = database("routing_replica", "replica");
+        
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(primary, replica, new ReadYourWritesTracker(60_000)));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        
+        jdbcTemplate = new JdbcTemplate(routing);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        ReadYourWritesTracker.clearCurrentClient();
+    }
+    
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        ReadYourWritesTracker.setCurrentClient("client-a");
+        
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+    
+    @Test
+    void writeTransactionUsesPrimary() {
+        ReadYourWritesTracker.setCurrentClient("client-a");
+        
+        assertEquals("primary", writeTransaction.execute(status -> currentDatabase()));
+    }
+    
+    @Test
+    void readAfterOwnWriteUsesPrimary() {
+        ReadYourWritesTracker.setCurrentClient("client-a");
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("update marker set updates = updates + 1"));
+        
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+        
+        // Another client's reads are unaffected
+        ReadYourWritesTracker.setCurrentClient("client-b");
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+    
+    @Test
+    void rolledBackWriteDoesNotPinClientToPrimary() {
+        ReadYourWritesTracker.setCurrentClient("client-a");
+        writeTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("update marker set updates = updates + 1");
+            status.setRollbackOnly();
+        });
+        
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+    
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select name from marker", String.class);
+    }
+    
+    private static DataSource database(String name, String marker) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists marker (name varchar(20), updates int)");
+        jdbc.update("delete from marker");
+        jdbc.update("insert into marker values (?, 0)", marker);
+        return dataSource;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.orderprocessing.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLoggingInterceptorTest {
+    
+    private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingInterceptor.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    
+    @BeforeEach
+    void attachAppender() {
+        appender.start();
+        logger.addAppender(appender);
+        logger.setLevel(ch.qos.logback.classic.Level.DEBUG);
+    }
+    
+    @AfterEach
+    void detachAppender() {
+        logger.detachAppender(appender);
+        logger.setLevel(null);
+    }
+    
+    @Test
+    void logsOrderIdAndLatencyAsFieldsAndClearsTheMdc() throws Exception {
+        RequestLoggingInterceptor interceptor = new RequestLoggingInterceptor(100, 500);
+        MockHttpServletRequest request = request("/api/orders/42", Map.of("id", "42"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        interceptor.preHandle(request, response, new Object());
+        assertEquals("42", MDC.get(RequestLoggingInterceptor.ORDER_ID_KEY));
+        interceptor.afterCompletion(request, response, new Object(), null);
+        
+        assertNull(MDC.get(RequestLoggingInterceptor.ORDER_ID_KEY));
+        ILoggingEvent event = appender.list.get(0);
+        Map<String, Object> fields = event.getKeyValuePairs().stream()
+                .collect(Collectors.toMap(pair -> pair.key, pair -> pair.value));
+        assertEquals("42", event.getMDCPropertyMap().get("orderId"));
+        assertFalse(fields.containsKey("orderId"));
+        assertEquals(200, fields.get("status"));
+        assertTrue(fields.get("latencyMs") instanceof Long);
+        assertEquals("/api/orders/42", fields.get("path"));
+    }
+    
+    @Test
+    void onlySampledSlowAndFailedRequestsAreLoggedAtInfo() {
+        RequestLoggingInterceptor interceptor = new RequestLoggingInterceptor(10, 500);
+        
+        List<Level> levels = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            levels.add(interceptor.levelFor(200, 5));
+        }
+        assertEquals(2, levels.stream().filter(level -> level == Level.INFO).count());
+        assertEquals(Level.INFO, interceptor.levelFor(503, 5));
+        assertEquals(Level.INFO, interceptor.levelFor(200, 800));
+    }
+    
+    private static MockHttpServletRequest request(String path, Map<String, String> variables) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+        return request;
+    }
+}
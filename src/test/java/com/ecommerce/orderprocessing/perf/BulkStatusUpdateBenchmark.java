@@ -0,0 +1,102 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ships a batch of PROCESSING orders once through the single-order status endpoint, one request
+ * per order, and once through the bulk endpoint, over HTTP against a synthetic data set.
+ * Run with: mvn -Pbenchmark test -Dtest=BulkStatusUpdateBenchmark -Dbenchmark.batch=1000
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:bulkstatusbench")
+class BulkStatusUpdateBenchmark {
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final HttpClient client = HttpClient.newHttpClient();
+    
+    @Test
+    void bulkVersusSingleUpdates() throws Exception {
+        int batch = Integer.getInteger("benchmark.batch", 1_000);
+        int orders = Integer.getInteger("benchmark.orders", 100_000);
+        generator.generate(GenerationSpec.builder()
+                .orders(orders)
+                .statusMix(GenerationSpec.parseStatusMix("PROCESSING:1"))
+                .build());
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select id from orders where status = 'PROCESSING' order by id limit ?", Long.class, 3 * batch);
+        
+        // Warm up both paths on orders that are not measured
+        shipOneByOne(ids.subList(0, batch / 2));
+        shipInBulk(ids.subList(batch / 2, batch));
+        
+        long start = System.nanoTime();
+        shipOneByOne(ids.subList(batch, 2 * batch));
+        double singleMs = (System.nanoTime() - start) / 1e6;
+        
+        start = System.nanoTime();
+        shipInBulk(ids.subList(2 * batch, 3 * batch));
+        double bulkMs = (System.nanoTime() - start) / 1e6;
+        
+        Integer shipped = jdbcTemplate.queryForObject(
+                "select count(*) from orders where status = 'SHIPPED'", Integer.class);
+        System.out.printf(Locale.ROOT, "%n=== Status update of %d orders (%d in database) ===%n", batch, orders);
+        System.out.printf(Locale.ROOT, "single endpoint: %.0f ms (%.2f ms/order)%n", singleMs, singleMs / batch);
+        System.out.printf(Locale.ROOT, "bulk endpoint:   %.0f ms (%.3f ms/order, %.1fx)%n",
+                bulkMs, bulkMs / batch, singleMs / bulkMs);
+        assertEquals(3 * batch, shipped);
+        assertTrue(singleMs / bulkMs >= 20, "bulk update should be at least 20x faster");
+    }
+    
+    private void shipOneByOne(List<Long> ids) throws Exception {
+        for (long id : ids) {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder()
+                            .uri(URI.create("http://localhost:" + port + "/api/orders/" + id + "/status?status=SHIPPED"))
+                            .PUT(HttpRequest.BodyPublishers.noBody())
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode());
+        }
+    }
+    
+    private void shipInBulk(List<Long> ids) throws Exception {
+        String body = ids.stream()
+                .map(id -> "{\"id\":" + id + ",\"status\":\"" + OrderStatus.SHIPPED + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/api/orders/status"))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode());
+        assertTrue(response.body().contains("\"rejected\":0"), response.body());
+    }
+}
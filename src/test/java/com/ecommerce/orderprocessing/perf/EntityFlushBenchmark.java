@@ -0,0 +1,113 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.model.Order;
+import com.ecommerce.orderprocessing.model.OrderItem;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flush cost with many managed orders in one persistence context.
+ * With bytecode-enhanced dirty tracking a flush only visits entities that recorded a change
+ * instead of comparing every loaded entity against its snapshot.
+ * Run with: mvn -Pbenchmark test -Dtest=EntityFlushBenchmark -Dbenchmark.orders=20000
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:flushbench")
+class EntityFlushBenchmark {
+    
+    private static final int ITEMS_PER_ORDER = 3;
+    private static final int DIRTY_PER_FLUSH = 10;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void flushCostWithManyManagedOrders() {
+        int orders = Integer.getInteger("benchmark.orders", 20_000);
+        seed(orders);
+        
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<Order> managed = entityManager.createQuery(
+                    "select distinct o from Order o left join fetch o.items", Order.class).getResultList();
+            assertEquals(orders, managed.size());
+            assertTrue(managed.get(0) instanceof SelfDirtinessTracker, "entities should be bytecode-enhanced");
+            
+            // Identity-based sets and logging must not walk the order <-> item graph
+            Set<Order> asSet = new HashSet<>(managed);
+            assertEquals(orders, asSet.size());
+            assertFalse(managed.get(0).toString().contains("items"));
+            
+            for (int round = 0; round < 20; round++) {
+                dirtyAndFlush(entityManager, managed, round);
+            }
+            
+            LatencyHistogram histogram = new LatencyHistogram();
+            for (int round = 0; round < 200; round++) {
+                long start = System.nanoTime();
+                dirtyAndFlush(entityManager, managed, round);
+                histogram.record(System.nanoTime() - start);
+            }
+            entityManager.getTransaction().rollback();
+            
+            System.out.printf(Locale.ROOT, "%n=== Flush: %d managed orders, %d items, %d dirty per flush ===%n",
+                    orders, orders * ITEMS_PER_ORDER, DIRTY_PER_FLUSH);
+            System.out.printf(Locale.ROOT, "flushes=%d p50=%.3f ms p99=%.3f ms max=%.3f ms%n",
+                    histogram.count(), histogram.percentile(50), histogram.percentile(99), histogram.percentile(100));
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    private static void dirtyAndFlush(EntityManager entityManager, List<Order> managed, int round) {
+        for (int i = 0; i < DIRTY_PER_FLUSH; i++) {
+            Order order = managed.get((round * DIRTY_PER_FLUSH + i) % managed.size());
+            order.setStatus(order.getStatus() == OrderStatus.PENDING ? OrderStatus.PROCESSING : OrderStatus.PENDING);
+        }
+        entityManager.flush();
+    }
+    
+    private void seed(int orders) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < orders; i++) {
+                Order order = Order.builder()
+                        .customerName("Flush Customer " + i)
+                        .customerEmail("flush" + i + "@example.com")
+                        .build();
+                for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                    order.addItem(OrderItem.builder()
+                            .productName("Product " + j)
+                            .quantity(j + 1)
+                            .price(new BigDecimal("9.99"))
+                            .build());
+                }
+                order.calculateTotalAmount();
+                entityManager.persist(order);
+                if (i % 500 == 499) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.orderprocessing.perf;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples for one operation and reports percentiles.
+ * Not thread-safe: each load thread keeps its own and they are merged at the end.
+ */
+class LatencyHistogram {
+    
+    private long[] samples = new long[1024];
+    private int count;
+    private int errors;
+    
+    void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+    
+    void recordError() {
+        errors++;
+    }
+    
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+        errors += other.errors;
+    }
+    
+    int count() {
+        return count;
+    }
+    
+    int errors() {
+        return errors;
+    }
+    
+    /**
+     * Percentile in milliseconds, e.g. percentile(99.0) for p99
+     */
+    double percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+}
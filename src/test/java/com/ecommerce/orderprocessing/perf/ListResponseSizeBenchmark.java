@@ -0,0 +1,100 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes on the wire and latency of GET /api/orders with and without gzip, over HTTP/1.1 and
+ * h2c, with all fields and with a sparse field set.
+ * Run with: mvn -Pbenchmark test -Dtest=ListResponseSizeBenchmark -Dbenchmark.orders=10000
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:listsizebench",
+        "server.compression.enabled=true",
+        "server.compression.mime-types=application/json",
+        "server.compression.min-response-size=2KB",
+        "server.http2.enabled=true"
+})
+class ListResponseSizeBenchmark {
+    
+    private static final String SPARSE_FIELDS = "id,status,totalAmount";
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Test
+    void compressionAndSparseFields() throws Exception {
+        int orders = Integer.getInteger("benchmark.orders", 10_000);
+        int rounds = Integer.getInteger("benchmark.rounds", 20);
+        generator.generate(GenerationSpec.builder()
+                .orders(orders)
+                .statusMix(GenerationSpec.parseStatusMix("DELIVERED:1"))
+                .build());
+        
+        HttpClient http1 = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpClient http2 = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+        
+        Result baseline = measure("HTTP/1.1 identity, all fields", http1, false, null, rounds);
+        Result gzip = measure("HTTP/1.1 gzip, all fields", http1, true, null, rounds);
+        Result h2Gzip = measure("h2c gzip, all fields", http2, true, null, rounds);
+        Result h2Sparse = measure("h2c gzip, " + SPARSE_FIELDS, http2, true, SPARSE_FIELDS, rounds);
+        
+        System.out.printf(Locale.ROOT, "%n=== GET /api/orders, %d orders ===%n", orders);
+        for (Result result : new Result[]{baseline, gzip, h2Gzip, h2Sparse}) {
+            System.out.printf(Locale.ROOT, "%-40s %-8s %,12d bytes (%5.1f%%) p50=%7.1f ms p99=%7.1f ms%n",
+                    result.name, result.version, result.bytes, 100.0 * result.bytes / baseline.bytes,
+                    result.latency.percentile(50), result.latency.percentile(99));
+        }
+        assertEquals(HttpClient.Version.HTTP_2, h2Gzip.version);
+        assertTrue(gzip.bytes < baseline.bytes / 4);
+        assertTrue(h2Sparse.bytes < gzip.bytes);
+    }
+    
+    private Result measure(String name, HttpClient client, boolean gzip, String fields, int rounds)
+            throws Exception {
+        URI uri = URI.create("http://localhost:" + port + "/api/orders" + (fields == null ? "" : "?fields=" + fields));
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).GET();
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        // Warm-up, also lets the HTTP/2 client finish the h2c upgrade
+        for (int i = 0; i < 3; i++) {
+            client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        }
+        
+        LatencyHistogram latency = new LatencyHistogram();
+        long bytes = 0;
+        HttpClient.Version version = null;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            latency.record(System.nanoTime() - start);
+            assertEquals(200, response.statusCode());
+            assertEquals(gzip, "gzip".equals(response.headers().firstValue("Content-Encoding").orElse(null)));
+            bytes = response.body().length;
+            version = response.version();
+        }
+        return new Result(name, version, bytes, latency);
+    }
+    
+    private record Result(String name, HttpClient.Version version, long bytes, LatencyHistogram latency) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.ecommerce.orderprocessing.perf;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Request-thread throughput of the previous logging (synchronous appender, four INFO lines per
+ * request) against the current one (async appender, per-request lines at DEBUG with one in a
+ * hundred sampled at INFO). Each simulated request does a little work besides logging.
+ * Run with: mvn -Pbenchmark test -Dtest=LoggingThroughputBenchmark -Dbenchmark.threads=8
+ */
+@Tag("benchmark")
+class LoggingThroughputBenchmark {
+    
+    private static final Path LOG_DIR = Paths.get("target", "logging-benchmark");
+    /** Keeps the simulated work from being optimized away */
+    private static volatile long blackhole;
+    
+    private static final String PATTERN = "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} : %m %mdc%n";
+    
+    @Test
+    void syncVersusAsyncSampled() throws Exception {
+        int threads = Integer.getInteger("benchmark.threads", 8);
+        int requests = Integer.getInteger("benchmark.requests", 50_000);
+        Files.createDirectories(LOG_DIR);
+        
+        run("warm-up sync", false, threads, requests / 5);
+        run("warm-up async", true, threads, requests / 5);
+        double sync = run("sync, INFO per call", false, threads, requests);
+        double async = run("async, sampled", true, threads, requests);
+        
+        System.out.printf(Locale.ROOT, "%n=== Logging: %d threads x %d requests ===%n", threads, requests);
+        System.out.printf(Locale.ROOT, "sync INFO per call: %,.0f req/s%n", sync);
+        System.out.printf(Locale.ROOT, "async sampled:      %,.0f req/s (%.1fx)%n", async, async / sync);
+        assertTrue(async > 0 && sync > 0);
+    }
+    
+    private double run(String name, boolean async, int threads, int requestsPerThread) throws Exception {
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger("com.ecommerce.orderprocessing.service.OrderService");
+        logger.setLevel(Level.INFO);
+        logger.setAdditive(false);
+        logger.addAppender(appender(context, name.replaceAll("\\W+", "-") + ".log", async));
+        
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong sink = new AtomicLong();
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                try {
+                    for (int i = 0; i < requestsPerThread; i++) {
+                        long orderId = (long) thread * requestsPerThread + i;
+                        sink.addAndGet(handle(logger, async, orderId, i));
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "request-" + t).start();
+        }
+        done.await();
+        double throughput = (double) threads * requestsPerThread / ((System.nanoTime() - start) / 1e9);
+        context.stop();
+        blackhole = sink.get();
+        return throughput;
+    }
+    
+    /**
+     * One simulated getOrderById call with its log lines
+     */
+    private static long handle(Logger logger, boolean current, long orderId, int request) {
+        long work = orderId;
+        if (current) {
+            MDC.put("orderId", Long.toString(orderId));
+            logger.debug("Fetching order with ID: {}", orderId);
+            work = simulateWork(work);
+            if (request % 100 == 0) {
+                logger.atInfo().addKeyValue("latencyMs", 3)
+                        .log("GET /api/orders/{} -> 200 in {} ms", orderId, 3);
+            } else {
+                logger.debug("GET /api/orders/{} -> 200", orderId);
+            }
+            MDC.remove("orderId");
+        } else {
+            logger.info("Fetching order with ID: {}", orderId);
+            work = simulateWork(work);
+            logger.info("Order {} loaded", orderId);
+            logger.info("Encoding order {} for response", orderId);
+            logger.info("GET /api/orders/{} -> 200", orderId);
+        }
+        return work;
+    }
+    
+    private static long simulateWork(long seed) {
+        long x = seed;
+        for (int i = 0; i < 2_000; i++) {
+            x = x * 6364136223846793005L + 1442695040888963407L;
+        }
+        return x;
+    }
+    
+    private static Appender<ILoggingEvent> appender(LoggerContext context, String file, boolean async)
+            throws IOException {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setName("file");
+        output.setEncoder(encoder);
+        // Unbuffered like a console appender
+        output.setOutputStream(new FileOutputStream(LOG_DIR.resolve(file).toFile()));
+        output.start();
+        if (!async) {
+            return output;
+        }
+        
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setName("async");
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setDiscardingThreshold(1024);
+        asyncAppender.setIncludeCallerData(false);
+        asyncAppender.addAppender(output);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+}
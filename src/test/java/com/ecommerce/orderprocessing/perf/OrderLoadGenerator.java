@@ -0,0 +1,177 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the OrderController endpoints over HTTP from a fixed number of threads
+ * with a create/get/list mix, and collects per-operation latency.
+ */
+class OrderLoadGenerator {
+    
+    enum Operation {
+        CREATE, GET, LIST
+    }
+    
+    private final String baseUrl;
+    private final int threads;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong lastCreatedId = new AtomicLong();
+    
+    OrderLoadGenerator(String baseUrl, int threads) {
+        this.baseUrl = baseUrl;
+        this.threads = threads;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    /**
+     * Run the mix for a warm-up period (discarded) and then a measured period
+     */
+    LoadResult run(Duration warmup, Duration measured) throws InterruptedException {
+        runPhase(warmup);
+        long start = System.nanoTime();
+        Map<Operation, LatencyHistogram> histograms = runPhase(measured);
+        return new LoadResult(histograms, System.nanoTime() - start);
+    }
+    
+    private Map<Operation, LatencyHistogram> runPhase(Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ConcurrentLinkedQueue<Map<Operation, LatencyHistogram>> perThread = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                Map<Operation, LatencyHistogram> local = newHistograms();
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = nextOperation();
+                        long begin = System.nanoTime();
+                        if (execute(operation)) {
+                            local.get(operation).record(System.nanoTime() - begin);
+                        } else {
+                            local.get(operation).recordError();
+                        }
+                    }
+                } finally {
+                    perThread.add(local);
+                    done.countDown();
+                }
+            }, "load-" + i);
+            thread.start();
+        }
+        done.await();
+        
+        Map<Operation, LatencyHistogram> merged = newHistograms();
+        for (Map<Operation, LatencyHistogram> local : perThread) {
+            local.forEach((operation, histogram) -> merged.get(operation).merge(histogram));
+        }
+        return merged;
+    }
+    
+    private Operation nextOperation() {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        if (roll < 30 || lastCreatedId.get() == 0) {
+            return Operation.CREATE;
+        }
+        return roll < 90 ? Operation.GET : Operation.LIST;
+    }
+    
+    private boolean execute(Operation operation) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request(operation), HttpResponse.BodyHandlers.ofByteArray());
+            if (operation == Operation.CREATE && response.statusCode() == 201) {
+                long id = objectMapper.readTree(response.body()).get("id").asLong();
+                lastCreatedId.accumulateAndGet(id, Math::max);
+            }
+            return response.statusCode() < 400;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private HttpRequest request(Operation operation) throws IOException {
+        switch (operation) {
+            case CREATE:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(orderJson()))
+                        .build();
+            case GET:
+                long id = 1 + ThreadLocalRandom.current().nextLong(lastCreatedId.get());
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/" + id)).GET().build();
+            default:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders?status=CANCELLED")).GET().build();
+        }
+    }
+    
+    private byte[] orderJson() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int customer = random.nextInt(1000);
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0, n = 1 + random.nextInt(5); i < n; i++) {
+            items.add(Map.of(
+                    "productName", "Product " + random.nextInt(500),
+                    "quantity", 1 + random.nextInt(3),
+                    "price", random.nextInt(1, 100_000) / 100.0));
+        }
+        return objectMapper.writeValueAsBytes(Map.of(
+                "customerName", "Load Customer " + customer,
+                "customerEmail", "load" + customer + "@example.com",
+                "items", items));
+    }
+    
+    private static Map<Operation, LatencyHistogram> newHistograms() {
+        Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+        }
+        return histograms;
+    }
+    
+    /**
+     * Latency per operation for the measured period
+     */
+    static class LoadResult {
+        
+        final Map<Operation, LatencyHistogram> histograms;
+        final long elapsedNanos;
+        
+        LoadResult(Map<Operation, LatencyHistogram> histograms, long elapsedNanos) {
+            this.histograms = histograms;
+            this.elapsedNanos = elapsedNanos;
+        }
+        
+        double throughput(Operation operation) {
+            return histograms.get(operation).count() / (elapsedNanos / 1_000_000_000.0);
+        }
+        
+        double totalThroughput() {
+            int total = 0;
+            for (LatencyHistogram histogram : histograms.values()) {
+                total += histogram.count();
+            }
+            return total / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
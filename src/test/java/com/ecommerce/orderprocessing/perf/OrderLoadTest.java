@@ -0,0 +1,79 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.OrderProcessingApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test comparing Spring profiles against the OrderController endpoints.
+ * Run with: mvn -Pbenchmark test -Dtest=OrderLoadTest
+ * Tunables: -Dloadtest.profiles=dev,perf -Dloadtest.threads=16
+ *           -Dloadtest.warmup-seconds=5 -Dloadtest.duration-seconds=20
+ *           -Dloadtest.orders=1000000 (pre-loads synthetic orders into an empty database)
+ *           -Dloadtest.load-shedding=true (keeps the profile's rate and concurrency limits)
+ */
+@Tag("benchmark")
+class OrderLoadTest {
+    
+    @Test
+    void compareProfiles() throws Exception {
+        String[] profiles = System.getProperty("loadtest.profiles", "dev,perf").split(",");
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("loadtest.warmup-seconds", 5));
+        Duration measured = Duration.ofSeconds(Integer.getInteger("loadtest.duration-seconds", 20));
+        
+        Map<String, OrderLoadGenerator.LoadResult> results = new LinkedHashMap<>();
+        for (String profile : profiles) {
+            results.put(profile.trim(), runProfile(profile.trim(), threads, warmup, measured));
+        }
+        
+        System.out.println(report(results, threads));
+        results.values().forEach(result -> assertTrue(result.totalThroughput() > 0));
+    }
+    
+    private OrderLoadGenerator.LoadResult runProfile(String profile, int threads,
+                                                     Duration warmup, Duration measured) throws Exception {
+        List<String> args = new ArrayList<>(List.of("--spring.profiles.active=" + profile, "--server.port=0"));
+        int preloaded = Integer.getInteger("loadtest.orders", 0);
+        if (preloaded > 0) {
+            args.add("--orders.datagen.orders=" + preloaded);
+        }
+        if (!Boolean.getBoolean("loadtest.load-shedding")) {
+            args.add("--orders.rate-limit.enabled=false");
+            args.add("--orders.concurrency-limit.enabled=false");
+        }
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderProcessingApplication.class)
+                .run(args.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            return new OrderLoadGenerator("http://localhost:" + port, threads).run(warmup, measured);
+        }
+    }
+    
+    static String report(Map<String, OrderLoadGenerator.LoadResult> results, int threads) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%n=== Order API load test (%d threads) ===%n", threads));
+        report.append(String.format(Locale.ROOT, "%-8s %-7s %10s %9s %9s %9s %9s %7s%n",
+                "profile", "op", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors"));
+        results.forEach((profile, result) -> {
+            result.histograms.forEach((operation, histogram) -> report.append(String.format(Locale.ROOT,
+                    "%-8s %-7s %10.1f %9.2f %9.2f %9.2f %9.2f %7d%n",
+                    profile, operation, result.throughput(operation), histogram.percentile(50),
+                    histogram.percentile(90), histogram.percentile(99), histogram.percentile(100),
+                    histogram.errors())));
+            report.append(String.format(Locale.ROOT, "%-8s %-7s %10.1f%n", profile, "TOTAL", result.totalThroughput()));
+        });
+        return report.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.reconciliation.OrderReconciliationJob;
+import com.ecommerce.orderprocessing.reconciliation.ReconciliationReport;
+import com.ecommerce.orderprocessing.service.OrderService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reconciliation throughput over a large synthetic data set, with order writes running alongside
+ * to show that the job does not hold them up.
+ * Run with: mvn -Pbenchmark test -Dtest=OrderReconciliationBenchmark -Dbenchmark.orders=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reconcilebench")
+class OrderReconciliationBenchmark {
+    
+    private static final long TARGET_ORDERS = 20_000_000L;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Autowired
+    private OrderReconciliationJob reconciliationJob;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Test
+    void reconcileWhileWriting() throws Exception {
+        int orders = Integer.getInteger("benchmark.orders", 1_000_000);
+        generator.generate(GenerationSpec.builder().orders(orders).build());
+        
+        // Writes before the run, for comparison
+        LatencyHistogram idle = new LatencyHistogram();
+        for (int i = 0; i < 500; i++) {
+            timeCreate(idle);
+        }
+        
+        LatencyHistogram concurrent = new LatencyHistogram();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread writer = new Thread(() -> {
+            while (!done.get()) {
+                timeCreate(concurrent);
+            }
+        }, "reconcile-bench-writer");
+        writer.start();
+        ReconciliationReport report;
+        try {
+            report = reconciliationJob.reconcile(false);
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        
+        double ordersPerSecond = report.getOrdersChecked() / (report.getElapsed().toNanos() / 1e9);
+        System.out.printf(Locale.ROOT, "%n=== Reconciliation: %d orders, %d partitions ===%n",
+                report.getOrdersChecked(), report.getPartitions());
+        System.out.printf(Locale.ROOT, "elapsed=%.1f s orders/s=%,.0f projected for %,d orders=%.1f min%n",
+                report.getElapsed().toMillis() / 1000.0, ordersPerSecond, TARGET_ORDERS,
+                TARGET_ORDERS / ordersPerSecond / 60);
+        System.out.printf(Locale.ROOT, "createOrder idle:       n=%d p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                idle.count(), idle.percentile(50), idle.percentile(99), idle.percentile(100));
+        System.out.printf(Locale.ROOT, "createOrder during run: n=%d p50=%.2f ms p99=%.2f ms max=%.2f ms%n",
+                concurrent.count(), concurrent.percentile(50), concurrent.percentile(99), concurrent.percentile(100));
+        assertTrue(report.getOrdersChecked() >= orders);
+        assertEquals(0, report.getMismatches());
+    }
+    
+    private void timeCreate(LatencyHistogram histogram) {
+        long start = System.nanoTime();
+        orderService.createOrder(OrderRequest.builder()
+                .customerName("Reconcile Bench")
+                .customerEmail("bench@example.com")
+                .items(List.of(OrderItemRequest.builder()
+                        .productName("Keyboard")
+                        .quantity(2)
+                        .price(new BigDecimal("89.99"))
+                        .build()))
+                .build());
+        histogram.record(System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.search.OrderSearchIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Query latency of the search index at production scale.
+ * Run with: mvn -Pbenchmark test -Dtest=OrderSearchIndexBenchmark -Dbenchmark.orders=2000000
+ */
+@Tag("benchmark")
+class OrderSearchIndexBenchmark {
+    
+    private static final String[] FIRST_NAMES = {"Alice", "Bob", "Carol", "David", "Erin", "Frank", "Grace",
+            "Heidi", "Ivan", "Judy", "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil", "Trent", "Victor"};
+    private static final String[] PRODUCTS = {"Laptop", "Wireless Mouse", "Smartphone", "Headphones", "Monitor",
+            "Keyboard", "Webcam", "Desk Lamp", "Laptop Stand", "USB Hub", "Charger", "Tablet", "Speaker"};
+    
+    @Test
+    void queryLatencyAtScale() {
+        int orders = Integer.getInteger("benchmark.orders", 2_000_000);
+        OrderSearchIndex index = new OrderSearchIndex(mock(OrderRepository.class),
+                mock(PlatformTransactionManager.class), false, 2, 512, Duration.ofMinutes(1));
+        
+        SplittableRandom random = new SplittableRandom(42);
+        long indexStart = System.nanoTime();
+        for (long id = 1; id <= orders; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = "Customer" + random.nextInt(50_000);
+            index.index(id, List.of(first + " " + last,
+                    first.toLowerCase(Locale.ROOT) + "." + last.toLowerCase(Locale.ROOT) + "@example.com",
+                    PRODUCTS[random.nextInt(PRODUCTS.length)],
+                    PRODUCTS[random.nextInt(PRODUCTS.length)]));
+        }
+        double indexSeconds = (System.nanoTime() - indexStart) / 1e9;
+        
+        String[] queries = {"alice", "lap", "customer123", "bob wireless", "grace customer4 monitor", "heidi.customer99"};
+        for (int round = 0; round < 50; round++) {
+            for (String query : queries) {
+                index.search(query, round % 5, 20);
+            }
+        }
+        
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int round = 0; round < 200; round++) {
+            for (String query : queries) {
+                long start = System.nanoTime();
+                index.search(query, round % 5, 20);
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+        
+        System.out.printf(Locale.ROOT, "%n=== Search index: %d orders, %d terms, indexed in %.1f s ===%n",
+                orders, index.termCount(), indexSeconds);
+        System.out.printf(Locale.ROOT, "queries=%d p50=%.3f ms p99=%.3f ms max=%.3f ms%n",
+                histogram.count(), histogram.percentile(50), histogram.percentile(99), histogram.percentile(100));
+        assertTrue(histogram.percentile(99) < 10.0, "p99 search latency should stay under 10 ms");
+    }
+}
@@ -0,0 +1,162 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.OrderProcessingApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overloads a server with a small connection pool with create and list requests from many
+ * clients, once without and once with rate and concurrency limiting, and compares the latency
+ * of accepted requests and how fast the rejected ones are answered.
+ * Run with: mvn -Pbenchmark test -Dtest=OverloadTest
+ * Tunables: -Doverload.threads=64 -Doverload.duration-seconds=20 -Doverload.pool-size=4
+ */
+@Tag("benchmark")
+class OverloadTest {
+    
+    private static final String ORDER_JSON = "{\"customerName\":\"Flash Sale\",\"customerEmail\":\"flash@example.com\","
+            + "\"items\":[{\"productName\":\"Console\",\"quantity\":1,\"price\":499.99}]}";
+    
+    @Test
+    void sheddingKeepsAcceptedLatencyStable() throws Exception {
+        int threads = Integer.getInteger("overload.threads", 64);
+        Duration duration = Duration.ofSeconds(Integer.getInteger("overload.duration-seconds", 20));
+        int poolSize = Integer.getInteger("overload.pool-size", 4);
+        
+        Result unprotected = run(false, threads, duration, poolSize);
+        Result protectedRun = run(true, threads, duration, poolSize);
+        
+        System.out.printf(Locale.ROOT, "%n=== Overload: %d clients, pool size %d, %d s ===%n",
+                threads, poolSize, duration.toSeconds());
+        System.out.printf(Locale.ROOT, "%-12s %9s %9s %9s %9s %7s %7s %7s %11s%n", "limits", "ok/s",
+                "p50 ms", "p99 ms", "max ms", "429", "503", "errors", "reject p99");
+        print("off", unprotected, duration);
+        print("on", protectedRun, duration);
+        assertTrue(protectedRun.accepted.count() > 0);
+    }
+    
+    private Result run(boolean shedding, int threads, Duration duration, int poolSize) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderProcessingApplication.class)
+                .run("--spring.profiles.active=perf", "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:overload" + shedding,
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                        // Clients are told apart by address, taken from X-Forwarded-For on loopback
+                        "--server.forward-headers-strategy=native",
+                        "--orders.rate-limit.enabled=" + shedding,
+                        "--orders.rate-limit.create.per-second=20",
+                        "--orders.rate-limit.create.burst=20",
+                        "--orders.rate-limit.list.per-second=2",
+                        "--orders.rate-limit.list.burst=4",
+                        "--orders.concurrency-limit.enabled=" + shedding,
+                        "--orders.concurrency-limit.initial=" + poolSize * 2,
+                        "--orders.concurrency-limit.min=" + poolSize,
+                        "--orders.concurrency-limit.max=" + poolSize * 8)) {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5)).build();
+            
+            // Warm up with a single client, then measure
+            drive(client, baseUrl, 1, Duration.ofSeconds(3));
+            return drive(client, baseUrl, threads, duration);
+        }
+    }
+    
+    private Result drive(HttpClient client, String baseUrl, int threads, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            String clientAddress = "10.0." + t / 256 + "." + t % 256;
+            new Thread(() -> {
+                Result local = new Result();
+                try {
+                    while (System.nanoTime() < deadline) {
+                        send(client, baseUrl, clientAddress, local);
+                    }
+                } finally {
+                    results.add(local);
+                    done.countDown();
+                }
+            }, "overload-" + t).start();
+        }
+        done.await();
+        Result merged = new Result();
+        results.forEach(merged::merge);
+        return merged;
+    }
+    
+    private static void send(HttpClient client, String baseUrl, String clientAddress, Result result) {
+        boolean list = ThreadLocalRandom.current().nextInt(10) == 0;
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .header("X-Forwarded-For", clientAddress)
+                .timeout(Duration.ofSeconds(10));
+        HttpRequest request = list
+                ? builder.GET().build()
+                : builder.header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(ORDER_JSON, StandardCharsets.UTF_8)).build();
+        long start = System.nanoTime();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long elapsed = System.nanoTime() - start;
+            if (status == 429 || status == 503) {
+                result.rejected.record(elapsed);
+                if (status == 429) {
+                    result.tooManyRequests++;
+                } else {
+                    result.unavailable++;
+                }
+                // Honour Retry-After loosely so rejected clients do not spin
+                Thread.sleep(100);
+            } else if (status < 400) {
+                result.accepted.record(elapsed);
+            } else {
+                result.accepted.recordError();
+            }
+        } catch (IOException e) {
+            result.accepted.recordError();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void print(String name, Result result, Duration duration) {
+        LatencyHistogram accepted = result.accepted;
+        System.out.printf(Locale.ROOT, "%-12s %9.1f %9.2f %9.2f %9.2f %7d %7d %7d %11.2f%n", name,
+                accepted.count() / (double) duration.toSeconds(), accepted.percentile(50), accepted.percentile(99),
+                accepted.percentile(100), result.tooManyRequests, result.unavailable, accepted.errors(),
+                result.rejected.percentile(99));
+    }
+    
+    private static class Result {
+        
+        final LatencyHistogram accepted = new LatencyHistogram();
+        final LatencyHistogram rejected = new LatencyHistogram();
+        int tooManyRequests;
+        int unavailable;
+        
+        void merge(Result other) {
+            accepted.merge(other.accepted);
+            rejected.merge(other.rejected);
+            tooManyRequests += other.tooManyRequests;
+            unavailable += other.unavailable;
+        }
+    }
+}
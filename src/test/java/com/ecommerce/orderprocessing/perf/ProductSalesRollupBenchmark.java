@@ -0,0 +1,83 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.model.SalesRanking;
+import com.ecommerce.orderprocessing.service.ProductSalesService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares top-product queries answered from the daily rollup with the same queries filtered by
+ * status, which the rollup cannot answer and which aggregate order_items instead.
+ * Run with: mvn -Pbenchmark test -Dtest=ProductSalesRollupBenchmark -Dbenchmark.orders=200000
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:salesrollupbench",
+        "orders.analytics.rollup.enabled=true"
+})
+class ProductSalesRollupBenchmark {
+    
+    private static final int WARM_UP_QUERIES = 5;
+    private static final int MEASURED_QUERIES = 20;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Autowired
+    private ProductSalesService productSalesService;
+    
+    @Test
+    void rollupVersusStatusFilteredQueries() {
+        int orders = Integer.getInteger("benchmark.orders", 200_000);
+        generator.generate(GenerationSpec.builder().orders(orders).build());
+        productSalesService.rebuildRollup();
+        
+        LocalDateTime to = LocalDate.now().atStartOfDay();
+        LocalDateTime from = to.minusDays(90);
+        double rollupMs = medianMillis(from, to, null);
+        double deliveredMs = medianMillis(from, to, EnumSet.of(OrderStatus.DELIVERED));
+        double settledMs = medianMillis(from, to, EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED));
+        
+        System.out.printf(Locale.ROOT, "%n=== Top products over 90 days (%d orders in database) ===%n", orders);
+        System.out.printf(Locale.ROOT, "%-34s %8.2f ms%n", "no status filter (rollup):", rollupMs);
+        System.out.printf(Locale.ROOT, "%-34s %8.2f ms (%.1fx)%n", "status=DELIVERED (raw):",
+                deliveredMs, deliveredMs / rollupMs);
+        System.out.printf(Locale.ROOT, "%-34s %8.2f ms (%.1fx)%n", "status=DELIVERED,CANCELLED (raw):",
+                settledMs, settledMs / rollupMs);
+        assertTrue(rollupMs < deliveredMs, "the rollup should answer faster than the raw aggregation");
+    }
+    
+    /**
+     * Every query starts on a different day, because H2 reuses the previous result of an identical query
+     */
+    private double medianMillis(LocalDateTime from, LocalDateTime to, Collection<OrderStatus> statuses) {
+        for (int i = 0; i < WARM_UP_QUERIES; i++) {
+            productSalesService.getTopProducts(from.minusDays(MEASURED_QUERIES + i), to, statuses,
+                    SalesRanking.REVENUE, 10);
+        }
+        double[] millis = new double[MEASURED_QUERIES];
+        for (int i = 0; i < MEASURED_QUERIES; i++) {
+            long start = System.nanoTime();
+            List<?> top = productSalesService.getTopProducts(from.minusDays(i), to, statuses, SalesRanking.REVENUE, 10);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            assertTrue(!top.isEmpty());
+        }
+        Arrays.sort(millis);
+        return millis[MEASURED_QUERIES / 2];
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.repository.SlaAlertRepository;
+import com.ecommerce.orderprocessing.sla.SlaWatchdog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Heap per tracked order and cost of tracking, rescheduling and expiring deadlines in the SLA watchdog
+ * with millions of orders in flight. Expired orders are not found in the (mocked) database, so no alert is raised.
+ * Run with: mvn -Pbenchmark test -Dtest=SlaWatchdogBenchmark -Dbenchmark.orders=2000000
+ */
+@Tag("benchmark")
+class SlaWatchdogBenchmark {
+    
+    private static final int BATCH = 1000;
+    
+    @Test
+    void trackingAtScale() {
+        int orders = Integer.getInteger("benchmark.orders", 2_000_000);
+        long heapBefore = usedHeap();
+        SlaWatchdog watchdog = new SlaWatchdog(mock(OrderRepository.class), mock(SlaAlertRepository.class), mock(ApplicationEventPublisher.class),
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                Duration.ofHours(24), Duration.ofDays(7), 1000);
+        LocalDateTime start = LocalDateTime.now();
+        
+        // Orders reach PROCESSING spread over the last day
+        long trackStart = System.nanoTime();
+        publish(watchdog, orders, OrderStatus.PENDING, OrderStatus.PROCESSING, start.minusDays(1), Duration.ofDays(1));
+        double trackNanos = (double) (System.nanoTime() - trackStart) / orders;
+        long heapTracked = usedHeap() - heapBefore;
+        assertEquals(orders, watchdog.trackedOrders());
+        
+        // Half of them ship, which replaces their deadline
+        long shipStart = System.nanoTime();
+        publish(watchdog, orders / 2, OrderStatus.PROCESSING, OrderStatus.SHIPPED, start, Duration.ofHours(1));
+        double shipNanos = (double) (System.nanoTime() - shipStart) / (orders / 2);
+        
+        // Let every PROCESSING deadline pass, an hour of ticks at a time
+        long nowMs = System.currentTimeMillis();
+        long expireStart = System.nanoTime();
+        for (long offset = 0; offset <= Duration.ofHours(26).toMillis(); offset += Duration.ofHours(1).toMillis()) {
+            watchdog.check(nowMs + offset);
+        }
+        double expireSeconds = (System.nanoTime() - expireStart) / 1e9;
+        
+        System.out.printf(Locale.ROOT, "%n=== SLA watchdog: %,d orders ===%n", orders);
+        System.out.printf(Locale.ROOT, "heap %.1f bytes/order, track %.0f ns/order, reschedule %.0f ns/order%n",
+                (double) heapTracked / orders, trackNanos, shipNanos);
+        System.out.printf(Locale.ROOT, "26 h of ticks expiring %,d orders in %.2f s, %,d still tracked%n",
+                orders - watchdog.trackedOrders(), expireSeconds, watchdog.trackedOrders());
+        assertEquals(orders / 2, watchdog.trackedOrders());
+        assertTrue(heapTracked < 64L * orders, "tracking should take under 64 bytes per order");
+    }
+    
+    /**
+     * Publish status changes for orders 1..count in batches, spreading their timestamps over the span
+     */
+    private static void publish(SlaWatchdog watchdog, int count, OrderStatus from, OrderStatus to,
+                                LocalDateTime first, Duration span) {
+        long stepNanos = span.toNanos() / count;
+        for (int batchStart = 1; batchStart <= count; batchStart += BATCH) {
+            List<Long> ids = new ArrayList<>(BATCH);
+            for (long id = batchStart; id < Math.min(count + 1, batchStart + BATCH); id++) {
+                ids.add(id);
+            }
+            watchdog.onStatusChanged(new OrderStatusChangedEvent(ids, from, to, first.plusNanos(stepNanos * batchStart)));
+        }
+    }
+    
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
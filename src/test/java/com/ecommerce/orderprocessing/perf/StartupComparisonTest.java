@@ -0,0 +1,161 @@
+package com.ecommerce.orderprocessing.perf;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Startup time and resident memory of the packaged application: plain JVM jar,
+ * the AppCDS fast-start mode (-Pcds) and the native image (-Pnative) when they have been built.
+ * Run with: mvn -Pcds -DskipTests package && mvn -Pbenchmark test -Dtest=StartupComparisonTest
+ * Tunables: -Dstartup.runs=3
+ */
+@Tag("benchmark")
+class StartupComparisonTest {
+    
+    private static final Path TARGET = Paths.get("target");
+    private static final Pattern STARTED = Pattern.compile(
+            "Started OrderProcessingApplication in [\\d.]+ seconds \\(process running for ([\\d.]+)\\)");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+    
+    @Test
+    void compareStartupModes() throws Exception {
+        Path jar = findApplicationJar(TARGET);
+        assumeTrue(jar != null, "Package the application first: mvn -DskipTests package");
+        int runs = Integer.getInteger("startup.runs", 3);
+        String java = ProcessHandle.current().info().command().orElse("java");
+        
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("jvm", List.of(java, "-jar", jar.toString()));
+        Path cdsArchive = TARGET.resolve("app/application.jsa");
+        Path extractedJar = TARGET.resolve("app").resolve(jar.getFileName());
+        if (Files.exists(cdsArchive) && Files.exists(extractedJar)) {
+            modes.put("cds", List.of(java, "-XX:SharedArchiveFile=" + cdsArchive, "-Xlog:cds=off",
+                    "-jar", extractedJar.toString()));
+        }
+        Path nativeImage = TARGET.resolve("order-processing-system");
+        if (Files.isExecutable(nativeImage)) {
+            modes.put("native", List.of(nativeImage.toString()));
+        }
+        
+        Map<String, StartupResult> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+            List<StartupResult> samples = new ArrayList<>();
+            for (int run = 0; run < runs; run++) {
+                samples.add(start(mode.getValue()));
+            }
+            results.put(mode.getKey(), StartupResult.median(samples));
+        }
+        
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%n=== Startup comparison (median of %d runs) ===%n", runs));
+        report.append(String.format(Locale.ROOT, "%-7s %12s %10s%n", "mode", "startup ms", "RSS MB"));
+        results.forEach((mode, result) -> report.append(String.format(Locale.ROOT, "%-7s %12d %10.1f%n",
+                mode, result.startupMillis, result.rssKilobytes / 1024.0)));
+        System.out.println(report);
+        
+        results.values().forEach(result -> assertTrue(result.startupMillis > 0));
+    }
+    
+    private static StartupResult start(List<String> command) throws Exception {
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.addAll(Arrays.asList("--server.port=0", "--orders.search.rebuild-on-startup=false"));
+        Process process = new ProcessBuilder(fullCommand).redirectErrorStream(true).start();
+        try {
+            CompletableFuture<Long> started = CompletableFuture.supplyAsync(() -> awaitStarted(process));
+            long startupMillis = started.get(120, TimeUnit.SECONDS);
+            return new StartupResult(startupMillis, residentKilobytes(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+    
+    private static long awaitStarted(Process process) {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    long millis = Math.round(Double.parseDouble(matcher.group(1)) * 1000);
+                    // Keep draining so the child never blocks on a full pipe
+                    CompletableFuture.runAsync(() -> reader.lines().forEach(ignored -> { }));
+                    return millis;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        throw new IllegalStateException("Application exited before it finished starting");
+    }
+    
+    /**
+     * Resident set size from /proc, or 0 where it is not available
+     */
+    private static long residentKilobytes(long pid) throws IOException {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            Matcher matcher = VM_RSS.matcher(line);
+            if (matcher.find()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+        return 0;
+    }
+    
+    private static Path findApplicationJar(Path target) throws IOException {
+        if (!Files.isDirectory(target)) {
+            return null;
+        }
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+    
+    private static class StartupResult {
+        
+        private final long startupMillis;
+        private final long rssKilobytes;
+        
+        StartupResult(long startupMillis, long rssKilobytes) {
+            this.startupMillis = startupMillis;
+            this.rssKilobytes = rssKilobytes;
+        }
+        
+        static StartupResult median(List<StartupResult> samples) {
+            long[] startup = samples.stream().mapToLong(sample -> sample.startupMillis).sorted().toArray();
+            long[] rss = samples.stream().mapToLong(sample -> sample.rssKilobytes).sorted().toArray();
+            return new StartupResult(startup[startup.length / 2], rss[rss.length / 2]);
+        }
+    }
+}
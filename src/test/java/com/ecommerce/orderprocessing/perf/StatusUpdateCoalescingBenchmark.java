@@ -0,0 +1,146 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.service.OrderService;
+import com.ecommerce.orderprocessing.service.OrderStatusUpdateCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Hot orders that three systems move through PROCESSING, SHIPPED and DELIVERED a fraction of a
+ * millisecond apart, once through OrderService.updateOrderStatus directly and once through
+ * OrderStatusUpdateCoalescer. Reports accepted and rejected updates, order rows written and
+ * transactions, from Hibernate statistics. Separate calls race on the same row, so many updates
+ * are validated against a status that is about to change and get rejected.
+ * Run with: mvn -Pbenchmark test -Dtest=StatusUpdateCoalescingBenchmark -Dbenchmark.orders=500
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescingbench",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class StatusUpdateCoalescingBenchmark {
+    
+    private static final OrderStatus[] CHAIN = {OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED};
+    private static final long ARRIVAL_GAP_NANOS = TimeUnit.MICROSECONDS.toNanos(300);
+    private static final int CONCURRENT_ORDERS = 16;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void coalescedVersusSeparateWrites() throws Exception {
+        int orders = Integer.getInteger("benchmark.orders", 500);
+        generator.generate(GenerationSpec.builder()
+                .orders(2 * orders + 2 * CONCURRENT_ORDERS)
+                .statusMix(GenerationSpec.parseStatusMix("PENDING:1"))
+                .build());
+        List<Long> ids = jdbcTemplate.queryForList("select id from orders order by id", Long.class);
+        OrderStatusUpdateCoalescer coalescer = new OrderStatusUpdateCoalescer(orderService,
+                mock(ObjectProvider.class), new SimpleMeterRegistry(), 2, 64);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_ORDERS * CHAIN.length);
+        try {
+            // Warm up both paths
+            run(executor, ids.subList(0, CONCURRENT_ORDERS), orderService::updateOrderStatus, statistics);
+            run(executor, ids.subList(CONCURRENT_ORDERS, 2 * CONCURRENT_ORDERS), coalescer::updateOrderStatus, statistics);
+            
+            int from = 2 * CONCURRENT_ORDERS;
+            Result separate = run(executor, ids.subList(from, from + orders), orderService::updateOrderStatus, statistics);
+            Result coalesced = run(executor, ids.subList(from + orders, from + 2 * orders),
+                    coalescer::updateOrderStatus, statistics);
+            
+            System.out.printf(Locale.ROOT, "%n=== %d hot orders, 3 updates each %d us apart ===%n",
+                    orders, TimeUnit.NANOSECONDS.toMicros(ARRIVAL_GAP_NANOS));
+            print("separate", separate, orders);
+            print("coalesced", coalesced, orders);
+            assertTrue(coalesced.accepted > separate.accepted, "coalescing should reject fewer updates");
+            assertTrue(coalesced.rowsWritten < coalesced.accepted / 2, "coalescing should write under half a row per update");
+            assertTrue(coalesced.transactions < separate.transactions / 2, "coalescing should halve transactions");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private Result run(ExecutorService executor, List<Long> ids, BiConsumer<Long, OrderStatus> update,
+                       Statistics statistics) throws Exception {
+        statistics.clear();
+        long accepted = 0;
+        long start = System.nanoTime();
+        for (int wave = 0; wave < ids.size(); wave += CONCURRENT_ORDERS) {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            long waveStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(1);
+            for (Long id : ids.subList(wave, Math.min(ids.size(), wave + CONCURRENT_ORDERS))) {
+                for (int step = 0; step < CHAIN.length; step++) {
+                    OrderStatus status = CHAIN[step];
+                    long arrival = waveStart + step * ARRIVAL_GAP_NANOS;
+                    tasks.add(() -> {
+                        LockSupport.parkNanos(arrival - System.nanoTime());
+                        try {
+                            update.accept(id, status);
+                            return true;
+                        } catch (RuntimeException e) {
+                            return false;
+                        }
+                    });
+                }
+            }
+            for (Future<Boolean> result : executor.invokeAll(tasks)) {
+                accepted += result.get() ? 1 : 0;
+            }
+        }
+        double elapsedMs = (System.nanoTime() - start) / 1e6;
+        Integer delivered = jdbcTemplate.queryForObject(
+                "select count(*) from orders where status = 'DELIVERED' and id between ? and ?",
+                Integer.class, ids.get(0), ids.get(ids.size() - 1));
+        return new Result(accepted, statistics.getEntityUpdateCount(), statistics.getTransactionCount(),
+                delivered, elapsedMs);
+    }
+    
+    private static void print(String name, Result result, int orders) {
+        System.out.printf(Locale.ROOT,
+                "%-10s accepted=%5d rejected=%5d rows written=%5d (%.2f per accepted update) transactions=%5d "
+                        + "delivered=%5d time=%7.0f ms%n",
+                name, result.accepted, 3L * orders - result.accepted, result.rowsWritten,
+                (double) result.rowsWritten / result.accepted, result.transactions, result.delivered, result.elapsedMs);
+    }
+    
+    private record Result(long accepted, long rowsWritten, long transactions, int delivered, double elapsedMs) {
+    }
+}
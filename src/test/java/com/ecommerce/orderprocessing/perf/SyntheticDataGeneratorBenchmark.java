@@ -0,0 +1,48 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.datagen.GenerationResult;
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk-load throughput of the synthetic data generator into a file-backed database
+ * with the dev profile's store settings.
+ * Run with: mvn -Pbenchmark test -Dtest=SyntheticDataGeneratorBenchmark -Dbenchmark.orders=1000000
+ */
+@Tag("benchmark")
+class SyntheticDataGeneratorBenchmark {
+    
+    private static final Path DB_DIR = Paths.get("target", "datagen-benchmark");
+    
+    @Test
+    void bulkLoadThroughput() throws Exception {
+        int orders = Integer.getInteger("benchmark.orders", 1_000_000);
+        int batchSize = Integer.getInteger("benchmark.batch-size", 5_000);
+        FileSystemUtils.deleteRecursively(DB_DIR);
+        
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:file:" + DB_DIR.toAbsolutePath() + "/orderdb;CACHE_SIZE=65536;WRITE_DELAY=500");
+        dataSource.setUser("sa");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        
+        GenerationResult result = new SyntheticDataGenerator(dataSource)
+                .generate(GenerationSpec.builder().orders(orders).batchSize(batchSize).build());
+        
+        System.out.printf(Locale.ROOT, "%n=== Synthetic data: %d orders, %d items, batch size %d ===%n",
+                result.getOrders(), result.getItems(), batchSize);
+        System.out.printf(Locale.ROOT, "elapsed=%.1f s rows/min=%,.0f%n",
+                result.getElapsed().toMillis() / 1000.0, result.rowsPerMinute());
+        assertEquals(orders, result.getOrders());
+    }
+}
@@ -0,0 +1,154 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.OrderProcessingApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * p99 latency in the first minute after the instance reports ready, with and without the startup
+ * warm-up. Each mode runs in a fresh JVM, so JIT and cache state do not carry over, and traffic
+ * starts as soon as /actuator/health/readiness returns 200, as a load balancer would send it.
+ * GETs pick order IDs at random, so the warm-up run also counts 404s for its rolled-back orders as errors.
+ * Run with: mvn -Pbenchmark test -Dtest=WarmUpLatencyBenchmark
+ * Tunables: -Dwarmup.seconds=60 -Dwarmup.threads=8 -Dwarmup.orders=20000
+ */
+@Tag("benchmark")
+class WarmUpLatencyBenchmark {
+    
+    private static final Duration FIRST_PHASE = Duration.ofSeconds(10);
+    
+    @Test
+    void compareFirstMinuteLatency() throws Exception {
+        int seconds = Integer.getInteger("warmup.seconds", 60);
+        int threads = Integer.getInteger("warmup.threads", 8);
+        int orders = Integer.getInteger("warmup.orders", 20_000);
+        
+        Map<String, ModeResult> results = new LinkedHashMap<>();
+        results.put("cold", measure(false, orders, threads, seconds));
+        results.put("warm-up", measure(true, orders, threads, seconds));
+        
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%n=== First %d s after ready (%d threads, %d orders) ===%n",
+                seconds, threads, orders));
+        report.append(String.format(Locale.ROOT, "%-8s %10s %12s %12s %12s %10s %8s%n",
+                "mode", "ready ms", "p99 10s ms", "p99 all ms", "p50 all ms", "req/s", "errors"));
+        results.forEach((mode, result) -> report.append(String.format(Locale.ROOT,
+                "%-8s %10d %12.2f %12.2f %12.2f %10.1f %8d%n",
+                mode, result.readyMillis, result.first.percentile(99), result.all.percentile(99),
+                result.all.percentile(50), result.all.count() / (double) seconds, result.all.errors())));
+        System.out.println(report);
+        
+        results.values().forEach(result -> assertTrue(result.all.count() > 0));
+    }
+    
+    private static ModeResult measure(boolean warmUp, int orders, int threads, int seconds) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(
+                ProcessHandle.current().info().command().orElse("java"),
+                "-cp", System.getProperty("java.class.path"),
+                OrderProcessingApplication.class.getName(),
+                "--spring.profiles.active=perf",
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:warmupbench;DB_CLOSE_DELAY=-1",
+                "--orders.datagen.orders=" + orders,
+                "--orders.search.rebuild-on-startup=false",
+                "--management.endpoints.web.exposure.include=health",
+                "--management.endpoint.health.probes.enabled=true",
+                "--orders.warmup.enabled=" + warmUp));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        // Keep draining so the child never blocks on a full pipe
+        CompletableFuture.runAsync(() -> drain(process.getInputStream()));
+        try {
+            String baseUrl = "http://localhost:" + port;
+            awaitReady(baseUrl, process);
+            long readyMillis = (System.nanoTime() - start) / 1_000_000;
+            
+            OrderLoadGenerator generator = new OrderLoadGenerator(baseUrl, threads);
+            LatencyHistogram first = merge(generator.run(Duration.ZERO, FIRST_PHASE));
+            LatencyHistogram all = new LatencyHistogram();
+            all.merge(first);
+            all.merge(merge(generator.run(Duration.ZERO, Duration.ofSeconds(seconds).minus(FIRST_PHASE))));
+            return new ModeResult(readyMillis, first, all);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+    
+    private static void awaitReady(String baseUrl, Process process) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited before it was ready");
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(50);
+        }
+        throw new IllegalStateException("Application was not ready within 5 minutes");
+    }
+    
+    private static LatencyHistogram merge(OrderLoadGenerator.LoadResult result) {
+        LatencyHistogram merged = new LatencyHistogram();
+        result.histograms.values().forEach(merged::merge);
+        return merged;
+    }
+    
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+    
+    private static void drain(InputStream output) {
+        try (output) {
+            output.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ignored) {
+            // Process ended
+        }
+    }
+    
+    private static class ModeResult {
+        
+        private final long readyMillis;
+        private final LatencyHistogram first;
+        private final LatencyHistogram all;
+        
+        ModeResult(long readyMillis, LatencyHistogram first, LatencyHistogram all) {
+            this.readyMillis = readyMillis;
+            this.first = first;
+            this.all = all;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.orderprocessing.perf;
+
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderItemResponse;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Encode and decode time and payload size of JSON against CBOR for a typical order
+ * (two items) and a 100-item order, using the mappers the application's converters use.
+ * Run with: mvn -Pbenchmark test -Dtest=WireFormatBenchmark -Dbenchmark.iterations=20000
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:wireformatbench")
+class WireFormatBenchmark {
+    
+    /** Keeps the decoded values from being optimized away */
+    private static volatile Object blackhole;
+    
+    @Autowired
+    private ObjectMapper jsonMapper;
+    
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+    
+    @Test
+    void jsonVersusCbor() throws Exception {
+        int iterations = Integer.getInteger("benchmark.iterations", 20_000);
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        
+        System.out.printf(Locale.ROOT, "%n=== JSON vs CBOR, %d iterations ===%n", iterations);
+        System.out.printf(Locale.ROOT, "%-22s %-5s %9s %12s %12s%n", "payload", "fmt", "bytes", "encode ns", "decode ns");
+        for (int items : new int[]{2, 100}) {
+            Object[] payloads = {request(items), response(items)};
+            for (Object payload : payloads) {
+                String name = payload.getClass().getSimpleName() + " x" + items;
+                Result json = measure(jsonMapper, payload, iterations);
+                Result cbor = measure(cborMapper, payload, iterations);
+                print(name, "json", json);
+                print(name, "cbor", cbor);
+                assertTrue(cbor.bytes < json.bytes, name + " should be smaller as CBOR");
+            }
+        }
+    }
+    
+    private static Result measure(ObjectMapper mapper, Object payload, int iterations) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(payload);
+        assertEquals(payload, mapper.readValue(encoded, payload.getClass()));
+        // Warm-up
+        for (int i = 0; i < iterations / 2; i++) {
+            blackhole = mapper.readValue(mapper.writeValueAsBytes(payload), payload.getClass());
+        }
+        
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            encoded = mapper.writeValueAsBytes(payload);
+        }
+        double encodeNanos = (double) (System.nanoTime() - start) / iterations;
+        
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            blackhole = mapper.readValue(encoded, payload.getClass());
+        }
+        double decodeNanos = (double) (System.nanoTime() - start) / iterations;
+        return new Result(encoded.length, encodeNanos, decodeNanos);
+    }
+    
+    private static void print(String name, String format, Result result) {
+        System.out.printf(Locale.ROOT, "%-22s %-5s %,9d %,12.0f %,12.0f%n",
+                name, format, result.bytes, result.encodeNanos, result.decodeNanos);
+    }
+    
+    private static OrderRequest request(int items) {
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            lines.add(OrderItemRequest.builder()
+                    .productName("Wireless Mouse Model " + i)
+                    .quantity(1 + i % 4)
+                    .price(new BigDecimal("24.99"))
+                    .build());
+        }
+        return OrderRequest.builder()
+                .customerName("Jane Service")
+                .customerEmail("jane.service@example.com")
+                .items(lines)
+                .build();
+    }
+    
+    private static OrderResponse response(int items) {
+        List<OrderItemResponse> lines = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            int quantity = 1 + i % 4;
+            lines.add(OrderItemResponse.builder()
+                    .id((long) 1_000_000 + i)
+                    .productName("Wireless Mouse Model " + i)
+                    .quantity(quantity)
+                    .price(new BigDecimal("24.99"))
+                    .subtotal(new BigDecimal("24.99").multiply(BigDecimal.valueOf(quantity)))
+                    .build());
+        }
+        LocalDateTime createdAt = LocalDateTime.of(2025, 10, 24, 10, 30, 0, 123_456_000);
+        return OrderResponse.builder()
+                .id(4_200_000L)
+                .customerName("Jane Service")
+                .customerEmail("jane.service@example.com")
+                .status(OrderStatus.PROCESSING)
+                .items(lines)
+                .totalAmount(lines.stream().map(OrderItemResponse::getSubtotal).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusMinutes(5))
+                .build();
+    }
+    
+    private record Result(int bytes, double encodeNanos, double decodeNanos) {
+    }
+}
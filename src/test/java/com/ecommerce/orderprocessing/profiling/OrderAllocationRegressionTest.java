@@ -0,0 +1,186 @@
+package com.ecommerce.orderprocessing.profiling;
+
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.service.OrderService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Allocation regression gate for the OrderService hot paths.
+ * Runs a fixed workload under a JFR recording, takes the bytes allocated per call from the
+ * OrderOperationEvents and fails when the median of an operation exceeds its budget in
+ * allocation-thresholds.properties. Sampled allocations (jdk.ObjectAllocationSample) under
+ * OrderService are summarized by class to show where the bytes go.
+ * The budgets were tuned on one machine and the medians shift with JIT compilation order,
+ * so it is a benchmark rather than part of every build.
+ * After an intended change, copy the logged medians plus some headroom into the budget file.
+ * Run with: mvn -Pbenchmark test -Dtest=OrderAllocationRegressionTest
+ */
+@Tag("benchmark")
+@Slf4j
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:allocationdb")
+class OrderAllocationRegressionTest {
+    
+    private static final String THRESHOLDS = "/allocation-thresholds.properties";
+    private static final int SETTLED_ORDERS = 50;
+    private static final int WARM_UP_CALLS = 200;
+    private static final int MEASURED_CALLS = 200;
+    private static final int TOP_CLASSES = 8;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Test
+    void allocationPerCallStaysWithinBudget() throws Exception {
+        List<Long> settled = new ArrayList<>();
+        for (int i = 0; i < SETTLED_ORDERS; i++) {
+            Long id = orderService.createOrder(orderRequest(i)).getId();
+            orderService.updateOrderStatus(id, OrderStatus.PROCESSING);
+            orderService.updateOrderStatus(id, OrderStatus.SHIPPED);
+            orderService.updateOrderStatus(id, OrderStatus.DELIVERED);
+            settled.add(id);
+        }
+        
+        // Let the JIT settle first: escape analysis removes many allocations only once compiled
+        runWorkload(WARM_UP_CALLS, settled);
+        
+        Path file = Files.createTempFile("order-allocations", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(OrderOperationEvent.NAME);
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "2000/s");
+            recording.start();
+            runWorkload(MEASURED_CALLS, settled);
+            recording.stop();
+            recording.dump(file);
+            
+            Map<String, List<Long>> allocations = new TreeMap<>();
+            Map<String, Long> sampledClasses = new HashMap<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().equals(OrderOperationEvent.NAME)) {
+                    String key = event.getString("operation") + (event.getString("exception") == null ? "" : ".failed");
+                    allocations.computeIfAbsent(key, ignored -> new ArrayList<>()).add(event.getLong("allocated"));
+                } else if (underOrderService(event)) {
+                    sampledClasses.merge(event.getClass("objectClass").getName(), event.getLong("weight"), Long::sum);
+                }
+            }
+            
+            Properties thresholds = loadThresholds();
+            report(allocations, sampledClasses, thresholds);
+            
+            for (String operation : thresholds.stringPropertyNames()) {
+                List<Long> samples = allocations.get(operation);
+                assertNotNull(samples, "no " + OrderOperationEvent.NAME + " events for " + operation);
+                long budget = Long.parseLong(thresholds.getProperty(operation).trim());
+                long median = median(samples);
+                assertTrue(median <= budget, String.format(Locale.ROOT,
+                        "%s allocates %d bytes per call, budget is %d bytes", operation, median, budget));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    /**
+     * Creates, lists, looks up and updates orders, including calls that fail validation
+     */
+    private void runWorkload(int calls, List<Long> settled) {
+        for (int i = 0; i < calls; i++) {
+            Long id = orderService.createOrder(orderRequest(i)).getId();
+            orderService.getAllOrders(OrderStatus.DELIVERED, null);
+            orderService.getOrderById(settled.get(i % settled.size()));
+            orderService.updateOrderStatus(id, OrderStatus.PROCESSING);
+            assertThrows(RuntimeException.class, () -> orderService.updateOrderStatus(id, OrderStatus.DELIVERED));
+            assertThrows(RuntimeException.class, () -> orderService.getOrderById(-1L - id));
+        }
+    }
+    
+    private static void report(Map<String, List<Long>> allocations, Map<String, Long> sampledClasses,
+                               Properties thresholds) {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%n=== Bytes allocated per OrderService call (%d calls each) ===%n",
+                MEASURED_CALLS));
+        report.append(String.format(Locale.ROOT, "%-26s %10s %10s %10s %10s%n", "operation", "median", "mean", "max", "budget"));
+        allocations.forEach((operation, samples) -> report.append(String.format(Locale.ROOT,
+                "%-26s %10d %10d %10d %10s%n", operation, median(samples),
+                samples.stream().mapToLong(Long::longValue).sum() / samples.size(),
+                samples.stream().mapToLong(Long::longValue).max().orElse(0),
+                thresholds.getProperty(operation, "-"))));
+        
+        long sampledTotal = sampledClasses.values().stream().mapToLong(Long::longValue).sum();
+        report.append(String.format(Locale.ROOT, "%nTop sampled allocations under OrderService%n"));
+        sampledClasses.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_CLASSES)
+                .forEach(entry -> report.append(String.format(Locale.ROOT, "%-60s %5.1f%%%n",
+                        entry.getKey(), 100.0 * entry.getValue() / Math.max(1, sampledTotal))));
+        log.info("{}", report);
+    }
+    
+    private static boolean underOrderService(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return false;
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (frame.getMethod().getType().getName().equals(OrderService.class.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static long median(List<Long> samples) {
+        return samples.stream().mapToLong(Long::longValue).sorted().toArray()[samples.size() / 2];
+    }
+    
+    private static Properties loadThresholds() throws IOException {
+        Properties thresholds = new Properties();
+        try (InputStream in = OrderAllocationRegressionTest.class.getResourceAsStream(THRESHOLDS)) {
+            assertNotNull(in, THRESHOLDS + " is missing");
+            thresholds.load(in);
+        }
+        return thresholds;
+    }
+    
+    private static OrderRequest orderRequest(int i) {
+        return OrderRequest.builder()
+                .customerName("Allocation Customer " + i % 20)
+                .customerEmail("allocation" + i % 20 + "@example.com")
+                .items(List.of(
+                        item("Keyboard", 1, "49.99"),
+                        item("Mouse", 2, "19.50"),
+                        item("Cable " + i % 5, 3, "4.25")))
+                .build();
+    }
+    
+    private static OrderItemRequest item(String productName, int quantity, String price) {
+        return OrderItemRequest.builder()
+                .productName(productName)
+                .quantity(quantity)
+                .price(new BigDecimal(price))
+                .build();
+    }
+}
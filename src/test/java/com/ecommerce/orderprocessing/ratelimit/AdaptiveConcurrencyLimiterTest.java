@@ -0,0 +1,83 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    
+    private static final long MILLIS = 1_000_000L;
+    
+    @Test
+    void admitsUpToTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 1, 10);
+        
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        
+        limiter.release(0, false);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(3, limiter.getInFlight());
+    }
+    
+    @Test
+    void growsWhileLatencyStaysFlatAndTheLimitIsUsed() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100);
+        
+        for (int i = 0; i < 200; i++) {
+            runFullBatch(limiter, 5 * MILLIS);
+        }
+        
+        assertEquals(100, limiter.getLimit());
+    }
+    
+    @Test
+    void shrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 2, 100);
+        for (int i = 0; i < 50; i++) {
+            runFullBatch(limiter, 5 * MILLIS);
+        }
+        int before = limiter.getLimit();
+        
+        // Queueing behind a saturated connection pool: ten times slower
+        for (int i = 0; i < 5; i++) {
+            runFullBatch(limiter, 50 * MILLIS);
+        }
+        
+        assertTrue(limiter.getLimit() < before / 2, "limit " + limiter.getLimit() + " was " + before);
+        assertTrue(limiter.getLimit() >= 2);
+    }
+    
+    @Test
+    void doesNotGrowWhenMostOfTheLimitIsUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 100);
+        
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(5 * MILLIS, true);
+        }
+        
+        assertEquals(20, limiter.getLimit());
+    }
+    
+    @Test
+    void rejectsInconsistentBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 2, 10));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 0, 10));
+    }
+    
+    /**
+     * Fill the current limit, then complete every request with the same latency
+     */
+    private static void runFullBatch(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int admitted = 0;
+        while (limiter.tryAcquire()) {
+            admitted++;
+        }
+        for (int i = 0; i < admitted; i++) {
+            limiter.release(rttNanos, true);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import com.ecommerce.orderprocessing.datasource.ClientContextFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingFilterTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Test
+    void clientOverItsRateGets429WithRetryAfter() throws Exception {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(Map.of(
+                EndpointClass.CREATE, new ClientRateLimiter.Limit(0.5, 2)), 100);
+        LoadSheddingFilter filter = new LoadSheddingFilter(rateLimiter, null, objectMapper, meterRegistry);
+        
+        assertEquals(200, post(filter, "10.0.0.1").getStatus());
+        assertEquals(200, post(filter, "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = post(filter, "10.0.0.1");
+        
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader("Retry-After"));
+        JsonNode body = objectMapper.readTree(rejected.getContentAsByteArray());
+        assertEquals(429, body.get("status").asInt());
+        assertEquals("/api/orders", body.get("path").asText());
+        
+        assertEquals(200, post(filter, "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.counter("orders.requests.rejected", "reason", "rate-limit").count());
+    }
+    
+    @Test
+    void requestsOverTheConcurrencyLimitGet503() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        LoadSheddingFilter filter = new LoadSheddingFilter(null, concurrencyLimiter, objectMapper, meterRegistry);
+        
+        assertTrue(concurrencyLimiter.tryAcquire());
+        MockHttpServletResponse rejected = post(filter, "10.0.0.1");
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        
+        concurrencyLimiter.release(0, false);
+        assertEquals(200, post(filter, "10.0.0.1").getStatus());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+    
+    @Test
+    void ignoresRequestsOutsideTheApi() throws Exception {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        LoadSheddingFilter filter = new LoadSheddingFilter(null, concurrencyLimiter, objectMapper, meterRegistry);
+        assertTrue(concurrencyLimiter.tryAcquire());
+        
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        
+        assertEquals(200, response.getStatus());
+    }
+    
+    @Test
+    void clientIdHeaderDoesNotEscapeTheRateLimit() throws Exception {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(Map.of(
+                EndpointClass.CREATE, new ClientRateLimiter.Limit(0.5, 2)), 100);
+        LoadSheddingFilter filter = new LoadSheddingFilter(rateLimiter, null, objectMapper, meterRegistry);
+        
+        for (int i = 0; i < 2; i++) {
+            assertEquals(200, post(filter, "10.0.0.1", "rotating-" + i).getStatus());
+        }
+        assertEquals(429, post(filter, "10.0.0.1", "rotating-2").getStatus());
+    }
+    
+    private static MockHttpServletResponse post(LoadSheddingFilter filter, String remoteAddr) throws Exception {
+        return post(filter, remoteAddr, null);
+    }
+    
+    private static MockHttpServletResponse post(LoadSheddingFilter filter, String remoteAddr, String clientIdHeader)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/orders");
+        request.setRemoteAddr(remoteAddr);
+        if (clientIdHeader != null) {
+            request.addHeader(ClientContextFilter.CLIENT_ID_HEADER, clientIdHeader);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
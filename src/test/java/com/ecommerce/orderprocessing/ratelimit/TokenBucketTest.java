@@ -0,0 +1,103 @@
+package com.ecommerce.orderprocessing.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    @Test
+    void allowsABurstThenTheSustainedRate() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0), "request " + i + " of the burst");
+        }
+        long wait = bucket.tryAcquire(0);
+        assertEquals(SECOND / 10, wait);
+        
+        assertEquals(0, bucket.tryAcquire(wait));
+        assertTrue(bucket.tryAcquire(wait) > 0);
+        // A second later ten more tokens have accumulated, up to the burst size
+        long later = wait + SECOND;
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(later));
+        }
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+    
+    @Test
+    void refillsToFullWhenIdle() {
+        TokenBucket bucket = new TokenBucket(10, 5, 0);
+        bucket.tryAcquire(0);
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND / 10));
+    }
+    
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        TokenBucket bucket = new TokenBucket(1, 100, 0);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, allowed.get());
+    }
+    
+    @Test
+    void keepsSeparateBucketsPerClientAndEndpoint() {
+        ClientRateLimiter limiter = new ClientRateLimiter(Map.of(
+                EndpointClass.CREATE, new ClientRateLimiter.Limit(1, 1)), 10);
+        
+        assertEquals(0, limiter.tryAcquire("a", EndpointClass.CREATE, 0));
+        assertTrue(limiter.tryAcquire("a", EndpointClass.CREATE, 0) > 0);
+        assertEquals(0, limiter.tryAcquire("b", EndpointClass.CREATE, 0));
+        // No limit configured for reads
+        assertEquals(0, limiter.tryAcquire("a", EndpointClass.DEFAULT, 0));
+    }
+    
+    @Test
+    void sharesAnOverflowBucketWhenTrackingTooManyClients() {
+        ClientRateLimiter limiter = new ClientRateLimiter(Map.of(
+                EndpointClass.CREATE, new ClientRateLimiter.Limit(10, 1)), 3);
+        for (int client = 0; client < 3; client++) {
+            limiter.tryAcquire("client-" + client, EndpointClass.CREATE, 0);
+        }
+        assertEquals(3, limiter.trackedBuckets());
+        
+        // New clients share one bucket instead of being tracked or let through
+        assertEquals(0, limiter.tryAcquire("client-new", EndpointClass.CREATE, 0));
+        assertTrue(limiter.tryAcquire("client-other", EndpointClass.CREATE, 0) > 0);
+        assertEquals(3, limiter.trackedBuckets());
+        
+        // The sweep drops refilled buckets, after which new clients get their own again
+        limiter.sweep(SECOND);
+        assertEquals(0, limiter.trackedBuckets());
+        assertEquals(0, limiter.tryAcquire("client-new", EndpointClass.CREATE, SECOND));
+        assertEquals(1, limiter.trackedBuckets());
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.orderprocessing.reconciliation;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The reconciliation tables must be committed with auto-commit disabled, as in the perf profile
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconcilenoautocommit",
+        "spring.datasource.hikari.auto-commit=false",
+        "spring.jpa.properties.hibernate.connection.provider_disables_autocommit=true",
+        "orders.reconciliation.partition-size=50"
+})
+class OrderReconciliationAutoCommitTest {
+    
+    @Autowired
+    private OrderReconciliationJob reconciliationJob;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void runAndCheckpointsAreCommitted() {
+        generator.generate(GenerationSpec.builder().orders(200).customers(20).build());
+        
+        ReconciliationReport report = reconciliationJob.reconcile(false);
+        
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT finished_at FROM reconciliation_runs WHERE id = ?", LocalDateTime.class, report.getRunId()));
+        assertEquals(report.getPartitions(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reconciliation_checkpoints WHERE run_id = ?", Integer.class, report.getRunId()));
+    }
+}
@@ -0,0 +1,180 @@
+package com.ecommerce.orderprocessing.reconciliation;
+
+import com.ecommerce.orderprocessing.cache.OrderResponseCache;
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.repository.OrderReconciliationRepository;
+import com.ecommerce.orderprocessing.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the order total reconciliation job
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reconciledb",
+        "orders.reconciliation.partition-size=500",
+        "orders.reconciliation.parallelism=3"
+})
+class OrderReconciliationJobTest {
+    
+    private static final int ORDERS = 3_000;
+    private static final int PARTITION_SIZE = 500;
+    
+    @Autowired
+    private OrderReconciliationJob reconciliationJob;
+    
+    @Autowired
+    private OrderReconciliationRepository reconciliationRepository;
+    
+    @Autowired
+    private SyntheticDataGenerator generator;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private OrderResponseCache orderResponseCache;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private long firstId;
+    
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM reconciliation_checkpoints");
+        jdbcTemplate.update("DELETE FROM reconciliation_runs");
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        entityManagerFactory.getCache().evictAll();
+        
+        generator.generate(GenerationSpec.builder().orders(ORDERS).customers(500).batchSize(1_000).build());
+        firstId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM orders", Long.class);
+    }
+    
+    @Test
+    void reportOnlyFindsMismatchesWithoutChangingThem() {
+        List<Long> corrupted = List.of(firstId, firstId + 499, firstId + 500, firstId + 1_234, firstId + ORDERS - 1);
+        corrupted.forEach(this::corrupt);
+        
+        ReconciliationReport report = reconciliationJob.reconcile(false);
+        
+        assertEquals(ORDERS / PARTITION_SIZE, report.getPartitions());
+        assertEquals(ORDERS, report.getOrdersChecked());
+        assertEquals(corrupted.size(), report.getMismatches());
+        assertEquals(0, report.getRepaired());
+        assertEquals(corrupted, report.getSamples().stream().map(TotalMismatch::getOrderId).sorted().toList());
+        assertEquals(corrupted.size(), countMismatches());
+        assertEquals(ORDERS / PARTITION_SIZE, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reconciliation_checkpoints WHERE run_id = ?", Integer.class, report.getRunId()));
+    }
+    
+    @Test
+    void repairFixesTotalsAndEvictsCachedOrders() {
+        Long settledId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM orders WHERE status = 'DELIVERED'", Long.class);
+        BigDecimal correctTotal = orderService.getOrderById(settledId).getTotalAmount();
+        corrupt(settledId);
+        corrupt(firstId + 2_000);
+        entityManagerFactory.getCache().evictAll();
+        // The wrong total is now in the second-level cache
+        assertNotEquals(0, correctTotal.compareTo(orderService.getOrderById(settledId).getTotalAmount()));
+        
+        ReconciliationReport report = reconciliationJob.reconcile(true);
+        
+        assertEquals(2, report.getMismatches());
+        assertEquals(2, report.getRepaired());
+        assertEquals(0, countMismatches());
+        assertEquals(0, correctTotal.compareTo(orderService.getOrderById(settledId).getTotalAmount()));
+        assertEquals(0, reconciliationJob.reconcile(false).getMismatches());
+    }
+    
+    @Test
+    void repairOnAnotherNodeReachesCachedResponses() throws Exception {
+        Long settledId = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM orders WHERE status = 'DELIVERED'", Long.class);
+        BigDecimal correctTotal = totalServed(settledId);
+        corrupt(settledId);
+        entityManagerFactory.getCache().evictAll();
+        orderResponseCache.evict(settledId);
+        // The wrong total is now in both caches of this node
+        assertNotEquals(0, correctTotal.compareTo(totalServed(settledId)));
+        
+        // Another node repairs the order; nothing is evicted here
+        TotalMismatch mismatch = reconciliationRepository.findMismatches(settledId, settledId + 1).get(0);
+        assertTrue(reconciliationRepository.repairTotal(mismatch, LocalDateTime.now()));
+        
+        assertEquals(0, correctTotal.compareTo(totalServed(settledId)));
+        assertEquals(0, correctTotal.compareTo(orderService.getOrderById(settledId).getTotalAmount()));
+    }
+    
+    @Test
+    void resumesAnUnfinishedRunFromItsCheckpoints() {
+        long lastId = firstId + ORDERS - 1;
+        ReconciliationRun run = reconciliationRepository.createRun(false, PARTITION_SIZE, firstId, lastId,
+                LocalDateTime.now());
+        for (int partition = 0; partition < 2; partition++) {
+            reconciliationRepository.saveCheckpoint(run.getId(), run.partitionStart(partition),
+                    run.partitionEnd(partition), PARTITION_SIZE, 0, 0, LocalDateTime.now());
+        }
+        corrupt(firstId + 10);     // in a checkpointed partition, so not seen again
+        corrupt(firstId + 2_600);
+        
+        ReconciliationReport report = reconciliationJob.reconcile(false);
+        
+        assertEquals(run.getId(), report.getRunId());
+        assertEquals(2, report.getResumedPartitions());
+        assertEquals(ORDERS - 2 * PARTITION_SIZE, report.getOrdersChecked());
+        assertEquals(1, report.getMismatches());
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT finished_at FROM reconciliation_runs WHERE id = ?", LocalDateTime.class, run.getId()));
+        
+        // The next pass starts a fresh run over everything
+        ReconciliationReport next = reconciliationJob.reconcile(false);
+        assertNotEquals(run.getId(), next.getRunId());
+        assertEquals(2, next.getMismatches());
+    }
+    
+    @Test
+    void repairSkipsOrdersChangedSinceTheyWereChecked() {
+        corrupt(firstId);
+        TotalMismatch mismatch = reconciliationRepository.findMismatches(firstId, firstId + 1).get(0);
+        jdbcTemplate.update("UPDATE orders SET total_amount = total_amount + 5 WHERE id = ?", firstId);
+        
+        assertFalse(reconciliationRepository.repairTotal(mismatch, LocalDateTime.now()));
+        assertEquals(1, countMismatches());
+    }
+    
+    private void corrupt(long orderId) {
+        assertEquals(1, jdbcTemplate.update("UPDATE orders SET total_amount = total_amount + 1 WHERE id = ?", orderId));
+    }
+    
+    private BigDecimal totalServed(Long orderId) throws IOException {
+        return objectMapper.readValue(orderService.getEncodedOrderById(orderId).getJson(), OrderResponse.class)
+                .getTotalAmount();
+    }
+    
+    private long countMismatches() {
+        return reconciliationRepository.findMismatches(firstId, firstId + ORDERS).size();
+    }
+}
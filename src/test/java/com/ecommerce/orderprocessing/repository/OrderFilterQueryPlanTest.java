@@ -0,0 +1,143 @@
+package com.ecommerce.orderprocessing.repository;
+
+import com.ecommerce.orderprocessing.datagen.GenerationSpec;
+import com.ecommerce.orderprocessing.datagen.SyntheticDataGenerator;
+import com.ecommerce.orderprocessing.dto.OrderFilter;
+import com.ecommerce.orderprocessing.dto.OrderFilterResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.service.OrderService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs EXPLAIN on the SQL that order filters compile to and fails when a filter shape that
+ * should be served by an index falls back to a full scan of the orders table
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:filterplan",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ecommerce.orderprocessing.repository.OrderFilterQueryPlanTest$CapturingInspector"
+})
+class OrderFilterQueryPlanTest {
+    
+    private static final LocalDateTime END = LocalDate.now().atStartOfDay();
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeAll
+    static void seed(@Autowired SyntheticDataGenerator generator, @Autowired JdbcTemplate jdbcTemplate) {
+        generator.generate(GenerationSpec.builder().orders(5_000).days(30).endTime(END).build());
+        jdbcTemplate.execute("analyze");
+    }
+    
+    @Test
+    void statusAndTimeRangeUsesStatusCreatedAtIndex() {
+        OrderFilter filter = OrderFilter.builder()
+                .statuses(Set.of(OrderStatus.PENDING, OrderStatus.PROCESSING))
+                .createdFrom(END.minusDays(7))
+                .createdTo(END)
+                .minAmount(new BigDecimal("100.00"))
+                .build();
+        
+        String plan = explainFilter(filter, null);
+        
+        assertUsesIndex(plan, "IDX_ORDERS_STATUS_CREATED_AT");
+    }
+    
+    @Test
+    void nextPageUsesStatusCreatedAtIndex() {
+        OrderFilter filter = OrderFilter.builder()
+                .statuses(Set.of(OrderStatus.PENDING))
+                .createdFrom(END.minusDays(30))
+                .build();
+        OrderFilterResponse firstPage = orderService.filterOrders(filter, null, 20, "id");
+        assertTrue(firstPage.isHasNext());
+        
+        String plan = explainFilter(filter, firstPage.getNextCursor());
+        
+        assertUsesIndex(plan, "IDX_ORDERS_STATUS_CREATED_AT");
+    }
+    
+    @Test
+    void timeRangeWithoutStatusUsesCreatedAtIndex() {
+        OrderFilter filter = OrderFilter.builder()
+                .createdFrom(END.minusDays(2))
+                .createdTo(END.minusDays(1))
+                .build();
+        
+        String plan = explainFilter(filter, null);
+        
+        assertUsesIndex(plan, "IDX_ORDERS_CREATED_AT");
+    }
+    
+    @Test
+    void pagesCoverEveryMatchingOrderOnce() {
+        OrderFilter filter = OrderFilter.builder()
+                .statuses(Set.of(OrderStatus.PENDING, OrderStatus.PROCESSING))
+                .createdFrom(END.minusDays(10))
+                .minAmount(new BigDecimal("50.00"))
+                .build();
+        Integer expected = jdbcTemplate.queryForObject(
+                "select count(*) from orders where status in ('PENDING', 'PROCESSING') "
+                        + "and created_at >= ? and total_amount >= 50", Integer.class, END.minusDays(10));
+        
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderFilterResponse page = orderService.filterOrders(filter, cursor, 37, "id");
+            page.getResults().forEach(order -> ids.add(order.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        
+        assertEquals(expected, ids.size());
+        assertEquals(ids.size(), Set.copyOf(ids).size());
+    }
+    
+    /**
+     * Run the filter, then EXPLAIN the orders query Hibernate sent for it
+     */
+    private String explainFilter(OrderFilter filter, String cursor) {
+        CapturingInspector.STATEMENTS.clear();
+        orderService.filterOrders(filter, cursor, 20, "id,status,totalAmount");
+        String sql = CapturingInspector.STATEMENTS.stream()
+                .filter(statement -> statement.contains(" from orders "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No orders query in " + CapturingInspector.STATEMENTS));
+        // H2 plans EXPLAIN without parameter values
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+    
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.contains(index), () -> "expected " + index + " in plan:\n" + plan);
+        assertFalse(plan.contains("tableScan"), () -> "full scan in plan:\n" + plan);
+    }
+    
+    public static class CapturingInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.ecommerce.orderprocessing.scheduler;
+
+import com.ecommerce.orderprocessing.OrderProcessingApplication;
+import com.ecommerce.orderprocessing.dto.BulkStatusUpdateResponse;
+import com.ecommerce.orderprocessing.dto.StatusUpdateOutcome;
+import com.ecommerce.orderprocessing.dto.StatusUpdateResult;
+import com.ecommerce.orderprocessing.model.Order;
+import com.ecommerce.orderprocessing.model.OrderItem;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs several application nodes in-process against one H2 file database
+ * and checks that pending orders are split between them without duplicate work
+ */
+class MultiNodeSchedulerTest {
+    
+    private static final int NODE_COUNT = 3;
+    private static final int ORDER_COUNT = 300;
+    private static final Path DB_DIR = Path.of("target", "multinode-scheduler-test");
+    
+    private final List<ConfigurableApplicationContext> nodes = new ArrayList<>();
+    
+    @BeforeEach
+    void startNodes() throws Exception {
+        FileSystemUtils.deleteRecursively(DB_DIR);
+        String url = "jdbc:h2:file:./" + DB_DIR.resolve("orderdb").toString().replace('\\', '/');
+        
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodes.add(new SpringApplicationBuilder(OrderProcessingApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.datasource.url=" + url,
+                            "--orders.scheduler.node-id=node-" + i,
+                            "--orders.scheduler.initial-delay-ms=3600000",
+                            "--orders.scheduler.batch-size=40"));
+        }
+        
+        OrderRepository orderRepository = nodes.get(0).getBean(OrderRepository.class);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            Order order = Order.builder()
+                    .customerName("Node Test " + i)
+                    .customerEmail("node" + i + "@test.com")
+                    .build();
+            order.addItem(OrderItem.builder()
+                    .productName("Product " + i)
+                    .quantity(1)
+                    .price(new BigDecimal("10.00"))
+                    .build());
+            order.calculateTotalAmount();
+            orderRepository.save(order);
+        }
+    }
+    
+    @AfterEach
+    void stopNodes() {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            nodes.get(i).close();
+        }
+        nodes.clear();
+    }
+    
+    @Test
+    void liveNodesProcessDisjointShards() throws Exception {
+        List<ShardAssignment> shards = new ArrayList<>();
+        for (ConfigurableApplicationContext node : nodes) {
+            node.getBean(SchedulerNodeRegistry.class).heartbeat();
+        }
+        for (ConfigurableApplicationContext node : nodes) {
+            shards.add(node.getBean(SchedulerNodeRegistry.class).heartbeat());
+        }
+        
+        Set<Integer> shardIndexes = new HashSet<>();
+        for (ShardAssignment shard : shards) {
+            assertEquals(NODE_COUNT, shard.getCount());
+            shardIndexes.add(shard.getIndex());
+        }
+        assertEquals(NODE_COUNT, shardIndexes.size());
+        
+        List<Integer> processed = runConcurrently(i -> nodes.get(i).getBean(OrderService.class)
+                .processPendingOrders(shards.get(i)));
+        
+        for (int count : processed) {
+            assertEquals(ORDER_COUNT / NODE_COUNT, count);
+        }
+        assertAllProcessed();
+    }
+    
+    @Test
+    void racingNodesNeverProcessAnOrderTwice() throws Exception {
+        // Every node believes it owns all pending orders, as during a membership change
+        List<Integer> processed = runConcurrently(i -> nodes.get(i).getBean(OrderService.class)
+                .processPendingOrders(ShardAssignment.SINGLE_NODE));
+        
+        assertEquals(ORDER_COUNT, processed.stream().mapToInt(Integer::intValue).sum());
+        assertAllProcessed();
+    }
+    
+    @Test
+    void bulkCancelRacingSchedulersReportsEveryOrderOnce() throws Exception {
+        OrderRepository orderRepository = nodes.get(0).getBean(OrderRepository.class);
+        List<Long> ids = orderRepository.findByStatus(OrderStatus.PENDING).stream().map(Order::getId).toList();
+        List<BulkStatusUpdateResponse> cancellations = new ArrayList<>();
+        
+        // Node 0 cancels every order while the other nodes process them
+        List<Integer> changed = runConcurrently(i -> {
+            if (i > 0) {
+                return nodes.get(i).getBean(OrderService.class).processPendingOrders(ShardAssignment.SINGLE_NODE);
+            }
+            BulkStatusUpdateResponse response = nodes.get(0).getBean(OrderService.class).cancelOrders(ids);
+            cancellations.add(response);
+            return response.getUpdated();
+        });
+        
+        assertEquals(ORDER_COUNT, changed.stream().mapToInt(Integer::intValue).sum());
+        Set<Long> cancelled = new HashSet<>(orderRepository.findByStatus(OrderStatus.CANCELLED).stream()
+                .map(Order::getId).toList());
+        for (StatusUpdateResult result : cancellations.get(0).getResults()) {
+            if (cancelled.contains(result.getId())) {
+                assertEquals(StatusUpdateOutcome.UPDATED, result.getOutcome());
+            } else {
+                assertEquals(StatusUpdateOutcome.INVALID_TRANSITION, result.getOutcome());
+                assertEquals(OrderStatus.PROCESSING, result.getPreviousStatus());
+            }
+        }
+        assertTrue(orderRepository.findByStatus(OrderStatus.PENDING).isEmpty());
+    }
+    
+    private List<Integer> runConcurrently(NodeTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NODE_COUNT);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < NODE_COUNT; i++) {
+                int node = i;
+                futures.add(executor.submit((Callable<Integer>) () -> task.run(node)));
+            }
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void assertAllProcessed() {
+        OrderRepository orderRepository = nodes.get(0).getBean(OrderRepository.class);
+        assertTrue(orderRepository.findByStatus(OrderStatus.PENDING).isEmpty());
+        assertEquals(ORDER_COUNT, orderRepository.findByStatus(OrderStatus.PROCESSING).size());
+    }
+    
+    @FunctionalInterface
+    private interface NodeTask {
+        int run(int node) throws Exception;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.orderprocessing.scheduler;
+
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.service.OrderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for event-driven processing of new orders
+ */
+@SpringBootTest(properties = {
+        "orders.processing.event-driven.enabled=true",
+        "orders.scheduler.initial-delay-ms=3600000"
+})
+class PendingOrderDispatcherTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void newOrderMovesToProcessingWithoutWaitingForTheScan() throws Exception {
+        OrderRequest request = OrderRequest.builder()
+                .customerName("Dispatcher Test User")
+                .customerEmail("dispatcher@test.com")
+                .items(Collections.singletonList(OrderItemRequest.builder()
+                        .productName("Dispatcher Product")
+                        .quantity(1)
+                        .price(new BigDecimal("10.00"))
+                        .build()))
+                .build();
+        
+        OrderResponse created = orderService.createOrder(request);
+        
+        OrderStatus status = created.getStatus();
+        Timer latency = meterRegistry.get("orders.pending.processing.latency").timer();
+        long deadline = System.currentTimeMillis() + 5000;
+        // The worker records latency just after its transaction commits, so wait for both
+        while ((status == OrderStatus.PENDING || latency.count() == 0) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = orderService.getOrderById(created.getId()).getStatus();
+        }
+        
+        assertEquals(OrderStatus.PROCESSING, status);
+        assertTrue(latency.count() >= 1);
+    }
+}
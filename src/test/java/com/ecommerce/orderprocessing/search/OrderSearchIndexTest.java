@@ -0,0 +1,132 @@
+package com.ecommerce.orderprocessing.search;
+
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OrderSearchIndexTest {
+    
+    private OrderSearchIndex index;
+    
+    @BeforeEach
+    void setUp() {
+        index = new OrderSearchIndex(mock(OrderRepository.class), mock(PlatformTransactionManager.class),
+                false, 2, 512, Duration.ofMinutes(1));
+        index.index(1, List.of("Alice Johnson", "alice@example.com", "Laptop", "Wireless Mouse"));
+        index.index(2, List.of("Bob Smith", "bob@example.com", "Smartphone"));
+        index.index(3, List.of("Alice Cooper", "cooper@example.org", "Laptop Stand"));
+    }
+    
+    @Test
+    void prefixMatchesNewestFirst() {
+        SearchHits hits = index.search("ali", 0, 10);
+        
+        assertEquals(List.of(3L, 1L), hits.getOrderIds());
+        assertFalse(hits.isHasNext());
+        assertFalse(hits.isTruncated());
+    }
+    
+    @Test
+    void reportsPrefixesMatchingMoreTermsThanAreExpanded() {
+        for (int i = 0; i < 600; i++) {
+            index.index(1000 + i, List.of(String.format("Widget%03d", i)));
+        }
+        
+        SearchHits broad = index.search("widget", 0, 10);
+        SearchHits narrow = index.search("widget5", 0, 10);
+        
+        assertTrue(broad.isTruncated());
+        // The expanded terms are the first 512 in order, so the newest orders are left out
+        assertEquals(1511L, broad.getOrderIds().get(0));
+        assertFalse(narrow.isTruncated());
+        assertEquals(1599L, narrow.getOrderIds().get(0));
+    }
+    
+    @Test
+    void everyTokenMustMatch() {
+        assertEquals(List.of(1L), index.search("alice mouse", 0, 10).getOrderIds());
+        assertEquals(List.of(3L), index.search("LAPTOP st", 0, 10).getOrderIds());
+        assertTrue(index.search("alice smart", 0, 10).getOrderIds().isEmpty());
+    }
+    
+    @Test
+    void emailIsSearchableByItsParts() {
+        assertEquals(List.of(2L), index.search("bob@example", 0, 10).getOrderIds());
+        assertEquals(List.of(3L), index.search("example.org", 0, 10).getOrderIds());
+    }
+    
+    @Test
+    void singleCharacterTokensOnlyMatchWholeTerms() {
+        index.index(4, List.of("J Doe"));
+        
+        assertEquals(List.of(4L), index.search("j", 0, 10).getOrderIds());
+    }
+    
+    @Test
+    void pagination() {
+        for (long id = 10; id < 35; id++) {
+            index.index(id, List.of("Paged Customer"));
+        }
+        
+        SearchHits first = index.search("paged", 0, 10);
+        SearchHits last = index.search("paged", 2, 10);
+        
+        assertEquals(34L, first.getOrderIds().get(0));
+        assertTrue(first.isHasNext());
+        assertEquals(5, last.getOrderIds().size());
+        assertEquals(14L, last.getOrderIds().get(0));
+        assertFalse(last.isHasNext());
+    }
+    
+    @Test
+    void outOfOrderAndDuplicateIdsStaySorted() {
+        index.index(50, List.of("Zed"));
+        index.index(40, List.of("Zed"));
+        index.index(45, List.of("Zed"));
+        index.index(45, List.of("Zed"));
+        
+        assertEquals(List.of(50L, 45L, 40L), index.search("zed", 0, 10).getOrderIds());
+    }
+    
+    @Test
+    void blankQueryMatchesNothing() {
+        assertTrue(index.search("  ", 0, 10).getOrderIds().isEmpty());
+        assertTrue(index.search("nomatch", 0, 10).getOrderIds().isEmpty());
+    }
+    
+    @Test
+    void concurrentIndexingLosesNoOrders() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            int offset = thread;
+            executor.submit(() -> {
+                for (long id = 1000 + offset; id < 5000; id += 4) {
+                    index.index(id, List.of("Concurrent Buyer"));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        
+        List<Long> all = new ArrayList<>(index.search("concurrent", 0, 100).getOrderIds());
+        for (int page = 1; all.size() < 4000; page++) {
+            List<Long> next = index.search("concurrent", page, 100).getOrderIds();
+            assertFalse(next.isEmpty());
+            all.addAll(next);
+        }
+        assertEquals(4000, all.size());
+        assertEquals(4999L, all.get(0));
+        assertEquals(1000L, all.get(3999));
+    }
+}
@@ -1,28 +1,52 @@
 package com.ecommerce.orderprocessing.service;
 
+import com.ecommerce.orderprocessing.cache.EncodedOrderResponse;
+import com.ecommerce.orderprocessing.cache.OrderResponseCache;
+import com.ecommerce.orderprocessing.dto.BulkStatusUpdateResponse;
+import com.ecommerce.orderprocessing.dto.OrderFilter;
 import com.ecommerce.orderprocessing.dto.OrderItemRequest;
 import com.ecommerce.orderprocessing.dto.OrderRequest;
 import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.dto.OrderSearchResponse;
+import com.ecommerce.orderprocessing.dto.OrderStatusUpdateRequest;
+import com.ecommerce.orderprocessing.dto.StatusUpdateOutcome;
+import com.ecommerce.orderprocessing.dto.StatusUpdateResult;
+import com.ecommerce.orderprocessing.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.event.OrderStatusChangedEvent;
 import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
 import com.ecommerce.orderprocessing.exception.OrderNotFoundException;
+import com.ecommerce.orderprocessing.mapper.OrderField;
 import com.ecommerce.orderprocessing.mapper.OrderMapper;
 import com.ecommerce.orderprocessing.model.Order;
 import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderKeyset;
 import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.scheduler.ShardAssignment;
+import com.ecommerce.orderprocessing.search.OrderSearchIndex;
+import com.ecommerce.orderprocessing.search.SearchHits;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -35,6 +59,18 @@ class OrderServiceTest {
     @Mock
     private OrderMapper orderMapper;
     
+    @Mock
+    private OrderResponseCache orderResponseCache;
+    
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Mock
+    private OrderSearchIndex orderSearchIndex;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
     @InjectMocks
     private OrderService orderService;
     
@@ -84,32 +120,87 @@ class OrderServiceTest {
         assertNotNull(result);
         assertEquals("John Doe", result.getCustomerName());
         verify(orderRepository, times(1)).save(any(Order.class));
+        verify(eventPublisher, times(1)).publishEvent(any(OrderCreatedEvent.class));
     }
     
     @Test
     void getOrderById_Success() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderRepository.findCacheableById(1L)).thenReturn(Optional.of(testOrder));
         when(orderMapper.toResponse(testOrder)).thenReturn(testOrderResponse);
         
         OrderResponse result = orderService.getOrderById(1L);
         
         assertNotNull(result);
         assertEquals(1L, result.getId());
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findCacheableById(1L);
     }
     
     @Test
     void getOrderById_NotFound() {
-        when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+        when(orderRepository.findCacheableById(999L)).thenReturn(Optional.empty());
         
         assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(999L));
     }
     
+    @Test
+    void getEncodedOrderById_CacheMiss() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 10, 24, 10, 30);
+        EncodedOrderResponse encoded = new EncodedOrderResponse(1L, OrderStatus.PENDING, updatedAt, new byte[0], null);
+        when(orderRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+        when(orderResponseCache.getIfCurrent(1L, updatedAt)).thenReturn(null);
+        when(orderRepository.findCacheableById(1L, updatedAt)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.toResponse(testOrder)).thenReturn(testOrderResponse);
+        when(orderResponseCache.put(testOrderResponse)).thenReturn(encoded);
+        
+        EncodedOrderResponse result = orderService.getEncodedOrderById(1L);
+        
+        assertSame(encoded, result);
+        verify(orderResponseCache, times(1)).put(testOrderResponse);
+    }
+    
+    @Test
+    void getEncodedOrderById_CurrentEntryIsReused() {
+        LocalDateTime updatedAt = LocalDateTime.of(2025, 10, 24, 10, 30);
+        EncodedOrderResponse encoded = new EncodedOrderResponse(1L, OrderStatus.PENDING, updatedAt, new byte[0], null);
+        when(orderRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(updatedAt));
+        when(orderResponseCache.getIfCurrent(1L, updatedAt)).thenReturn(encoded);
+        
+        EncodedOrderResponse result = orderService.getEncodedOrderById(1L);
+        
+        assertSame(encoded, result);
+        verify(orderRepository, never()).findCacheableById(any(), any());
+        verify(orderMapper, never()).toResponse(any(Order.class));
+    }
+    
+    @Test
+    void getEncodedOrderById_TerminalEntryIsRevalidated() {
+        LocalDateTime repairedAt = LocalDateTime.of(2025, 10, 25, 3, 0);
+        EncodedOrderResponse repaired = new EncodedOrderResponse(1L, OrderStatus.DELIVERED, repairedAt,
+                new byte[0], null);
+        when(orderRepository.findUpdatedAtById(1L)).thenReturn(Optional.of(repairedAt));
+        when(orderResponseCache.getIfCurrent(1L, repairedAt)).thenReturn(null);
+        when(orderRepository.findCacheableById(1L, repairedAt)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.toResponse(testOrder)).thenReturn(testOrderResponse);
+        when(orderResponseCache.put(testOrderResponse)).thenReturn(repaired);
+        
+        EncodedOrderResponse result = orderService.getEncodedOrderById(1L);
+        
+        assertSame(repaired, result);
+        verify(orderResponseCache, never()).get(any());
+    }
+    
+    @Test
+    void getEncodedOrderById_NotFound() {
+        when(orderRepository.findUpdatedAtById(999L)).thenReturn(Optional.empty());
+        
+        assertThrows(OrderNotFoundException.class, () -> orderService.getEncodedOrderById(999L));
+    }
+    
     @Test
     void getAllOrders_WithoutStatusFilter() {
         List<Order> orders = Collections.singletonList(testOrder);
         when(orderRepository.findAll()).thenReturn(orders);
-        when(orderMapper.toResponse(any(Order.class))).thenReturn(testOrderResponse);
+        when(orderMapper.toResponse(any(Order.class), eq(OrderField.ALL))).thenReturn(testOrderResponse);
         
         List<OrderResponse> result = orderService.getAllOrders(null);
         
@@ -122,7 +213,7 @@ class OrderServiceTest {
     void getAllOrders_WithStatusFilter() {
         List<Order> orders = Collections.singletonList(testOrder);
         when(orderRepository.findByStatus(OrderStatus.PENDING)).thenReturn(orders);
-        when(orderMapper.toResponse(any(Order.class))).thenReturn(testOrderResponse);
+        when(orderMapper.toResponse(any(Order.class), eq(OrderField.ALL))).thenReturn(testOrderResponse);
         
         List<OrderResponse> result = orderService.getAllOrders(OrderStatus.PENDING);
         
@@ -131,6 +222,70 @@ class OrderServiceTest {
         verify(orderRepository, times(1)).findByStatus(OrderStatus.PENDING);
     }
     
+    @Test
+    void getAllOrders_WithFields() {
+        when(orderRepository.findAll()).thenReturn(Collections.singletonList(testOrder));
+        
+        orderService.getAllOrders(null, "id, status,totalAmount");
+        
+        verify(orderMapper).toResponse(testOrder,
+                EnumSet.of(OrderField.ID, OrderField.STATUS, OrderField.TOTAL_AMOUNT));
+    }
+    
+    @Test
+    void getAllOrders_UnknownField() {
+        InvalidOrderOperationException exception = assertThrows(InvalidOrderOperationException.class,
+                () -> orderService.getAllOrders(null, "id,secret"));
+        
+        assertTrue(exception.getMessage().startsWith("Unknown field: secret"));
+        verifyNoInteractions(orderRepository);
+    }
+    
+    @Test
+    void filterOrders_InvalidCriteria() {
+        OrderFilter emptyRange = OrderFilter.builder()
+                .createdFrom(LocalDateTime.of(2025, 10, 2, 0, 0))
+                .createdTo(LocalDateTime.of(2025, 10, 1, 0, 0))
+                .build();
+        
+        assertThrows(InvalidOrderOperationException.class,
+                () -> orderService.filterOrders(new OrderFilter(), null, 0, null));
+        assertThrows(InvalidOrderOperationException.class,
+                () -> orderService.filterOrders(emptyRange, null, 20, null));
+        assertThrows(InvalidOrderOperationException.class,
+                () -> orderService.filterOrders(new OrderFilter(), "not-a-cursor", 20, null));
+        verifyNoInteractions(orderRepository);
+    }
+    
+    @Test
+    void orderKeyset_RoundTrip() {
+        OrderKeyset keyset = new OrderKeyset(LocalDateTime.of(2025, 10, 24, 10, 30, 0, 123_456_000), 42L);
+        
+        assertEquals(keyset, OrderKeyset.decode(keyset.encode()));
+        assertNull(OrderKeyset.decode(null));
+    }
+    
+    @Test
+    void searchOrders_KeepsIndexOrder() {
+        Order newer = Order.builder().id(2L).customerName("Jane Doe").build();
+        OrderResponse newerResponse = OrderResponse.builder().id(2L).build();
+        when(orderSearchIndex.search("doe", 0, 20)).thenReturn(new SearchHits(List.of(2L, 1L), true, false));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(2L, 1L))).thenReturn(List.of(testOrder, newer));
+        when(orderMapper.toResponse(testOrder)).thenReturn(testOrderResponse);
+        when(orderMapper.toResponse(newer)).thenReturn(newerResponse);
+        
+        OrderSearchResponse result = orderService.searchOrders("doe", 0, 20);
+        
+        assertEquals(List.of(newerResponse, testOrderResponse), result.getResults());
+        assertTrue(result.isHasNext());
+    }
+    
+    @Test
+    void searchOrders_InvalidPageSize() {
+        assertThrows(InvalidOrderOperationException.class, () -> orderService.searchOrders("doe", 0, 500));
+        verifyNoInteractions(orderSearchIndex);
+    }
+    
     @Test
     void updateOrderStatus_Success() {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
@@ -143,6 +298,36 @@ class OrderServiceTest {
         verify(orderRepository, times(1)).save(any(Order.class));
     }
     
+    @Test
+    void applyStatusTransitions_ValidatesEachUpdateAgainstTheOneBefore() {
+        testOrder.setStatus(OrderStatus.PENDING);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        when(orderMapper.toResponse(testOrder)).thenReturn(testOrderResponse);
+        
+        List<OrderService.TransitionResult> results = orderService.applyStatusTransitions(1L,
+                List.of(OrderStatus.PROCESSING, OrderStatus.DELIVERED, OrderStatus.SHIPPED));
+        
+        assertEquals(3, results.size());
+        assertNull(results.get(0).error());
+        assertInstanceOf(InvalidOrderOperationException.class, results.get(1).error());
+        assertNull(results.get(2).error());
+        assertEquals(OrderStatus.SHIPPED, testOrder.getStatus());
+        verify(orderRepository, times(1)).save(testOrder);
+        verify(eventPublisher, times(2)).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+    
+    @Test
+    void applyStatusTransitions_NothingValidWritesNothing() {
+        testOrder.setStatus(OrderStatus.DELIVERED);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+        
+        List<OrderService.TransitionResult> results = orderService.applyStatusTransitions(1L,
+                List.of(OrderStatus.SHIPPED));
+        
+        assertInstanceOf(InvalidOrderOperationException.class, results.get(0).error());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
     @Test
     void cancelOrder_Success() {
         when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
@@ -165,15 +350,164 @@ class OrderServiceTest {
     
     @Test
     void processPendingOrders_Success() {
-        List<Order> pendingOrders = Collections.singletonList(testOrder);
-        when(orderRepository.findByStatus(OrderStatus.PENDING)).thenReturn(pendingOrders);
-        when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+        when(orderRepository.findIdsByStatusInShard(eq(OrderStatus.PENDING), eq(0), eq(1), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class))).thenReturn(1);
         
         int result = orderService.processPendingOrders();
         
         assertEquals(1, result);
-        verify(orderRepository, times(1)).findByStatus(OrderStatus.PENDING);
-        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, times(1)).updateStatusIfCurrent(eq(List.of(1L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void processPendingOrder_Claimed() {
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class))).thenReturn(1);
+        
+        assertTrue(orderService.processPendingOrder(1L));
+    }
+    
+    @Test
+    void processPendingOrder_AlreadyMoved() {
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class))).thenReturn(0);
+        
+        assertFalse(orderService.processPendingOrder(1L));
+    }
+    
+    @Test
+    void processPendingOrders_OnlyCountsClaimedOrders() {
+        when(orderRepository.findIdsByStatusInShard(eq(OrderStatus.PENDING), eq(1), eq(3), any(Pageable.class)))
+                .thenReturn(List.of(1L, 4L, 7L));
+        // Another node moved order 4 out of PENDING between the select and the update
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L, 4L, 7L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class))).thenReturn(2);
+        when(orderRepository.findIdsByStatusAndUpdatedAt(eq(List.of(1L, 4L, 7L)), eq(OrderStatus.PROCESSING),
+                any(LocalDateTime.class))).thenReturn(List.of(1L, 7L));
+        
+        int result = orderService.processPendingOrders(new ShardAssignment(1, 3));
+        
+        assertEquals(2, result);
+        ArgumentCaptor<OrderStatusChangedEvent> event = ArgumentCaptor.forClass(OrderStatusChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(List.of(1L, 7L), event.getValue().getOrderIds());
+        assertEquals(OrderStatus.PROCESSING, event.getValue().getStatus());
+    }
+    
+    @Test
+    void processPendingOrders_CommitsEachBatch() {
+        List<Long> fullBatch = LongStream.rangeClosed(1, 500).boxed().toList();
+        when(orderRepository.findIdsByStatusInShard(eq(OrderStatus.PENDING), eq(0), eq(1), any(Pageable.class)))
+                .thenReturn(fullBatch, List.of(501L));
+        when(orderRepository.updateStatusIfCurrent(anyList(), eq(OrderStatus.PENDING),
+                eq(OrderStatus.PROCESSING), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).size());
+        
+        int result = orderService.processPendingOrders(ShardAssignment.SINGLE_NODE);
+        
+        assertEquals(501, result);
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(eventPublisher, times(2)).publishEvent(any(OrderStatusChangedEvent.class));
+    }
+    
+    @Test
+    void updateOrderStatuses_ReportsOutcomePerEntry() {
+        when(orderRepository.findStatusesByIdIn(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(
+                new Object[]{1L, OrderStatus.PROCESSING},
+                new Object[]{2L, OrderStatus.PROCESSING},
+                new Object[]{3L, OrderStatus.PENDING}));
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L, 2L)), eq(OrderStatus.PROCESSING),
+                eq(OrderStatus.SHIPPED), any(LocalDateTime.class))).thenReturn(2);
+        
+        BulkStatusUpdateResponse result = orderService.updateOrderStatuses(List.of(
+                new OrderStatusUpdateRequest(1L, OrderStatus.SHIPPED),
+                new OrderStatusUpdateRequest(2L, OrderStatus.SHIPPED),
+                new OrderStatusUpdateRequest(3L, OrderStatus.SHIPPED),
+                new OrderStatusUpdateRequest(4L, OrderStatus.SHIPPED),
+                new OrderStatusUpdateRequest(1L, OrderStatus.DELIVERED),
+                new OrderStatusUpdateRequest(null, OrderStatus.SHIPPED)));
+        
+        assertEquals(6, result.getRequested());
+        assertEquals(2, result.getUpdated());
+        assertEquals(4, result.getRejected());
+        assertEquals(List.of(StatusUpdateOutcome.UPDATED, StatusUpdateOutcome.UPDATED,
+                        StatusUpdateOutcome.INVALID_TRANSITION, StatusUpdateOutcome.NOT_FOUND,
+                        StatusUpdateOutcome.DUPLICATE, StatusUpdateOutcome.INVALID_REQUEST),
+                result.getResults().stream().map(StatusUpdateResult::getOutcome).toList());
+        assertEquals(OrderStatus.PROCESSING, result.getResults().get(0).getPreviousStatus());
+        verify(orderRepository).evictCachedOrders(Set.of(1L, 2L));
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+    
+    @Test
+    void updateOrderStatuses_ConcurrentChangeIsReportedAsConflict() {
+        when(orderRepository.findStatusesByIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                new Object[]{1L, OrderStatus.PENDING},
+                new Object[]{2L, OrderStatus.PENDING}));
+        // The scheduler claimed order 2 between the read and the update
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L, 2L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.CANCELLED), any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.findIdsByStatusAndUpdatedAt(eq(List.of(1L, 2L)), eq(OrderStatus.CANCELLED),
+                any(LocalDateTime.class))).thenReturn(List.of(1L));
+        
+        BulkStatusUpdateResponse result = orderService.updateOrderStatuses(List.of(
+                new OrderStatusUpdateRequest(1L, OrderStatus.CANCELLED),
+                new OrderStatusUpdateRequest(2L, OrderStatus.CANCELLED)));
+        
+        assertEquals(1, result.getUpdated());
+        assertEquals(StatusUpdateOutcome.UPDATED, result.getResults().get(0).getOutcome());
+        assertEquals(StatusUpdateOutcome.CONFLICT, result.getResults().get(1).getOutcome());
+    }
+    
+    @Test
+    void updateOrderStatuses_RejectsEmptyOrOversizedRequest() {
+        List<OrderStatusUpdateRequest> oversized = Collections.nCopies(OrderService.MAX_BULK_STATUS_UPDATES + 1,
+                new OrderStatusUpdateRequest(1L, OrderStatus.SHIPPED));
+        
+        assertThrows(InvalidOrderOperationException.class, () -> orderService.updateOrderStatuses(List.of()));
+        assertThrows(InvalidOrderOperationException.class, () -> orderService.updateOrderStatuses(oversized));
+        verifyNoInteractions(orderRepository);
+    }
+    
+    @Test
+    void cancelOrders_ReportsOrdersPastPending() {
+        // Order 2 was claimed by the scheduler, order 3 does not exist
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L, 2L, 3L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.CANCELLED), any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.findIdsByStatusAndUpdatedAt(eq(List.of(1L, 2L, 3L)), eq(OrderStatus.CANCELLED),
+                any(LocalDateTime.class))).thenReturn(List.of(1L));
+        when(orderRepository.findStatusesByIdIn(List.of(2L, 3L)))
+                .thenReturn(Collections.singletonList(new Object[]{2L, OrderStatus.PROCESSING}));
+        
+        BulkStatusUpdateResponse result = orderService.cancelOrders(List.of(1L, 2L, 3L, 1L));
+        
+        assertEquals(4, result.getRequested());
+        assertEquals(1, result.getUpdated());
+        assertEquals(List.of(StatusUpdateOutcome.UPDATED, StatusUpdateOutcome.INVALID_TRANSITION,
+                        StatusUpdateOutcome.NOT_FOUND, StatusUpdateOutcome.DUPLICATE),
+                result.getResults().stream().map(StatusUpdateResult::getOutcome).toList());
+        assertEquals(OrderStatus.PROCESSING, result.getResults().get(1).getPreviousStatus());
+        assertEquals("Order cannot be cancelled. Current status: PROCESSING", result.getResults().get(1).getMessage());
+        verify(orderRepository).evictCachedOrders(Set.of(1L));
+        verify(orderRepository, never()).findById(any());
+    }
+    
+    @Test
+    void cancelOrders_AllPendingSkipsFollowUpQueries() {
+        when(orderRepository.updateStatusIfCurrent(eq(List.of(1L, 2L)), eq(OrderStatus.PENDING),
+                eq(OrderStatus.CANCELLED), any(LocalDateTime.class))).thenReturn(2);
+        
+        BulkStatusUpdateResponse result = orderService.cancelOrders(List.of(1L, 2L));
+        
+        assertEquals(2, result.getUpdated());
+        assertEquals(0, result.getRejected());
+        verify(orderRepository, never()).findIdsByStatusAndUpdatedAt(any(), any(), any());
+        verify(orderRepository, never()).findStatusesByIdIn(any());
     }
     
     // ============================================================
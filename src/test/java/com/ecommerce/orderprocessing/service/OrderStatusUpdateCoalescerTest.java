@@ -0,0 +1,118 @@
+package com.ecommerce.orderprocessing.service;
+
+import com.ecommerce.orderprocessing.dto.OrderResponse;
+import com.ecommerce.orderprocessing.exception.InvalidOrderOperationException;
+import com.ecommerce.orderprocessing.exception.OrderNotFoundException;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OrderStatusUpdateCoalescerTest {
+    
+    private OrderService orderService;
+    private OrderStatusUpdateCoalescer coalescer;
+    private ExecutorService executor;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        orderService = mock(OrderService.class);
+        // Every update succeeds except moving to CANCELLED
+        when(orderService.applyStatusTransitions(anyLong(), anyList())).thenAnswer(invocation -> {
+            List<OrderStatus> statuses = new ArrayList<>(invocation.getArgument(1));
+            return statuses.stream()
+                    .map(status -> status == OrderStatus.CANCELLED
+                            ? new OrderService.TransitionResult(null, new InvalidOrderOperationException("no"))
+                            : new OrderService.TransitionResult(OrderResponse.builder().status(status).build(), null))
+                    .toList();
+        });
+        coalescer = new OrderStatusUpdateCoalescer(orderService, mock(ObjectProvider.class),
+                new SimpleMeterRegistry(), 100, 8);
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void updatesWithinTheWindowAreAppliedTogetherInArrivalOrder() throws Exception {
+        Future<OrderResponse> processing = submit(1L, OrderStatus.PROCESSING);
+        Thread.sleep(10);
+        Future<OrderResponse> shipped = submit(1L, OrderStatus.SHIPPED);
+        Thread.sleep(10);
+        Future<OrderResponse> delivered = submit(1L, OrderStatus.DELIVERED);
+        
+        assertEquals(OrderStatus.PROCESSING, processing.get().getStatus());
+        assertEquals(OrderStatus.SHIPPED, shipped.get().getStatus());
+        assertEquals(OrderStatus.DELIVERED, delivered.get().getStatus());
+        verify(orderService, times(1)).applyStatusTransitions(1L,
+                List.of(OrderStatus.PROCESSING, OrderStatus.SHIPPED, OrderStatus.DELIVERED));
+    }
+    
+    @Test
+    void invalidUpdateFailsOnlyItsOwnCaller() throws Exception {
+        Future<OrderResponse> processing = submit(1L, OrderStatus.PROCESSING);
+        Thread.sleep(10);
+        Future<OrderResponse> cancelled = submit(1L, OrderStatus.CANCELLED);
+        
+        assertEquals(OrderStatus.PROCESSING, processing.get().getStatus());
+        ExecutionException failure = assertThrows(ExecutionException.class, cancelled::get);
+        assertInstanceOf(InvalidOrderOperationException.class, failure.getCause());
+    }
+    
+    @Test
+    void failedBatchFailsEveryCaller() throws Exception {
+        when(orderService.applyStatusTransitions(eq(2L), anyList())).thenThrow(new OrderNotFoundException(2L));
+        
+        Future<OrderResponse> first = submit(2L, OrderStatus.PROCESSING);
+        Thread.sleep(10);
+        Future<OrderResponse> second = submit(2L, OrderStatus.SHIPPED);
+        
+        assertInstanceOf(OrderNotFoundException.class, assertThrows(ExecutionException.class, first::get).getCause());
+        assertInstanceOf(OrderNotFoundException.class, assertThrows(ExecutionException.class, second::get).getCause());
+        verify(orderService, times(1)).applyStatusTransitions(eq(2L), anyList());
+    }
+    
+    @Test
+    void differentOrdersAreWrittenSeparately() throws Exception {
+        Future<OrderResponse> first = submit(1L, OrderStatus.PROCESSING);
+        Future<OrderResponse> second = submit(2L, OrderStatus.PROCESSING);
+        
+        first.get();
+        second.get();
+        verify(orderService).applyStatusTransitions(1L, List.of(OrderStatus.PROCESSING));
+        verify(orderService).applyStatusTransitions(2L, List.of(OrderStatus.PROCESSING));
+    }
+    
+    @Test
+    void updatesAfterABatchIsWrittenStartANewOne() {
+        coalescer.updateOrderStatus(1L, OrderStatus.PROCESSING);
+        coalescer.updateOrderStatus(1L, OrderStatus.SHIPPED);
+        
+        verify(orderService).applyStatusTransitions(1L, List.of(OrderStatus.PROCESSING));
+        verify(orderService).applyStatusTransitions(1L, List.of(OrderStatus.SHIPPED));
+        verifyNoMoreInteractions(orderService);
+    }
+    
+    private Future<OrderResponse> submit(long orderId, OrderStatus status) {
+        return executor.submit(() -> coalescer.updateOrderStatus(orderId, status));
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecommerce.orderprocessing.service;
+
+import com.ecommerce.orderprocessing.event.OrderCreatedEvent;
+import com.ecommerce.orderprocessing.repository.ProductSalesRepository;
+import com.ecommerce.orderprocessing.scheduler.SchedulerNodeRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProductSalesServiceTest {
+    
+    private ProductSalesRepository productSalesRepository;
+    private ProductSalesService productSalesService;
+    
+    @BeforeEach
+    void setUp() {
+        productSalesRepository = mock(ProductSalesRepository.class);
+        productSalesService = new ProductSalesService(productSalesRepository, mock(SchedulerNodeRegistry.class),
+                mock(PlatformTransactionManager.class), true);
+    }
+    
+    @Test
+    void duplicateKeyIsRetriedOnce() {
+        doThrow(new DuplicateKeyException("race")).doNothing()
+                .when(productSalesRepository).addToRollup(any(), any());
+        
+        productSalesService.onOrderCreated(event());
+        
+        verify(productSalesRepository, times(2)).addToRollup(any(), any());
+    }
+    
+    @Test
+    void failedRetryIsLoggedRatherThanThrown() {
+        doThrow(new DuplicateKeyException("race"))
+                .when(productSalesRepository).addToRollup(any(), any());
+        
+        assertDoesNotThrow(() -> productSalesService.onOrderCreated(event()));
+        verify(productSalesRepository, times(2)).addToRollup(any(), any());
+    }
+    
+    private static OrderCreatedEvent event() {
+        return new OrderCreatedEvent(1L, LocalDateTime.now(), "Sales Test", "sales@test.com",
+                List.of(new OrderCreatedEvent.Line("Widget", 2, new BigDecimal("10.00"))));
+    }
+}
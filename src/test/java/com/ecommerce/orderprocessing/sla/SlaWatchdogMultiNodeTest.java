@@ -0,0 +1,109 @@
+package com.ecommerce.orderprocessing.sla;
+
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.event.OrderSlaBreachedEvent;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.repository.SlaAlertRepository;
+import com.ecommerce.orderprocessing.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two watchdogs sharing one database, as on two nodes, must alert each breach once,
+ * and the claims must not outlive the status they were made for
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:slamultinode",
+        "orders.sla.enabled=false"
+})
+class SlaWatchdogMultiNodeTest {
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private SlaAlertRepository slaAlertRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void breachIsAlertedByOneNodeOnly() {
+        Long id = lateProcessingOrder();
+        
+        List<OrderSlaBreachedEvent> alerts = new CopyOnWriteArrayList<>();
+        SlaWatchdog first = watchdog(alerts);
+        SlaWatchdog second = watchdog(alerts);
+        first.rebuild();
+        second.rebuild();
+        long now = System.currentTimeMillis() + 2000;
+        
+        assertEquals(1, first.check(now) + second.check(now));
+        assertEquals(1, alerts.size());
+        assertEquals(id, alerts.get(0).getOrderId());
+        assertFalse(slaAlertRepository.claim(id, OrderStatus.PROCESSING, alerts.get(0).getSince()));
+    }
+    
+    @Test
+    void claimIsDeletedOnceTheOrderMovesOn() {
+        Long id = lateProcessingOrder();
+        LocalDateTime since = jdbcTemplate.queryForObject("select updated_at from orders where id = ?",
+                LocalDateTime.class, id);
+        assertTrue(slaAlertRepository.claim(id, OrderStatus.PROCESSING, since));
+        
+        slaAlertRepository.deleteEndedClaims();
+        assertEquals(1, claims(id));
+        
+        orderService.updateOrderStatus(id, OrderStatus.SHIPPED);
+        slaAlertRepository.deleteEndedClaims();
+        assertEquals(0, claims(id));
+    }
+    
+    private Long lateProcessingOrder() {
+        Long id = orderService.createOrder(OrderRequest.builder()
+                .customerName("Late Customer")
+                .customerEmail("late@example.com")
+                .items(List.of(OrderItemRequest.builder()
+                        .productName("Slow Product")
+                        .quantity(1)
+                        .price(new BigDecimal("10.00"))
+                        .build()))
+                .build()).getId();
+        orderService.updateOrderStatus(id, OrderStatus.PROCESSING);
+        jdbcTemplate.update("update orders set updated_at = ? where id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(25)), id);
+        return id;
+    }
+    
+    private int claims(Long orderId) {
+        return jdbcTemplate.queryForObject("select count(*) from order_sla_alerts where order_id = ?",
+                Integer.class, orderId);
+    }
+    
+    private SlaWatchdog watchdog(List<OrderSlaBreachedEvent> alerts) {
+        return new SlaWatchdog(orderRepository, slaAlertRepository,
+                event -> alerts.add((OrderSlaBreachedEvent) event), transactionManager,
+                new SimpleMeterRegistry(), Duration.ofHours(24), Duration.ofDays(7), 1000);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecommerce.orderprocessing.sla;
+
+import com.ecommerce.orderprocessing.event.OrderSlaBreachedEvent;
+import com.ecommerce.orderprocessing.event.OrderStatusChangedEvent;
+import com.ecommerce.orderprocessing.model.OrderStatus;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.repository.SlaAlertRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class SlaWatchdogTest {
+    
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    
+    private OrderRepository orderRepository;
+    private SlaAlertRepository slaAlertRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private SlaWatchdog watchdog;
+    private long now;
+    
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        slaAlertRepository = mock(SlaAlertRepository.class);
+        when(slaAlertRepository.claim(anyLong(), any(), any())).thenReturn(true);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        watchdog = new SlaWatchdog(orderRepository, slaAlertRepository, eventPublisher, mock(PlatformTransactionManager.class),
+                meterRegistry, Duration.ofHours(24), Duration.ofDays(7), 1000);
+        now = System.currentTimeMillis();
+    }
+    
+    @Test
+    void alertsOnlyForOrdersStillInTheStatusAfterTheDeadline() {
+        LocalDateTime changedAt = LocalDateTime.now();
+        watchdog.onStatusChanged(new OrderStatusChangedEvent(List.of(1L, 2L), OrderStatus.PENDING,
+                OrderStatus.PROCESSING, changedAt));
+        assertEquals(2, watchdog.trackedOrders());
+        
+        assertEquals(0, watchdog.check(now + 23 * HOUR));
+        verify(orderRepository, never()).findStatusTimestampsByIdIn(anyCollection());
+        
+        // Order 2 shipped on another node, so it is tracked again with the SHIPPED deadline
+        when(orderRepository.findStatusTimestampsByIdIn(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, OrderStatus.PROCESSING, changedAt},
+                new Object[]{2L, OrderStatus.SHIPPED, changedAt.plusHours(20)}));
+        assertEquals(1, watchdog.check(now + 25 * HOUR));
+        
+        ArgumentCaptor<OrderSlaBreachedEvent> breach = ArgumentCaptor.forClass(OrderSlaBreachedEvent.class);
+        verify(eventPublisher).publishEvent(breach.capture());
+        assertEquals(1L, breach.getValue().getOrderId());
+        assertEquals(OrderStatus.PROCESSING, breach.getValue().getStatus());
+        assertEquals(changedAt.plusHours(24), breach.getValue().getDeadline());
+        assertEquals(1, watchdog.trackedOrders());
+        assertEquals(1.0, meterRegistry.counter("orders.sla.breaches", "status", "PROCESSING").count());
+    }
+    
+    @Test
+    void statusWithoutSlaStopsTracking() {
+        LocalDateTime changedAt = LocalDateTime.now();
+        watchdog.onStatusChanged(OrderStatusChangedEvent.of(1L, OrderStatus.PROCESSING, OrderStatus.SHIPPED, changedAt));
+        watchdog.onStatusChanged(OrderStatusChangedEvent.of(1L, OrderStatus.SHIPPED, OrderStatus.DELIVERED,
+                changedAt.plusHours(1)));
+        
+        assertEquals(0, watchdog.trackedOrders());
+        assertEquals(0, watchdog.check(now + 8 * 24 * HOUR));
+        verifyNoInteractions(orderRepository, eventPublisher);
+    }
+    
+    @Test
+    void rebuildTracksOrdersFromTheirLastUpdate() {
+        LocalDateTime longAgo = LocalDateTime.now().minusDays(8);
+        when(orderRepository.streamStatusTimestamps(anyCollection())).thenReturn(Stream.of(
+                new Object[]{1L, OrderStatus.SHIPPED, longAgo},
+                new Object[]{2L, OrderStatus.PROCESSING, LocalDateTime.now().minusHours(1)}));
+        when(orderRepository.findStatusTimestampsByIdIn(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, OrderStatus.SHIPPED, longAgo}));
+        
+        assertEquals(2, watchdog.rebuild());
+        assertEquals(1, watchdog.check(now + 2000));
+        
+        verify(eventPublisher).publishEvent(any(OrderSlaBreachedEvent.class));
+        assertEquals(1, watchdog.trackedOrders());
+    }
+    
+    @Test
+    void breachClaimedByAnotherNodeIsNotAlertedAgain() {
+        LocalDateTime changedAt = LocalDateTime.now();
+        watchdog.onStatusChanged(OrderStatusChangedEvent.of(1L, OrderStatus.PENDING, OrderStatus.PROCESSING, changedAt));
+        when(orderRepository.findStatusTimestampsByIdIn(anyCollection())).thenReturn(List.<Object[]>of(
+                new Object[]{1L, OrderStatus.PROCESSING, changedAt}));
+        when(slaAlertRepository.claim(1L, OrderStatus.PROCESSING, changedAt)).thenReturn(false);
+        
+        assertEquals(0, watchdog.check(now + 25 * HOUR));
+        
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(0.0, meterRegistry.counter("orders.sla.breaches", "status", "PROCESSING").count());
+        assertEquals(0, watchdog.trackedOrders());
+    }
+}
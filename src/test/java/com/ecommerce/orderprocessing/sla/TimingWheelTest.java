@@ -0,0 +1,150 @@
+package com.ecommerce.orderprocessing.sla;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    
+    private static final long SECOND = 1000;
+    
+    @Test
+    void expiresEveryLevelAtItsDeadline() {
+        TimingWheel wheel = new TimingWheel(SECOND, 0);
+        // Level 0, 1, 2, 3 and beyond the top level
+        long[] deadlines = {5 * SECOND, 70 * SECOND, 5_000 * SECOND, 300_000 * SECOND, 20_000_000 * SECOND};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i + 1, deadlines[i], i);
+        }
+        
+        for (int i = 0; i < deadlines.length; i++) {
+            List<Long> expired = new ArrayList<>();
+            wheel.advance(deadlines[i] - SECOND, (key, deadline, tag) -> expired.add(key));
+            assertTrue(expired.isEmpty(), "nothing due before " + deadlines[i]);
+            
+            int index = i;
+            wheel.advance(deadlines[i], (key, deadline, tag) -> {
+                assertEquals(index + 1, key);
+                assertEquals(deadlines[index], deadline);
+                assertEquals(index, tag);
+                expired.add(key);
+            });
+            assertEquals(List.of(i + 1L), expired);
+        }
+        assertEquals(0, wheel.size());
+    }
+    
+    @Test
+    void rescheduledKeyExpiresOnlyAtItsLatestDeadline() {
+        TimingWheel wheel = new TimingWheel(SECOND, 0);
+        wheel.schedule(1, 10 * SECOND, 0);
+        wheel.schedule(1, 200 * SECOND, 1);
+        wheel.schedule(2, 300 * SECOND, 0);
+        wheel.schedule(2, 20 * SECOND, 1);
+        
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(100 * SECOND, (key, deadline, tag) -> expired.add(key));
+        assertEquals(List.of(2L), expired);
+        
+        wheel.advance(1_000 * SECOND, (key, deadline, tag) -> expired.add(key));
+        assertEquals(List.of(2L, 1L), expired);
+    }
+    
+    @Test
+    void cancelledKeyNeverExpires() {
+        TimingWheel wheel = new TimingWheel(SECOND, 0);
+        wheel.schedule(1, 10 * SECOND, 0);
+        wheel.cancel(1);
+        
+        assertFalse(wheel.contains(1));
+        wheel.advance(100 * SECOND, (key, deadline, tag) -> fail("cancelled key expired"));
+    }
+    
+    @Test
+    void pastDeadlineExpiresOnNextTick() {
+        TimingWheel wheel = new TimingWheel(SECOND, 50 * SECOND);
+        wheel.schedule(1, 10 * SECOND, 0);
+        
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(51 * SECOND, (key, deadline, tag) -> expired.add(key));
+        assertEquals(List.of(1L), expired);
+    }
+    
+    @Test
+    void scheduleIfAbsentKeepsExistingDeadline() {
+        TimingWheel wheel = new TimingWheel(SECOND, 0);
+        wheel.schedule(1, 10 * SECOND, 0);
+        
+        assertFalse(wheel.scheduleIfAbsent(1, 5 * SECOND, 0));
+        List<Long> expired = new ArrayList<>();
+        wheel.advance(9 * SECOND, (key, deadline, tag) -> expired.add(key));
+        assertTrue(expired.isEmpty());
+    }
+    
+    @Test
+    void randomScheduleMatchesReference() {
+        Random random = new Random(42);
+        TimingWheel wheel = new TimingWheel(SECOND, 0);
+        Map<Long, Long> reference = new HashMap<>();
+        long now = 0;
+        
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = 0; i < 50; i++) {
+                long key = 1 + random.nextInt(5_000);
+                if (random.nextInt(10) == 0) {
+                    wheel.cancel(key);
+                    reference.remove(key);
+                } else {
+                    // Mostly within a day, some up to a year, never due before the next tick
+                    long delay = SECOND + (random.nextInt(20) == 0
+                            ? (long) random.nextInt(365 * 86_400) * SECOND
+                            : (long) random.nextInt(86_400_000));
+                    wheel.schedule(key, now + delay, (int) (key & 7));
+                    reference.put(key, now + delay);
+                }
+            }
+            long to = now + (long) random.nextInt(3_600) * SECOND;
+            List<Long> expected = reference.entrySet().stream()
+                    .filter(entry -> entry.getValue() / SECOND <= to / SECOND)
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+            List<Long> expired = new ArrayList<>();
+            wheel.advance(to, (key, deadline, tag) -> {
+                assertEquals(reference.get(key), deadline);
+                assertEquals(key & 7, tag);
+                expired.add(key);
+            });
+            expired.sort(null);
+            assertEquals(expected, expired, "round " + round);
+            expected.forEach(reference::remove);
+            assertEquals(reference.size(), wheel.size());
+            now = to;
+        }
+    }
+    
+    @Test
+    void mapSurvivesGrowthAndRemoval() {
+        Random random = new Random(7);
+        LongLongMap map = new LongLongMap();
+        Map<Long, Long> reference = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1 + random.nextInt(20_000);
+            if (random.nextBoolean()) {
+                assertEquals(reference.getOrDefault(key, LongLongMap.MISSING), map.put(key, i));
+                reference.put(key, (long) i);
+            } else {
+                assertEquals(reference.getOrDefault(key, LongLongMap.MISSING), map.remove(key));
+                reference.remove(key);
+            }
+        }
+        assertEquals(reference.size(), map.size());
+        reference.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+}
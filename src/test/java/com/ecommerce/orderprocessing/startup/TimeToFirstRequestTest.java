@@ -0,0 +1,74 @@
+package com.ecommerce.orderprocessing.startup;
+
+import com.ecommerce.orderprocessing.OrderProcessingApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression test for the production startup mode: the first API request must be
+ * answered within a time budget measured from the start of SpringApplication#run.
+ * Warm-up is switched off, since it deliberately spends time before readiness and is
+ * measured by WarmUpLatencyBenchmark instead.
+ * The budget is the measured baseline plus 25%, so a slowdown of that size fails the run.
+ * Wall-clock time depends on the machine, so it is a benchmark rather than part of every build.
+ * After an intended change, or on a slower machine, set a new baseline with
+ * -Dstartup.first-request-baseline-ms, or the budget itself with -Dstartup.first-request-budget-ms.
+ * Run with: mvn -Pbenchmark test -Dtest=TimeToFirstRequestTest
+ */
+@Tag("benchmark")
+@Slf4j
+class TimeToFirstRequestTest {
+    
+    /**
+     * Time to first request measured on the CI machine with warm-up off
+     */
+    private static final long BASELINE_MILLIS = 39_000;
+    private static final double ALLOWED_REGRESSION = 0.25;
+    
+    @Test
+    void prodProfileAnswersFirstRequestWithinBudget() throws Exception {
+        long baselineMillis = Long.getLong("startup.first-request-baseline-ms", BASELINE_MILLIS);
+        long budgetMillis = Long.getLong("startup.first-request-budget-ms",
+                Math.round(baselineMillis * (1 + ALLOWED_REGRESSION)));
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10_000);
+        
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(OrderProcessingApplication.class)
+                .applicationStartup(applicationStartup)
+                .run("--spring.profiles.active=prod",
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startupdb",
+                        "--orders.warmup.enabled=false",
+                        "--orders.scheduler.initial-delay-ms=3600000")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpResponse<String> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders"))
+                            .timeout(Duration.ofSeconds(30))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            
+            assertEquals(200, response.statusCode());
+            log.info("Time to first request (prod profile): {} ms, baseline {} ms, budget {} ms",
+                    elapsedMillis, baselineMillis, budgetMillis);
+            assertTrue(elapsedMillis < budgetMillis, "first request took " + elapsedMillis + " ms, budget is "
+                    + budgetMillis + " ms (baseline " + baselineMillis + " ms)");
+            
+            assertFalse(context.containsBean("customOpenAPI"), "Swagger config must be excluded in prod");
+            assertFalse(applicationStartup.getBufferedTimeline().getEvents().isEmpty());
+        }
+    }
+}
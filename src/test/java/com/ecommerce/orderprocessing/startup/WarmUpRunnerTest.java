@@ -0,0 +1,110 @@
+package com.ecommerce.orderprocessing.startup;
+
+import com.ecommerce.orderprocessing.cache.OrderResponseCache;
+import com.ecommerce.orderprocessing.dto.OrderItemRequest;
+import com.ecommerce.orderprocessing.dto.OrderRequest;
+import com.ecommerce.orderprocessing.repository.OrderRepository;
+import com.ecommerce.orderprocessing.search.OrderSearchIndex;
+import com.ecommerce.orderprocessing.service.OrderService;
+import com.ecommerce.orderprocessing.sla.SlaWatchdog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration tests for the startup warm-up
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:warmupdb",
+        "orders.warmup.enabled=true",
+        "orders.warmup.iterations=5",
+        "orders.warmup.prime-orders=10"
+})
+class WarmUpRunnerTest {
+    
+    @Autowired
+    private WarmUpRunner warmUpRunner;
+    
+    @Autowired
+    private OrderService orderService;
+    
+    @Autowired
+    private OrderRepository orderRepository;
+    
+    @Autowired
+    private OrderResponseCache orderResponseCache;
+    
+    @Autowired
+    private AbstractApplicationContext applicationContext;
+    
+    @Test
+    void warmUpLeavesNoOrdersBehindAndPrimesRecentOrders() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            ids.add(orderService.createOrder(orderRequest(i)).getId());
+        }
+        ids.forEach(orderResponseCache::evict);
+        long orders = orderRepository.count();
+        
+        warmUpRunner.run();
+        
+        assertEquals(orders, orderRepository.count());
+        assertTrue(orderService.searchOrders("warm customer", 0, 20).getResults().isEmpty());
+        // Only the ten newest orders are primed
+        for (Long id : ids.subList(5, 15)) {
+            assertNotNull(orderResponseCache.get(id), "order " + id + " should be primed");
+        }
+        for (Long id : ids.subList(0, 5)) {
+            assertNull(orderResponseCache.get(id), "order " + id + " should not be primed");
+        }
+    }
+    
+    @Test
+    void warmUpRunsAfterTheStartupRebuilds() {
+        List<String> listeners = applicationContext.getApplicationListeners().stream()
+                .filter(listener -> listener instanceof ApplicationListenerMethodAdapter adapter
+                        && adapter.supportsEventType(ResolvableType.forClass(ApplicationReadyEvent.class)))
+                .sorted(AnnotationAwareOrderComparator.INSTANCE)
+                .map(listener -> ((ApplicationListenerMethodAdapter) listener).getListenerId())
+                .toList();
+        
+        int warmUp = indexOf(listeners, WarmUpRunner.class);
+        assertTrue(warmUp >= 0, "warm-up listener missing from " + listeners);
+        for (Class<?> rebuilt : List.of(OrderSearchIndex.class, SlaWatchdog.class)) {
+            int position = indexOf(listeners, rebuilt);
+            assertTrue(position >= 0 && position < warmUp, rebuilt.getSimpleName() + " must rebuild before warm-up");
+        }
+    }
+    
+    private static int indexOf(List<String> listenerIds, Class<?> type) {
+        for (int i = 0; i < listenerIds.size(); i++) {
+            if (listenerIds.get(i).startsWith(type.getName() + ".")) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static OrderRequest orderRequest(int i) {
+        return OrderRequest.builder()
+                .customerName("Primed Customer " + i)
+                .customerEmail("primed" + i + "@example.com")
+                .items(List.of(OrderItemRequest.builder()
+                        .productName("Primed Product")
+                        .quantity(1)
+                        .price(new BigDecimal("19.99"))
+                        .build()))
+                .build();
+    }
+}
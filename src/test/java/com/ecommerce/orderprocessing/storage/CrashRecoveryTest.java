@@ -0,0 +1,138 @@
+package com.ecommerce.orderprocessing.storage;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kills a process that is writing orders to the file-backed H2 database in the middle of a
+ * batch, then reopens the database and checks that it recovers to a consistent state
+ */
+class CrashRecoveryTest {
+    
+    private static final Path DB_DIR = Paths.get("target", "crash-recovery-test");
+    private static final int ORDERS_PER_BATCH = 50;
+    private static final int BATCHES_BEFORE_KILL = 20;
+    
+    @BeforeEach
+    void cleanDatabase() throws Exception {
+        FileSystemUtils.deleteRecursively(DB_DIR);
+    }
+    
+    @Test
+    void delayedWritesRecoverWithoutPartialBatches() throws Exception {
+        // Same store settings as the dev profile: commits may be lost, half batches never
+        String url = url("delayed", "CACHE_SIZE=65536;WRITE_DELAY=500");
+        
+        killMidBatch(url);
+        
+        assertConsistent(url);
+    }
+    
+    @Test
+    void immediateWritesKeepEveryAcknowledgedBatch() throws Exception {
+        String url = url("immediate", "WRITE_DELAY=0");
+        
+        long acknowledged = killMidBatch(url);
+        
+        long orders = assertConsistent(url);
+        assertTrue(orders >= acknowledged * ORDERS_PER_BATCH,
+                "recovered " + orders + " orders, " + acknowledged * ORDERS_PER_BATCH + " were committed");
+    }
+    
+    /**
+     * Start the writer, wait for some committed batches and kill it while the next one is open
+     *
+     * @return the number of batches the writer reported as committed
+     */
+    private long killMidBatch(String url) throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process writer = new ProcessBuilder(List.of(java, "-cp", System.getProperty("java.class.path"),
+                CrashingOrderWriter.class.getName(), url, Integer.toString(ORDERS_PER_BATCH)))
+                .redirectErrorStream(true)
+                .start();
+        
+        long committed = 0;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(writer.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith("COMMITTED ")) {
+                    committed = Long.parseLong(line.substring("COMMITTED ".length()));
+                    if (committed >= BATCHES_BEFORE_KILL) {
+                        writer.destroyForcibly();
+                        break;
+                    }
+                }
+            }
+        } finally {
+            writer.destroyForcibly();
+            assertTrue(writer.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertTrue(committed >= BATCHES_BEFORE_KILL, "writer exited before committing enough batches");
+        return committed;
+    }
+    
+    /**
+     * Reopen the database, validate the migrations and check that only whole batches of whole orders survived
+     *
+     * @return the number of recovered orders
+     */
+    private long assertConsistent(String url) throws Exception {
+        Flyway.configure().dataSource(url, "sa", "").load().validate();
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            long orders = queryLong(statement, "select count(*) from orders");
+            assertTrue(orders > 0, "no orders were recovered");
+            assertEquals(0, orders % ORDERS_PER_BATCH, "a partial batch survived the crash");
+            assertEquals(orders * CrashingOrderWriter.ITEMS_PER_ORDER, queryLong(statement, "select count(*) from order_items"));
+            assertEquals(0, queryLong(statement,
+                    "select count(*) from orders o where o.total_amount <> " +
+                    "(select coalesce(sum(i.price * i.quantity), 0) from order_items i where i.order_id = o.id)"));
+            
+            // The reopened store must still accept writes
+            connection.setAutoCommit(false);
+            statement.executeUpdate("update orders set status = 'PROCESSING' where id = (select min(id) from orders)");
+            connection.commit();
+            BigDecimal expectedTotal = CrashingOrderWriter.ITEM_PRICE
+                    .multiply(BigDecimal.valueOf(orders * CrashingOrderWriter.ITEMS_PER_ORDER));
+            assertEquals(0, expectedTotal.compareTo(queryDecimal(statement, "select sum(total_amount) from orders")));
+            return orders;
+        }
+    }
+    
+    private static String url(String name, String settings) {
+        return "jdbc:h2:file:./" + DB_DIR.resolve(name).toString().replace('\\', '/') + ";" + settings;
+    }
+    
+    private static long queryLong(Statement statement, String sql) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+    
+    private static BigDecimal queryDecimal(Statement statement, String sql) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getBigDecimal(1);
+        }
+    }
+}
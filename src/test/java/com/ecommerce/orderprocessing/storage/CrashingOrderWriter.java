@@ -0,0 +1,66 @@
+package com.ecommerce.orderprocessing.storage;
+
+import org.flywaydb.core.Flyway;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+/**
+ * Child process for {@link CrashRecoveryTest}: migrates a file database and then writes
+ * batches of orders until it is killed, printing a line after every committed batch.
+ * Usage: CrashingOrderWriter &lt;jdbcUrl&gt; &lt;ordersPerBatch&gt;
+ */
+public class CrashingOrderWriter {
+    
+    static final int ITEMS_PER_ORDER = 2;
+    static final BigDecimal ITEM_PRICE = new BigDecimal("12.50");
+    
+    public static void main(String[] args) throws Exception {
+        String url = args[0];
+        int ordersPerBatch = Integer.parseInt(args[1]);
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             PreparedStatement insertOrder = connection.prepareStatement(
+                     "insert into orders (customer_name, customer_email, status, total_amount, created_at, updated_at) " +
+                     "values (?, ?, 'PENDING', ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement insertItem = connection.prepareStatement(
+                     "insert into order_items (order_id, product_name, quantity, price) values (?, ?, 1, ?)")) {
+            connection.setAutoCommit(false);
+            BigDecimal total = ITEM_PRICE.multiply(BigDecimal.valueOf(ITEMS_PER_ORDER));
+            
+            for (long batch = 1; ; batch++) {
+                for (int i = 0; i < ordersPerBatch; i++) {
+                    Timestamp now = new Timestamp(System.currentTimeMillis());
+                    insertOrder.setString(1, "Crash Test " + batch + "-" + i);
+                    insertOrder.setString(2, "crash" + batch + "-" + i + "@test.com");
+                    insertOrder.setBigDecimal(3, total);
+                    insertOrder.setTimestamp(4, now);
+                    insertOrder.setTimestamp(5, now);
+                    insertOrder.executeUpdate();
+                    
+                    long orderId;
+                    try (ResultSet keys = insertOrder.getGeneratedKeys()) {
+                        keys.next();
+                        orderId = keys.getLong(1);
+                    }
+                    for (int item = 0; item < ITEMS_PER_ORDER; item++) {
+                        insertItem.setLong(1, orderId);
+                        insertItem.setString(2, "Product " + item);
+                        insertItem.setBigDecimal(3, ITEM_PRICE);
+                        insertItem.addBatch();
+                    }
+                    insertItem.executeBatch();
+                }
+                connection.commit();
+                System.out.println("COMMITTED " + batch);
+                System.out.flush();
+            }
+        }
+    }
+}